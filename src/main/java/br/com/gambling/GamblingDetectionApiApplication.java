@@ -1,7 +1,13 @@
 package br.com.gambling;
 
+import br.com.gambling.service.ActiveSessionAccumulator;
+import br.com.gambling.service.UserFeatureStore;
+import br.com.gambling.service.UserLimitService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicação principal para detecção e prevenção de apostas compulsivas.
@@ -16,9 +22,25 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 1.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class GamblingDetectionApiApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(GamblingDetectionApiApplication.class, args);
     }
+
+    /**
+     * Reaplica o diário de eventos das sessões e, com as sessões já atualizadas, reconstrói as janelas
+     * móveis por usuário e os contadores de limites diários antes de o servidor começar a aceitar requisições
+     */
+    @Bean
+    public SmartInitializingSingleton sessionJournalRecovery(ActiveSessionAccumulator activeSessionAccumulator,
+                                                             UserFeatureStore userFeatureStore,
+                                                             UserLimitService userLimitService) {
+        return () -> {
+            activeSessionAccumulator.recoverFromJournal();
+            userFeatureStore.rebuild();
+            userLimitService.rebuild();
+        };
+    }
 }
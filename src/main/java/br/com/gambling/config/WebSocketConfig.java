@@ -0,0 +1,46 @@
+package br.com.gambling.config;
+
+import br.com.gambling.controller.SessionEventChannelHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * Configuração do canal WebSocket de eventos de sessões.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private SessionEventChannelHandler sessionEventChannelHandler;
+
+    /**
+     * Origens de navegador aceitas no handshake; vazio aceita só a mesma origem (clientes sem cabeçalho Origin,
+     * como os servidores das plataformas, não são afetados)
+     */
+    @Value("${gambling.sessions.channel.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    @Value("${gambling.sessions.channel.max-message-bytes:1048576}")
+    private int maxMessageBytes;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(sessionEventChannelHandler, "/ws/sessions/events")
+                .setAllowedOrigins(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(maxMessageBytes);
+        container.setMaxBinaryMessageBufferSize(maxMessageBytes);
+        return container;
+    }
+}
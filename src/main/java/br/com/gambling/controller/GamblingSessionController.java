@@ -2,7 +2,15 @@ package br.com.gambling.controller;
 
 import br.com.gambling.dto.GamblingSessionRequestDto;
 import br.com.gambling.dto.GamblingSessionResponseDto;
+import br.com.gambling.dto.SessionEventBatchRequestDto;
+import br.com.gambling.dto.SessionEventBatchResponseDto;
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.dto.SessionEventStreamResultDto;
+import br.com.gambling.dto.SessionPipelineMetricsDto;
 import br.com.gambling.service.GamblingSessionService;
+import br.com.gambling.service.SessionEventBinaryFormat;
+import br.com.gambling.service.SessionEventPipeline;
+import br.com.gambling.service.SessionEventStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +25,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -32,15 +42,23 @@ public class GamblingSessionController {
     @Autowired
     private GamblingSessionService gamblingSessionService;
 
+    @Autowired
+    private SessionEventStreamService sessionEventStreamService;
+
+    @Autowired
+    private SessionEventPipeline sessionEventPipeline;
+
     @PostMapping
     @Operation(summary = "Criar nova sessão", description = "Cria uma nova sessão de apostas")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Sessão criada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma chave de idempotência em processamento")
     })
-    public ResponseEntity<GamblingSessionResponseDto> createSession(@Valid @RequestBody GamblingSessionRequestDto sessionRequest) {
-        Optional<GamblingSessionResponseDto> createdSession = gamblingSessionService.createSession(sessionRequest);
+    public ResponseEntity<GamblingSessionResponseDto> createSession(@Valid @RequestBody GamblingSessionRequestDto sessionRequest,
+                                                                    @Parameter(description = "Chave de idempotência; repetições com a mesma chave não são reaplicadas") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Optional<GamblingSessionResponseDto> createdSession = gamblingSessionService.createSession(sessionRequest, idempotencyKey);
         return createdSession.map(session -> ResponseEntity.status(HttpStatus.CREATED).body(session))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -73,11 +91,13 @@ public class GamblingSessionController {
     @Operation(summary = "Adicionar aposta", description = "Adiciona uma aposta à sessão")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Aposta adicionada com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Sessão não encontrada")
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma chave de idempotência em processamento ou já usada em outra sessão")
     })
     public ResponseEntity<Void> addBet(@PathVariable Long id, 
-                                      @RequestParam Double amount) {
-        boolean added = gamblingSessionService.addBet(id, amount);
+                                      @RequestParam Double amount,
+                                      @Parameter(description = "Chave de idempotência; repetições com a mesma chave não são reaplicadas") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        boolean added = gamblingSessionService.addBet(id, amount, idempotencyKey);
         return added ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
@@ -85,14 +105,76 @@ public class GamblingSessionController {
     @Operation(summary = "Adicionar ganho", description = "Adiciona um ganho à sessão")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ganho adicionado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Sessão não encontrada")
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma chave de idempotência em processamento ou já usada em outra sessão")
     })
     public ResponseEntity<Void> addWin(@PathVariable Long id, 
-                                      @RequestParam Double amount) {
-        boolean added = gamblingSessionService.addWin(id, amount);
+                                      @RequestParam Double amount,
+                                      @Parameter(description = "Chave de idempotência; repetições com a mesma chave não são reaplicadas") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        boolean added = gamblingSessionService.addWin(id, amount, idempotencyKey);
         return added ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
+    @PostMapping("/{id}/events:batch")
+    @Operation(summary = "Adicionar lote de eventos", description = "Aplica um lote ordenado de apostas e ganhos à sessão em uma única transação, retornando o aceite de cada evento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo"),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada")
+    })
+    public ResponseEntity<SessionEventBatchResponseDto> addEventBatch(@PathVariable Long id,
+                                                                      @Valid @RequestBody SessionEventBatchRequestDto batchRequest) {
+        Optional<SessionEventBatchResponseDto> result = gamblingSessionService.applyEventBatch(id, batchRequest.getEvents());
+        return result.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/{id}/events:batch", consumes = SessionEventBinaryFormat.MEDIA_TYPE)
+    @Operation(summary = "Adicionar lote de eventos (binário)", description = "Mesmo que o lote JSON, com os eventos em registros binários de 32 bytes little-endian (sessionId, tipo, valor, timestamp); registros de outra sessão são rejeitados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do tamanho máximo ou com registro incompleto"),
+            @ApiResponse(responseCode = "404", description = "Sessão não encontrada")
+    })
+    public ResponseEntity<SessionEventBatchResponseDto> addBinaryEventBatch(@PathVariable Long id, InputStream body) throws IOException {
+        List<SessionEventDto> events = SessionEventBinaryFormat.readEvents(body, SessionEventBatchRequestDto.MAX_EVENTS);
+        if (events == null || events.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<SessionEventBatchResponseDto> result = gamblingSessionService.applyEventBatch(id, events);
+        return result.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/events/stream", consumes = "application/x-ndjson")
+    @Operation(summary = "Ingerir fluxo de eventos", description = "Consome um fluxo NDJSON contínuo de apostas e ganhos de várias sessões (sessionId, type, amount, timestamp), aplicando-os em micro-lotes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo processado; retorna a contagem de eventos aceitos e rejeitados")
+    })
+    public ResponseEntity<SessionEventStreamResultDto> ingestEventStream(InputStream body) throws IOException {
+        SessionEventStreamResultDto result = sessionEventStreamService.ingest(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/events/stream", consumes = SessionEventBinaryFormat.MEDIA_TYPE)
+    @Operation(summary = "Ingerir fluxo de eventos (binário)", description = "Consome um fluxo contínuo de registros binários de 32 bytes little-endian (sessionId, tipo, valor, timestamp) de várias sessões, sem decodificação JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo processado; retorna a contagem de eventos aceitos e rejeitados")
+    })
+    public ResponseEntity<SessionEventStreamResultDto> ingestBinaryEventStream(InputStream body) throws IOException {
+        SessionEventStreamResultDto result = sessionEventStreamService.ingestBinary(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/pipeline/metrics")
+    @Operation(summary = "Métricas do pipeline de eventos", description = "Retorna a profundidade da fila e a latência de cada estágio do pipeline de ingestão de eventos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Métricas retornadas com sucesso")
+    })
+    public ResponseEntity<SessionPipelineMetricsDto> getPipelineMetrics() {
+        return ResponseEntity.ok(sessionEventPipeline.getMetrics());
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Listar sessões de um usuário", description = "Retorna todas as sessões de um usuário específico")
     @ApiResponses(value = {
@@ -122,6 +122,22 @@ public class InterventionController {
         return ResponseEntity.ok(interventions);
     }
 
+    @PostMapping("/claim")
+    @Operation(summary = "Assumir próximas intervenções", description = "Retira da fila as próximas intervenções pendentes por prioridade para o operador; nenhuma intervenção é entregue a dois operadores")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Intervenções assumidas (lista vazia se não há pendentes)"),
+            @ApiResponse(responseCode = "400", description = "Quantidade inválida")
+    })
+    public ResponseEntity<List<InterventionResponseDto>> claimInterventions(
+            @Parameter(description = "Operador que assume as intervenções") @RequestParam String operator,
+            @Parameter(description = "Quantidade de intervenções (1 a 100)") @RequestParam(defaultValue = "1") Integer count) {
+        if (count < 1 || count > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<InterventionResponseDto> interventions = interventionService.claimInterventions(operator, count);
+        return ResponseEntity.ok(interventions);
+    }
+
     @GetMapping("/scheduled")
     @Operation(summary = "Listar intervenções agendadas para execução", description = "Retorna intervenções agendadas que devem ser executadas agora")
     @ApiResponses(value = {
@@ -1,9 +1,18 @@
 package br.com.gambling.controller;
 
+import br.com.gambling.dto.AssessmentCacheMetricsDto;
+import br.com.gambling.dto.BetSizeProfileDto;
+import br.com.gambling.dto.LiveRiskScoreDto;
+import br.com.gambling.dto.RiskAnalysisJobDto;
 import br.com.gambling.dto.RiskAnalysisRequestDto;
+import br.com.gambling.dto.RescoringJobStatusDto;
 import br.com.gambling.dto.RiskAssessmentResponseDto;
+import br.com.gambling.dto.UserFeaturesDto;
 import br.com.gambling.enums.RiskLevel;
+import br.com.gambling.exception.InvalidCallbackUrlException;
+import br.com.gambling.service.RiskAnalysisJobService;
 import br.com.gambling.service.RiskAssessmentService;
+import br.com.gambling.service.RiskRescoringService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +27,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -33,8 +43,14 @@ public class RiskAssessmentController {
     @Autowired
     private RiskAssessmentService riskAssessmentService;
 
+    @Autowired
+    private RiskRescoringService riskRescoringService;
+
+    @Autowired
+    private RiskAnalysisJobService riskAnalysisJobService;
+
     @PostMapping("/analyze")
-    @Operation(summary = "Realizar análise de risco", description = "Realiza uma análise de risco completa de um usuário")
+    @Operation(summary = "Realizar análise de risco", description = "Realiza uma análise de risco completa de um usuário; pedidos simultâneos para o mesmo usuário aguardam a mesma análise")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Análise realizada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
@@ -42,13 +58,77 @@ public class RiskAssessmentController {
     })
     public ResponseEntity<RiskAssessmentResponseDto> performRiskAnalysis(@Valid @RequestBody RiskAnalysisRequestDto analysisRequest) {
         try {
-            RiskAssessmentResponseDto assessment = riskAssessmentService.performRiskAnalysis(analysisRequest);
+            RiskAssessmentResponseDto assessment = riskAnalysisJobService.analyze(analysisRequest);
             return ResponseEntity.ok(assessment);
+        } catch (InvalidCallbackUrlException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PostMapping("/analyze/async")
+    @Operation(summary = "Solicitar análise de risco assíncrona", description = "Aceita a análise e retorna o job para consulta; pedidos simultâneos para o mesmo usuário recebem o mesmo job e, se informada, a URL de retorno recebe o resultado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Análise aceita"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou URL de retorno para host não permitido"),
+            @ApiResponse(responseCode = "503", description = "Fila de análises cheia")
+    })
+    public ResponseEntity<RiskAnalysisJobDto> submitRiskAnalysis(@Valid @RequestBody RiskAnalysisRequestDto analysisRequest) {
+        RiskAnalysisJobDto job = riskAnalysisJobService.submit(analysisRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/risk-assessments/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Consultar análise assíncrona", description = "Retorna a situação e, quando concluída, o resultado de uma análise assíncrona")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Análise encontrada"),
+            @ApiResponse(responseCode = "404", description = "Análise não encontrada ou já descartada")
+    })
+    public ResponseEntity<RiskAnalysisJobDto> getRiskAnalysisJob(@PathVariable String jobId) {
+        return riskAnalysisJobService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/rescoring")
+    @Operation(summary = "Iniciar reavaliação em lote", description = "Reavalia em segundo plano todos os usuários sem avaliação recente, retomando do checkpoint a última execução não concluída")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Reavaliação iniciada"),
+            @ApiResponse(responseCode = "409", description = "Já existe uma reavaliação em andamento")
+    })
+    public ResponseEntity<RescoringJobStatusDto> startRescoring() {
+        return riskRescoringService.start()
+                .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/rescoring")
+    @Operation(summary = "Progresso da reavaliação em lote", description = "Retorna o checkpoint e as métricas de vazão da execução corrente ou da última execução")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progresso retornado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Nenhuma reavaliação registrada")
+    })
+    public ResponseEntity<RescoringJobStatusDto> getRescoringStatus() {
+        return riskRescoringService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/rescoring")
+    @Operation(summary = "Parar reavaliação em lote", description = "Para a execução em andamento depois das páginas já iniciadas; a próxima execução continua do checkpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Parada solicitada"),
+            @ApiResponse(responseCode = "404", description = "Nenhuma reavaliação em andamento")
+    })
+    public ResponseEntity<RescoringJobStatusDto> stopRescoring() {
+        return riskRescoringService.stop()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/user/{userId}/latest")
     @Operation(summary = "Buscar avaliação mais recente", description = "Retorna a avaliação de risco mais recente de um usuário")
     @ApiResponses(value = {
@@ -61,6 +141,51 @@ public class RiskAssessmentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/user/{userId}/bet-profile")
+    @Operation(summary = "Perfil de valores apostados", description = "Retorna mediana, p90 e p99 dos valores apostados pelo usuário, usados para marcar apostas fora do seu padrão")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Perfil encontrado"),
+            @ApiResponse(responseCode = "404", description = "Usuário sem apostas registradas")
+    })
+    public ResponseEntity<BetSizeProfileDto> getBetSizeProfile(@PathVariable Long userId) {
+        return riskAssessmentService.findBetSizeProfile(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cache/metrics")
+    @Operation(summary = "Métricas do cache de avaliações", description = "Retorna acertos, ausências e descartes do cache da avaliação mais recente por usuário")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Métricas retornadas com sucesso")
+    })
+    public ResponseEntity<AssessmentCacheMetricsDto> getLatestAssessmentCacheMetrics() {
+        return ResponseEntity.ok(riskAssessmentService.getLatestAssessmentCacheMetrics());
+    }
+
+    @GetMapping("/user/{userId}/live")
+    @Operation(summary = "Pontuação de risco em tempo real", description = "Retorna a pontuação de risco incremental do usuário, atualizada a cada aposta, ganho, sessão e depósito, com as variáveis que a compõem")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pontuação encontrada"),
+            @ApiResponse(responseCode = "404", description = "Usuário sem atividade recente")
+    })
+    public ResponseEntity<LiveRiskScoreDto> getLiveScore(@PathVariable Long userId) {
+        Optional<LiveRiskScoreDto> score = riskAssessmentService.findLiveScore(userId);
+        return score.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/user/{userId}/features")
+    @Operation(summary = "Variáveis em janelas móveis", description = "Retorna as variáveis do usuário (apostas, perda líquida, sessões, depósitos, perdas significativas e tipos de jogo) nas janelas de 1 hora, 24 horas, 7 dias e 30 dias")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Variáveis retornadas com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    public ResponseEntity<List<UserFeaturesDto>> getUserFeatures(@PathVariable Long userId) {
+        return riskAssessmentService.findUserFeatures(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Listar avaliações de um usuário", description = "Retorna todas as avaliações de risco de um usuário")
     @ApiResponses(value = {
@@ -91,6 +216,17 @@ public class RiskAssessmentController {
         return ResponseEntity.ok(assessments);
     }
 
+    @GetMapping("/net-balance-below")
+    @Operation(summary = "Listar avaliações por saldo líquido", description = "Retorna avaliações ativas com saldo líquido (depósitos menos saques) abaixo do valor informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de avaliações retornada com sucesso")
+    })
+    public ResponseEntity<Page<RiskAssessmentResponseDto>> getAssessmentsByNetBalanceBelow(
+            @Parameter(description = "Saldo líquido máximo (exclusivo)") @RequestParam Double value,
+            Pageable pageable) {
+        return ResponseEntity.ok(riskAssessmentService.findByNetBalanceBelow(value, pageable));
+    }
+
     @GetMapping("/expired")
     @Operation(summary = "Listar avaliações expiradas", description = "Retorna avaliações que já expiraram")
     @ApiResponses(value = {
@@ -0,0 +1,75 @@
+package br.com.gambling.controller;
+
+import br.com.gambling.dto.RiskBacktestDto;
+import br.com.gambling.dto.RiskBacktestRequestDto;
+import br.com.gambling.dto.RiskRuleDto;
+import br.com.gambling.service.RiskBacktestService;
+import br.com.gambling.service.RiskRuleEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para consulta, recarga e backtest das regras de risco
+ */
+@RestController
+@RequestMapping("/api/risk-rules")
+@Tag(name = "Regras de Risco", description = "Operações sobre o motor de regras de risco")
+public class RiskRuleController {
+
+    @Autowired
+    private RiskRuleEngine riskRuleEngine;
+
+    @Autowired
+    private RiskBacktestService riskBacktestService;
+
+    @GetMapping
+    @Operation(summary = "Listar regras de risco", description = "Retorna as regras carregadas, do arquivo e em código")
+    @ApiResponse(responseCode = "200", description = "Regras retornadas com sucesso")
+    public ResponseEntity<List<RiskRuleDto>> getRules() {
+        return ResponseEntity.ok(riskRuleEngine.getRules());
+    }
+
+    @PostMapping("/reload")
+    @Operation(summary = "Recarregar regras de risco", description = "Recompila o arquivo de regras; com erro de sintaxe as regras anteriores são mantidas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Regras recarregadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Erro de sintaxe no arquivo de regras")
+    })
+    public ResponseEntity<List<RiskRuleDto>> reloadRules() {
+        return ResponseEntity.ok(riskRuleEngine.reload());
+    }
+
+    @PostMapping("/backtest")
+    @Operation(summary = "Iniciar backtest de regras", description = "Reproduz o histórico de sessões com as regras candidatas e compara os níveis de risco com as regras correntes, sem gravar avaliações")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Backtest iniciado"),
+            @ApiResponse(responseCode = "400", description = "Erro de sintaxe nas regras candidatas"),
+            @ApiResponse(responseCode = "409", description = "Já existe um backtest em andamento")
+    })
+    public ResponseEntity<RiskBacktestDto> startBacktest(@Valid @RequestBody RiskBacktestRequestDto request) {
+        return riskBacktestService.start(request)
+                .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/backtest")
+    @Operation(summary = "Resultado do backtest de regras", description = "Retorna o progresso e a matriz de transição de níveis do backtest corrente ou do último executado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Backtest retornado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Nenhum backtest executado")
+    })
+    public ResponseEntity<RiskBacktestDto> getBacktest() {
+        return riskBacktestService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
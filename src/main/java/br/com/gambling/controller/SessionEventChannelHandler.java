@@ -0,0 +1,111 @@
+package br.com.gambling.controller;
+
+import br.com.gambling.dto.SessionChannelMessageDto;
+import br.com.gambling.service.SessionEventChannelService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Handler WebSocket do canal de eventos de sessões ({@code /ws/sessions/events}).
+ *
+ * Frames de texto trazem eventos JSON (action, sessionId, amount, timestamp), um por linha; frames binários
+ * trazem registros de apostas e ganhos no formato binário de ingestão. O servidor responde com mensagens
+ * JSON CREDIT, ACK e ERROR, descritas em {@link SessionEventChannelService}.
+ */
+@Component
+public class SessionEventChannelHandler extends AbstractWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionEventChannelHandler.class);
+
+    private static final String CONNECTION_ATTRIBUTE = "canalEventos";
+    private static final String SENDER_ATTRIBUTE = "canalEventosEnvio";
+
+    @Autowired
+    private SessionEventChannelService sessionEventChannelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gambling.sessions.channel.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${gambling.sessions.channel.max-message-bytes:1048576}")
+    private int maxMessageBytes;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Envios partem tanto da thread da conexão quanto do pool do serviço
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, maxMessageBytes);
+        session.getAttributes().put(SENDER_ATTRIBUTE, concurrentSession);
+        session.getAttributes().put(CONNECTION_ATTRIBUTE,
+                sessionEventChannelService.open(message -> send(concurrentSession, message)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        if (!connection(session).receiveText(message.getPayload())) {
+            rejectOverflow(session);
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        if (!connection(session).receiveBinary(message.getPayload())) {
+            rejectOverflow(session);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        SessionEventChannelService.Connection connection = connection(session);
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Erro de transporte no canal de eventos {}", session.getId(), exception);
+    }
+
+    private SessionEventChannelService.Connection connection(WebSocketSession session) {
+        return (SessionEventChannelService.Connection) session.getAttributes().get(CONNECTION_ATTRIBUTE);
+    }
+
+    /**
+     * A plataforma enviou eventos além dos créditos: avisa e encerra a conexão
+     */
+    private void rejectOverflow(WebSocketSession session) throws IOException {
+        connection(session).close();
+        String text = "Eventos enviados além dos créditos disponíveis";
+        send((WebSocketSession) session.getAttributes().get(SENDER_ATTRIBUTE), SessionChannelMessageDto.error(text));
+        session.close(CloseStatus.POLICY_VIOLATION.withReason(text));
+    }
+
+    private void send(WebSocketSession session, SessionChannelMessageDto message) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar mensagem do canal", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
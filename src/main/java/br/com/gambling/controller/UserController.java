@@ -1,5 +1,7 @@
 package br.com.gambling.controller;
 
+import br.com.gambling.dto.UserLimitsRequestDto;
+import br.com.gambling.dto.UserLimitsResponseDto;
 import br.com.gambling.dto.UserRequestDto;
 import br.com.gambling.dto.UserResponseDto;
 import br.com.gambling.enums.RiskLevel;
@@ -123,14 +125,41 @@ public class UserController {
     @Operation(summary = "Adicionar depósito", description = "Adiciona um depósito ao histórico do usuário")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Depósito adicionado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "403", description = "Limite diário de depósitos atingido"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma chave de idempotência em processamento ou já usada para outro usuário")
     })
     public ResponseEntity<Void> addDeposit(@PathVariable Long id, 
-                                          @RequestParam Double amount) {
-        boolean added = userService.addDeposit(id, amount);
+                                          @RequestParam Double amount,
+                                          @Parameter(description = "Chave de idempotência; repetições com a mesma chave não são reaplicadas") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        boolean added = userService.addDeposit(id, amount, idempotencyKey);
         return added ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
+    @PutMapping("/{id}/limits")
+    @Operation(summary = "Configurar limites diários", description = "Configura os limites diários de depósitos, perdas e tempo em sessão do usuário (nulo remove o limite)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limites configurados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Limites inválidos"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    public ResponseEntity<UserLimitsResponseDto> updateLimits(@PathVariable Long id,
+                                                              @Valid @RequestBody UserLimitsRequestDto limitsRequestDto) {
+        Optional<UserLimitsResponseDto> limits = userService.updateLimits(id, limitsRequestDto);
+        return limits.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/limits")
+    @Operation(summary = "Consultar limites diários", description = "Retorna os limites diários do usuário e o quanto já foi utilizado hoje")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Limites encontrados"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    })
+    public ResponseEntity<UserLimitsResponseDto> getLimits(@PathVariable Long id) {
+        Optional<UserLimitsResponseDto> limits = userService.findLimits(id);
+        return limits.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{id}/withdrawals")
     @Operation(summary = "Adicionar saque", description = "Adiciona um saque ao histórico do usuário")
     @ApiResponses(value = {
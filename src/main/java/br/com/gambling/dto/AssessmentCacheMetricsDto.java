@@ -0,0 +1,102 @@
+package br.com.gambling.dto;
+
+/**
+ * DTO com as métricas do cache da avaliação de risco mais recente por usuário
+ */
+public class AssessmentCacheMetricsDto {
+
+    private Integer size;
+    private Integer maxEntries;
+    private Long ttlSeconds;
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Long loads;
+    private Long expirations;
+    private Long evictions;
+    private Long invalidations;
+
+    // Construtores
+    public AssessmentCacheMetricsDto() {}
+
+    // Getters e Setters
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public void setHits(Long hits) {
+        this.hits = hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(Long misses) {
+        this.misses = misses;
+    }
+
+    public Double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(Double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public Long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(Long loads) {
+        this.loads = loads;
+    }
+
+    public Long getExpirations() {
+        return expirations;
+    }
+
+    public void setExpirations(Long expirations) {
+        this.expirations = expirations;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(Long evictions) {
+        this.evictions = evictions;
+    }
+
+    public Long getInvalidations() {
+        return invalidations;
+    }
+
+    public void setInvalidations(Long invalidations) {
+        this.invalidations = invalidations;
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.gambling.dto;
+
+/**
+ * DTO com os quantis dos valores apostados por um usuário
+ */
+public class BetSizeProfileDto {
+
+    private Long userId;
+    private Long betCount;
+    private Double median;
+    private Double p90;
+    private Double p99;
+    private Double relativeAccuracy;
+    private Integer sketchBytes;
+    private Boolean detectionActive;
+
+    // Construtores
+    public BetSizeProfileDto() {}
+
+    // Getters e Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBetCount() {
+        return betCount;
+    }
+
+    public void setBetCount(Long betCount) {
+        this.betCount = betCount;
+    }
+
+    public Double getMedian() {
+        return median;
+    }
+
+    public void setMedian(Double median) {
+        this.median = median;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+
+    public void setP90(Double p90) {
+        this.p90 = p90;
+    }
+
+    public Double getP99() {
+        return p99;
+    }
+
+    public void setP99(Double p99) {
+        this.p99 = p99;
+    }
+
+    public Double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public void setRelativeAccuracy(Double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+    }
+
+    public Integer getSketchBytes() {
+        return sketchBytes;
+    }
+
+    public void setSketchBytes(Integer sketchBytes) {
+        this.sketchBytes = sketchBytes;
+    }
+
+    public Boolean getDetectionActive() {
+        return detectionActive;
+    }
+
+    public void setDetectionActive(Boolean detectionActive) {
+        this.detectionActive = detectionActive;
+    }
+}
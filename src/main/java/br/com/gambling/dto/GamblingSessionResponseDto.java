@@ -1,6 +1,9 @@
 package br.com.gambling.dto;
 
+import br.com.gambling.enums.RiskFlag;
+
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * DTO para resposta de dados de sessões de apostas
@@ -23,7 +26,7 @@ public class GamblingSessionResponseDto {
     private String platform;
     private Boolean isHighFrequency;
     private Boolean hasLossChasing;
-    private String riskIndicators;
+    private Set<RiskFlag> riskIndicators;
     private LocalDateTime createdAt;
 
     // Construtores
@@ -158,11 +161,11 @@ public class GamblingSessionResponseDto {
         this.hasLossChasing = hasLossChasing;
     }
 
-    public String getRiskIndicators() {
+    public Set<RiskFlag> getRiskIndicators() {
         return riskIndicators;
     }
 
-    public void setRiskIndicators(String riskIndicators) {
+    public void setRiskIndicators(Set<RiskFlag> riskIndicators) {
         this.riskIndicators = riskIndicators;
     }
 
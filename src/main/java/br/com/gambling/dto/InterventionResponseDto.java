@@ -27,6 +27,8 @@ public class InterventionResponseDto {
     private Boolean isAutomatic;
     private String createdBy;
     private String executedBy;
+    private String claimedBy;
+    private LocalDateTime claimedAt;
     private String executionNotes;
     private String userResponse;
     private Integer effectivenessScore;
@@ -172,6 +174,22 @@ public class InterventionResponseDto {
         this.executedBy = executedBy;
     }
 
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
     public String getExecutionNotes() {
         return executionNotes;
     }
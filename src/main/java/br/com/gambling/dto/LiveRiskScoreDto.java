@@ -0,0 +1,115 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.RiskLevel;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a pontuação de risco em tempo real de um usuário e as variáveis que a compõem
+ */
+public class LiveRiskScoreDto {
+
+    private Long userId;
+    private Double riskScore;
+    private RiskLevel riskLevel;
+    private Double betsPerHour;
+    private Double lossRatio;
+    private Double escalationRate;
+    private Integer consecutiveLosingSessions;
+    private Double sessionsPerDay;
+    private Double depositsPerDay;
+    private Double depositAmountPerDay;
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public LiveRiskScoreDto() {}
+
+    // Getters e Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Double getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(Double riskScore) {
+        this.riskScore = riskScore;
+    }
+
+    public RiskLevel getRiskLevel() {
+        return riskLevel;
+    }
+
+    public void setRiskLevel(RiskLevel riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+
+    public Double getBetsPerHour() {
+        return betsPerHour;
+    }
+
+    public void setBetsPerHour(Double betsPerHour) {
+        this.betsPerHour = betsPerHour;
+    }
+
+    public Double getLossRatio() {
+        return lossRatio;
+    }
+
+    public void setLossRatio(Double lossRatio) {
+        this.lossRatio = lossRatio;
+    }
+
+    public Double getEscalationRate() {
+        return escalationRate;
+    }
+
+    public void setEscalationRate(Double escalationRate) {
+        this.escalationRate = escalationRate;
+    }
+
+    public Integer getConsecutiveLosingSessions() {
+        return consecutiveLosingSessions;
+    }
+
+    public void setConsecutiveLosingSessions(Integer consecutiveLosingSessions) {
+        this.consecutiveLosingSessions = consecutiveLosingSessions;
+    }
+
+    public Double getSessionsPerDay() {
+        return sessionsPerDay;
+    }
+
+    public void setSessionsPerDay(Double sessionsPerDay) {
+        this.sessionsPerDay = sessionsPerDay;
+    }
+
+    public Double getDepositsPerDay() {
+        return depositsPerDay;
+    }
+
+    public void setDepositsPerDay(Double depositsPerDay) {
+        this.depositsPerDay = depositsPerDay;
+    }
+
+    public Double getDepositAmountPerDay() {
+        return depositAmountPerDay;
+    }
+
+    public void setDepositAmountPerDay(Double depositAmountPerDay) {
+        this.depositAmountPerDay = depositAmountPerDay;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.gambling.dto;
+
+/**
+ * DTO com as métricas de um estágio do pipeline de eventos de sessões
+ */
+public class PipelineStageMetricsDto {
+
+    private String stage;
+    private Long sequence;
+    private Long lag;
+    private Long processedEvents;
+    private Long batchCount;
+    private Double averageLatencyMicros;
+    private Double maxBatchLatencyMicros;
+
+    // Construtores
+    public PipelineStageMetricsDto() {}
+
+    public PipelineStageMetricsDto(String stage, Long sequence, Long lag, Long processedEvents, Long batchCount,
+                                   Double averageLatencyMicros, Double maxBatchLatencyMicros) {
+        this.stage = stage;
+        this.sequence = sequence;
+        this.lag = lag;
+        this.processedEvents = processedEvents;
+        this.batchCount = batchCount;
+        this.averageLatencyMicros = averageLatencyMicros;
+        this.maxBatchLatencyMicros = maxBatchLatencyMicros;
+    }
+
+    // Getters e Setters
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getLag() {
+        return lag;
+    }
+
+    public void setLag(Long lag) {
+        this.lag = lag;
+    }
+
+    public Long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public void setProcessedEvents(Long processedEvents) {
+        this.processedEvents = processedEvents;
+    }
+
+    public Long getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(Long batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public Double getAverageLatencyMicros() {
+        return averageLatencyMicros;
+    }
+
+    public void setAverageLatencyMicros(Double averageLatencyMicros) {
+        this.averageLatencyMicros = averageLatencyMicros;
+    }
+
+    public Double getMaxBatchLatencyMicros() {
+        return maxBatchLatencyMicros;
+    }
+
+    public void setMaxBatchLatencyMicros(Double maxBatchLatencyMicros) {
+        this.maxBatchLatencyMicros = maxBatchLatencyMicros;
+    }
+}
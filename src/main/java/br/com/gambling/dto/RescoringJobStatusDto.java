@@ -0,0 +1,133 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.RescoringJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com o progresso e as métricas de vazão da reavaliação de risco em lote
+ */
+public class RescoringJobStatusDto {
+
+    private Long jobId;
+    private RescoringJobStatus status;
+    private LocalDateTime cutoffDate;
+    private Long lastUserId;
+    private Long processedUsers;
+    private Long failedUsers;
+    private Long levelChanges;
+    private Long chunks;
+    private Double usersPerSecond;
+    private Double averageChunkMillis;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    // Construtores
+    public RescoringJobStatusDto() {}
+
+    // Getters e Setters
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public RescoringJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RescoringJobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCutoffDate() {
+        return cutoffDate;
+    }
+
+    public void setCutoffDate(LocalDateTime cutoffDate) {
+        this.cutoffDate = cutoffDate;
+    }
+
+    public Long getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(Long lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public Long getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public void setProcessedUsers(Long processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+
+    public Long getFailedUsers() {
+        return failedUsers;
+    }
+
+    public void setFailedUsers(Long failedUsers) {
+        this.failedUsers = failedUsers;
+    }
+
+    public Long getLevelChanges() {
+        return levelChanges;
+    }
+
+    public void setLevelChanges(Long levelChanges) {
+        this.levelChanges = levelChanges;
+    }
+
+    public Long getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(Long chunks) {
+        this.chunks = chunks;
+    }
+
+    public Double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(Double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    public Double getAverageChunkMillis() {
+        return averageChunkMillis;
+    }
+
+    public void setAverageChunkMillis(Double averageChunkMillis) {
+        this.averageChunkMillis = averageChunkMillis;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
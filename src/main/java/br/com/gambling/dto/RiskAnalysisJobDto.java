@@ -0,0 +1,106 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.AnalysisJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a situação e o resultado de uma análise de risco assíncrona
+ */
+public class RiskAnalysisJobDto {
+
+    private String jobId;
+    private Long userId;
+    private AnalysisJobStatus status;
+    private Boolean forceReanalysis;
+    private Integer coalescedRequests;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private RiskAssessmentResponseDto result;
+    private String error;
+
+    // Construtores
+    public RiskAnalysisJobDto() {}
+
+    // Getters e Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public AnalysisJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AnalysisJobStatus status) {
+        this.status = status;
+    }
+
+    public Boolean getForceReanalysis() {
+        return forceReanalysis;
+    }
+
+    public void setForceReanalysis(Boolean forceReanalysis) {
+        this.forceReanalysis = forceReanalysis;
+    }
+
+    public Integer getCoalescedRequests() {
+        return coalescedRequests;
+    }
+
+    public void setCoalescedRequests(Integer coalescedRequests) {
+        this.coalescedRequests = coalescedRequests;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public RiskAssessmentResponseDto getResult() {
+        return result;
+    }
+
+    public void setResult(RiskAssessmentResponseDto result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
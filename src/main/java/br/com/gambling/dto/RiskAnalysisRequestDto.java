@@ -1,6 +1,7 @@
 package br.com.gambling.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +18,9 @@ public class RiskAnalysisRequestDto {
     private List<String> additionalFactors;
     private Boolean forceReanalysis = false;
 
+    @Pattern(regexp = "^https?://.+", message = "URL de retorno deve usar http ou https")
+    private String callbackUrl; // Recebe um POST com o resultado das análises assíncronas
+
     // Construtores
     public RiskAnalysisRequestDto() {}
 
@@ -57,4 +61,12 @@ public class RiskAnalysisRequestDto {
     public void setForceReanalysis(Boolean forceReanalysis) {
         this.forceReanalysis = forceReanalysis;
     }
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
 }
\ No newline at end of file
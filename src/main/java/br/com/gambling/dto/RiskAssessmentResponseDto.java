@@ -1,5 +1,9 @@
 package br.com.gambling.dto;
 
+import br.com.gambling.entity.BehavioralIndicators;
+import br.com.gambling.entity.FinancialIndicators;
+import br.com.gambling.entity.SessionAnalysis;
+import br.com.gambling.entity.TemporalIndicators;
 import br.com.gambling.enums.RiskLevel;
 
 import java.time.LocalDateTime;
@@ -15,10 +19,10 @@ public class RiskAssessmentResponseDto {
     private RiskLevel riskLevel;
     private Double riskScore;
     private String assessmentReason;
-    private String behavioralIndicators;
-    private String financialIndicators;
-    private String temporalIndicators;
-    private String sessionAnalysis;
+    private BehavioralIndicators behavioralIndicators;
+    private FinancialIndicators financialIndicators;
+    private TemporalIndicators temporalIndicators;
+    private SessionAnalysis sessionAnalysis;
     private String recommendations;
     private Boolean isAutomatic;
     private String assessedBy;
@@ -79,35 +83,35 @@ public class RiskAssessmentResponseDto {
         this.assessmentReason = assessmentReason;
     }
 
-    public String getBehavioralIndicators() {
+    public BehavioralIndicators getBehavioralIndicators() {
         return behavioralIndicators;
     }
 
-    public void setBehavioralIndicators(String behavioralIndicators) {
+    public void setBehavioralIndicators(BehavioralIndicators behavioralIndicators) {
         this.behavioralIndicators = behavioralIndicators;
     }
 
-    public String getFinancialIndicators() {
+    public FinancialIndicators getFinancialIndicators() {
         return financialIndicators;
     }
 
-    public void setFinancialIndicators(String financialIndicators) {
+    public void setFinancialIndicators(FinancialIndicators financialIndicators) {
         this.financialIndicators = financialIndicators;
     }
 
-    public String getTemporalIndicators() {
+    public TemporalIndicators getTemporalIndicators() {
         return temporalIndicators;
     }
 
-    public void setTemporalIndicators(String temporalIndicators) {
+    public void setTemporalIndicators(TemporalIndicators temporalIndicators) {
         this.temporalIndicators = temporalIndicators;
     }
 
-    public String getSessionAnalysis() {
+    public SessionAnalysis getSessionAnalysis() {
         return sessionAnalysis;
     }
 
-    public void setSessionAnalysis(String sessionAnalysis) {
+    public void setSessionAnalysis(SessionAnalysis sessionAnalysis) {
         this.sessionAnalysis = sessionAnalysis;
     }
 
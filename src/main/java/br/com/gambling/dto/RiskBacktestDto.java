@@ -0,0 +1,162 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.AnalysisJobStatus;
+import br.com.gambling.enums.RiskLevel;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO com o progresso e a matriz de transição de níveis de um backtest de regras de risco
+ */
+public class RiskBacktestDto {
+
+    private String backtestId;
+    private AnalysisJobStatus status;
+    private LocalDateTime asOf;
+    private Integer candidateUserRules;
+    private Integer currentUserRules;
+    private Long processedUsers;
+    private Long replayedSessions;
+    private Long changedUsers;
+    private Long upgradedUsers;
+    private Long downgradedUsers;
+    private Map<RiskLevel, Map<RiskLevel, Long>> transitions; // Nível pelas regras correntes -> nível pelas candidatas
+    private Double usersPerSecond;
+    private Double sessionsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String error;
+
+    // Construtores
+    public RiskBacktestDto() {}
+
+    // Getters e Setters
+    public String getBacktestId() {
+        return backtestId;
+    }
+
+    public void setBacktestId(String backtestId) {
+        this.backtestId = backtestId;
+    }
+
+    public AnalysisJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AnalysisJobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+
+    public Integer getCandidateUserRules() {
+        return candidateUserRules;
+    }
+
+    public void setCandidateUserRules(Integer candidateUserRules) {
+        this.candidateUserRules = candidateUserRules;
+    }
+
+    public Integer getCurrentUserRules() {
+        return currentUserRules;
+    }
+
+    public void setCurrentUserRules(Integer currentUserRules) {
+        this.currentUserRules = currentUserRules;
+    }
+
+    public Long getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public void setProcessedUsers(Long processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+
+    public Long getReplayedSessions() {
+        return replayedSessions;
+    }
+
+    public void setReplayedSessions(Long replayedSessions) {
+        this.replayedSessions = replayedSessions;
+    }
+
+    public Long getChangedUsers() {
+        return changedUsers;
+    }
+
+    public void setChangedUsers(Long changedUsers) {
+        this.changedUsers = changedUsers;
+    }
+
+    public Long getUpgradedUsers() {
+        return upgradedUsers;
+    }
+
+    public void setUpgradedUsers(Long upgradedUsers) {
+        this.upgradedUsers = upgradedUsers;
+    }
+
+    public Long getDowngradedUsers() {
+        return downgradedUsers;
+    }
+
+    public void setDowngradedUsers(Long downgradedUsers) {
+        this.downgradedUsers = downgradedUsers;
+    }
+
+    public Map<RiskLevel, Map<RiskLevel, Long>> getTransitions() {
+        return transitions;
+    }
+
+    public void setTransitions(Map<RiskLevel, Map<RiskLevel, Long>> transitions) {
+        this.transitions = transitions;
+    }
+
+    public Double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(Double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    public Double getSessionsPerSecond() {
+        return sessionsPerSecond;
+    }
+
+    public void setSessionsPerSecond(Double sessionsPerSecond) {
+        this.sessionsPerSecond = sessionsPerSecond;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.gambling.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para solicitação de backtest de regras de risco candidatas sobre o histórico de sessões
+ */
+public class RiskBacktestRequestDto {
+
+    @NotBlank(message = "Regras candidatas são obrigatórias")
+    private String rules; // Mesmo formato do arquivo risk-rules.txt
+
+    private LocalDateTime asOf; // Data de referência da reprodução (padrão: agora)
+
+    // Construtores
+    public RiskBacktestRequestDto() {}
+
+    // Getters e Setters
+    public String getRules() {
+        return rules;
+    }
+
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.RiskRuleScope;
+
+/**
+ * DTO com uma regra de risco carregada no motor de regras
+ */
+public class RiskRuleDto {
+
+    private String name;
+    private RiskRuleScope scope;
+    private String condition;
+    private String action;
+    private String source;
+
+    // Construtores
+    public RiskRuleDto() {}
+
+    public RiskRuleDto(String name, RiskRuleScope scope, String condition, String action, String source) {
+        this.name = name;
+        this.scope = scope;
+        this.condition = condition;
+        this.action = action;
+        this.source = source;
+    }
+
+    // Getters e Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public RiskRuleScope getScope() {
+        return scope;
+    }
+
+    public void setScope(RiskRuleScope scope) {
+        this.scope = scope;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.SessionChannelAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para um evento enviado pelo canal WebSocket de eventos de sessões (uma linha de um frame de texto)
+ */
+public class SessionChannelEventDto {
+
+    private SessionChannelAction action;
+    private Long sessionId;
+    private Double amount;
+    private LocalDateTime timestamp;
+
+    // Construtores
+    public SessionChannelEventDto() {}
+
+    public SessionChannelEventDto(SessionChannelAction action, Long sessionId, Double amount, LocalDateTime timestamp) {
+        this.action = action;
+        this.sessionId = sessionId;
+        this.amount = amount;
+        this.timestamp = timestamp;
+    }
+
+    // Getters e Setters
+    public SessionChannelAction getAction() {
+        return action;
+    }
+
+    public void setAction(SessionChannelAction action) {
+        this.action = action;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
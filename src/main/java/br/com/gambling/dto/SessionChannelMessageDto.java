@@ -0,0 +1,108 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.SessionChannelMessageType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO para as mensagens enviadas pelo servidor no canal WebSocket de eventos de sessões
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionChannelMessageDto {
+
+    private SessionChannelMessageType type;
+    private Long upTo;
+    private Integer acceptedCount;
+    private Integer rejectedCount;
+    private List<Long> rejectedSequences;
+    private Integer credits;
+    private String message;
+
+    // Construtores
+    public SessionChannelMessageDto() {}
+
+    public SessionChannelMessageDto(SessionChannelMessageType type) {
+        this.type = type;
+    }
+
+    // Getters e Setters
+    public SessionChannelMessageType getType() {
+        return type;
+    }
+
+    public void setType(SessionChannelMessageType type) {
+        this.type = type;
+    }
+
+    public Long getUpTo() {
+        return upTo;
+    }
+
+    public void setUpTo(Long upTo) {
+        this.upTo = upTo;
+    }
+
+    public Integer getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public void setAcceptedCount(Integer acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    public Integer getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(Integer rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public List<Long> getRejectedSequences() {
+        return rejectedSequences;
+    }
+
+    public void setRejectedSequences(List<Long> rejectedSequences) {
+        this.rejectedSequences = rejectedSequences;
+    }
+
+    public Integer getCredits() {
+        return credits;
+    }
+
+    public void setCredits(Integer credits) {
+        this.credits = credits;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // Métodos auxiliares
+    public static SessionChannelMessageDto credit(int credits) {
+        SessionChannelMessageDto message = new SessionChannelMessageDto(SessionChannelMessageType.CREDIT);
+        message.setCredits(credits);
+        return message;
+    }
+
+    public static SessionChannelMessageDto ack(long upTo, List<Long> rejectedSequences, int processed) {
+        SessionChannelMessageDto message = new SessionChannelMessageDto(SessionChannelMessageType.ACK);
+        message.setUpTo(upTo);
+        message.setAcceptedCount(processed - rejectedSequences.size());
+        message.setRejectedCount(rejectedSequences.size());
+        message.setRejectedSequences(rejectedSequences);
+        message.setCredits(processed);
+        return message;
+    }
+
+    public static SessionChannelMessageDto error(String text) {
+        SessionChannelMessageDto message = new SessionChannelMessageDto(SessionChannelMessageType.ERROR);
+        message.setMessage(text);
+        return message;
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.gambling.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO para envio de um lote ordenado de eventos de uma sessão de apostas
+ */
+public class SessionEventBatchRequestDto {
+
+    public static final int MAX_EVENTS = 1000;
+
+    @NotEmpty(message = "O lote deve conter ao menos um evento")
+    @Size(max = MAX_EVENTS, message = "O lote pode conter no máximo 1000 eventos")
+    private List<SessionEventDto> events;
+
+    // Construtores
+    public SessionEventBatchRequestDto() {}
+
+    public SessionEventBatchRequestDto(List<SessionEventDto> events) {
+        this.events = events;
+    }
+
+    // Getters e Setters
+    public List<SessionEventDto> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<SessionEventDto> events) {
+        this.events = events;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.gambling.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para resposta do processamento de um lote de eventos de uma sessão
+ */
+public class SessionEventBatchResponseDto {
+
+    private Long sessionId;
+    private Integer acceptedCount = 0;
+    private Integer rejectedCount = 0;
+    private List<SessionEventResultDto> results = new ArrayList<>();
+
+    // Construtores
+    public SessionEventBatchResponseDto() {}
+
+    public SessionEventBatchResponseDto(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    // Getters e Setters
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Integer getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public void setAcceptedCount(Integer acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    public Integer getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(Integer rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public List<SessionEventResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SessionEventResultDto> results) {
+        this.results = results;
+    }
+
+    // Métodos auxiliares
+    public void addResult(SessionEventResultDto result) {
+        this.results.add(result);
+        if (Boolean.TRUE.equals(result.getAccepted())) {
+            this.acceptedCount++;
+        } else {
+            this.rejectedCount++;
+        }
+    }
+}
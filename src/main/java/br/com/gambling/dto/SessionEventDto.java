@@ -0,0 +1,64 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.SessionEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para um evento (aposta ou ganho) de uma sessão de apostas
+ */
+public class SessionEventDto {
+
+    private Long sessionId;
+    private SessionEventType type;
+    private Double amount;
+    private LocalDateTime timestamp;
+
+    // Construtores
+    public SessionEventDto() {}
+
+    public SessionEventDto(SessionEventType type, Double amount) {
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public SessionEventDto(Long sessionId, SessionEventType type, Double amount, LocalDateTime timestamp) {
+        this.sessionId = sessionId;
+        this.type = type;
+        this.amount = amount;
+        this.timestamp = timestamp;
+    }
+
+    // Getters e Setters
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public SessionEventType getType() {
+        return type;
+    }
+
+    public void setType(SessionEventType type) {
+        this.type = type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.SessionEventType;
+
+/**
+ * DTO com o resultado do processamento de um evento de sessão
+ */
+public class SessionEventResultDto {
+
+    private Integer index;
+    private SessionEventType type;
+    private Boolean accepted;
+    private String reason;
+
+    // Construtores
+    public SessionEventResultDto() {}
+
+    public SessionEventResultDto(Integer index, SessionEventType type, Boolean accepted, String reason) {
+        this.index = index;
+        this.type = type;
+        this.accepted = accepted;
+        this.reason = reason;
+    }
+
+    // Getters e Setters
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public SessionEventType getType() {
+        return type;
+    }
+
+    public void setType(SessionEventType type) {
+        this.type = type;
+    }
+
+    public Boolean getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
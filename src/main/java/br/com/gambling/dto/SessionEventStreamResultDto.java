@@ -0,0 +1,52 @@
+package br.com.gambling.dto;
+
+/**
+ * DTO com o resumo da ingestão de um fluxo NDJSON de eventos de sessões
+ */
+public class SessionEventStreamResultDto {
+
+    private Long acceptedCount = 0L;
+    private Long rejectedCount = 0L;
+    private Integer batchCount = 0;
+
+    // Construtores
+    public SessionEventStreamResultDto() {}
+
+    // Getters e Setters
+    public Long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public void setAcceptedCount(Long acceptedCount) {
+        this.acceptedCount = acceptedCount;
+    }
+
+    public Long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(Long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public Integer getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(Integer batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    // Métodos auxiliares
+    public void addAccepted(long count) {
+        this.acceptedCount += count;
+    }
+
+    public void addRejected(long count) {
+        this.rejectedCount += count;
+    }
+
+    public void incrementBatchCount() {
+        this.batchCount++;
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.gambling.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO com as métricas do pipeline de ingestão de eventos de sessões
+ */
+public class SessionPipelineMetricsDto {
+
+    private Boolean enabled;
+    private Integer ringSize;
+    private Long publishedSequence;
+    private Long queueDepth;
+    private Long highBetSignals;
+    private Double averageEndToEndMicros;
+    private Double maxEndToEndMicros;
+    private List<PipelineStageMetricsDto> stages = new ArrayList<>();
+
+    // Construtores
+    public SessionPipelineMetricsDto() {}
+
+    // Getters e Setters
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getRingSize() {
+        return ringSize;
+    }
+
+    public void setRingSize(Integer ringSize) {
+        this.ringSize = ringSize;
+    }
+
+    public Long getPublishedSequence() {
+        return publishedSequence;
+    }
+
+    public void setPublishedSequence(Long publishedSequence) {
+        this.publishedSequence = publishedSequence;
+    }
+
+    public Long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(Long queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public Long getHighBetSignals() {
+        return highBetSignals;
+    }
+
+    public void setHighBetSignals(Long highBetSignals) {
+        this.highBetSignals = highBetSignals;
+    }
+
+    public Double getAverageEndToEndMicros() {
+        return averageEndToEndMicros;
+    }
+
+    public void setAverageEndToEndMicros(Double averageEndToEndMicros) {
+        this.averageEndToEndMicros = averageEndToEndMicros;
+    }
+
+    public Double getMaxEndToEndMicros() {
+        return maxEndToEndMicros;
+    }
+
+    public void setMaxEndToEndMicros(Double maxEndToEndMicros) {
+        this.maxEndToEndMicros = maxEndToEndMicros;
+    }
+
+    public List<PipelineStageMetricsDto> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<PipelineStageMetricsDto> stages) {
+        this.stages = stages;
+    }
+
+    // Métodos auxiliares
+    public void addStage(PipelineStageMetricsDto stage) {
+        this.stages.add(stage);
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.gambling.dto;
+
+import br.com.gambling.enums.FeatureWindow;
+
+/**
+ * DTO com as variáveis de um usuário em uma janela móvel
+ */
+public class UserFeaturesDto {
+
+    private Long userId;
+    private FeatureWindow window;
+    private Double betSum;
+    private Long betCount;
+    private Double netLoss;
+    private Long sessionCount;
+    private Double depositSum;
+    private Long depositCount;
+    private Long significantLossSessions;
+    private Integer distinctGameTypes;
+
+    // Construtores
+    public UserFeaturesDto() {}
+
+    // Getters e Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public FeatureWindow getWindow() {
+        return window;
+    }
+
+    public void setWindow(FeatureWindow window) {
+        this.window = window;
+    }
+
+    public Double getBetSum() {
+        return betSum;
+    }
+
+    public void setBetSum(Double betSum) {
+        this.betSum = betSum;
+    }
+
+    public Long getBetCount() {
+        return betCount;
+    }
+
+    public void setBetCount(Long betCount) {
+        this.betCount = betCount;
+    }
+
+    public Double getNetLoss() {
+        return netLoss;
+    }
+
+    public void setNetLoss(Double netLoss) {
+        this.netLoss = netLoss;
+    }
+
+    public Long getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(Long sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public Double getDepositSum() {
+        return depositSum;
+    }
+
+    public void setDepositSum(Double depositSum) {
+        this.depositSum = depositSum;
+    }
+
+    public Long getDepositCount() {
+        return depositCount;
+    }
+
+    public void setDepositCount(Long depositCount) {
+        this.depositCount = depositCount;
+    }
+
+    public Long getSignificantLossSessions() {
+        return significantLossSessions;
+    }
+
+    public void setSignificantLossSessions(Long significantLossSessions) {
+        this.significantLossSessions = significantLossSessions;
+    }
+
+    public Integer getDistinctGameTypes() {
+        return distinctGameTypes;
+    }
+
+    public void setDistinctGameTypes(Integer distinctGameTypes) {
+        this.distinctGameTypes = distinctGameTypes;
+    }
+}
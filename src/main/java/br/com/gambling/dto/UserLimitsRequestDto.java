@@ -0,0 +1,46 @@
+package br.com.gambling.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * DTO para configuração dos limites diários de jogo responsável do usuário
+ */
+public class UserLimitsRequestDto {
+
+    @PositiveOrZero(message = "Limite de depósitos não pode ser negativo")
+    private Double dailyDepositLimit; // Nulo: sem limite
+
+    @PositiveOrZero(message = "Limite de perdas não pode ser negativo")
+    private Double dailyLossLimit; // Apostas menos ganhos no dia; nulo: sem limite
+
+    @PositiveOrZero(message = "Limite de tempo não pode ser negativo")
+    private Integer dailySessionMinutesLimit; // Minutos em sessões no dia; nulo: sem limite
+
+    // Construtores
+    public UserLimitsRequestDto() {}
+
+    // Getters e Setters
+    public Double getDailyDepositLimit() {
+        return dailyDepositLimit;
+    }
+
+    public void setDailyDepositLimit(Double dailyDepositLimit) {
+        this.dailyDepositLimit = dailyDepositLimit;
+    }
+
+    public Double getDailyLossLimit() {
+        return dailyLossLimit;
+    }
+
+    public void setDailyLossLimit(Double dailyLossLimit) {
+        this.dailyLossLimit = dailyLossLimit;
+    }
+
+    public Integer getDailySessionMinutesLimit() {
+        return dailySessionMinutesLimit;
+    }
+
+    public void setDailySessionMinutesLimit(Integer dailySessionMinutesLimit) {
+        this.dailySessionMinutesLimit = dailySessionMinutesLimit;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.gambling.dto;
+
+/**
+ * DTO de resposta com os limites diários do usuário e o quanto foi utilizado hoje
+ */
+public class UserLimitsResponseDto {
+
+    private Long userId;
+    private Double dailyDepositLimit;
+    private Double dailyLossLimit;
+    private Integer dailySessionMinutesLimit;
+    private Double depositsToday; // Utilizado hoje (nulo quando o usuário não tem limites)
+    private Double lossToday;
+    private Long sessionMinutesToday;
+
+    // Construtores
+    public UserLimitsResponseDto() {}
+
+    // Getters e Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Double getDailyDepositLimit() {
+        return dailyDepositLimit;
+    }
+
+    public void setDailyDepositLimit(Double dailyDepositLimit) {
+        this.dailyDepositLimit = dailyDepositLimit;
+    }
+
+    public Double getDailyLossLimit() {
+        return dailyLossLimit;
+    }
+
+    public void setDailyLossLimit(Double dailyLossLimit) {
+        this.dailyLossLimit = dailyLossLimit;
+    }
+
+    public Integer getDailySessionMinutesLimit() {
+        return dailySessionMinutesLimit;
+    }
+
+    public void setDailySessionMinutesLimit(Integer dailySessionMinutesLimit) {
+        this.dailySessionMinutesLimit = dailySessionMinutesLimit;
+    }
+
+    public Double getDepositsToday() {
+        return depositsToday;
+    }
+
+    public void setDepositsToday(Double depositsToday) {
+        this.depositsToday = depositsToday;
+    }
+
+    public Double getLossToday() {
+        return lossToday;
+    }
+
+    public void setLossToday(Double lossToday) {
+        this.lossToday = lossToday;
+    }
+
+    public Long getSessionMinutesToday() {
+        return sessionMinutesToday;
+    }
+
+    public void setSessionMinutesToday(Long sessionMinutesToday) {
+        this.sessionMinutesToday = sessionMinutesToday;
+    }
+}
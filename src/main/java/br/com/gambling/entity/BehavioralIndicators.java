@@ -0,0 +1,78 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Indicadores comportamentais de uma avaliação de risco, gravados em colunas numéricas
+ */
+@Embeddable
+public class BehavioralIndicators {
+
+    @Column(name = "ind_total_sessoes")
+    private Integer sessionCount;
+
+    @Column(name = "ind_apostas_ultima_hora")
+    private Integer betsLastHour;
+
+    @Column(name = "ind_sessoes_24h")
+    private Integer sessionsLast24h;
+
+    @Column(name = "ind_tipos_jogo_30d")
+    private Integer distinctGameTypes30d;
+
+    @Column(name = "ind_usuario_ativo")
+    private Boolean userActive;
+
+    // Construtores
+    public BehavioralIndicators() {}
+
+    public BehavioralIndicators(Integer sessionCount, Integer betsLastHour, Integer sessionsLast24h, Integer distinctGameTypes30d, Boolean userActive) {
+        this.sessionCount = sessionCount;
+        this.betsLastHour = betsLastHour;
+        this.sessionsLast24h = sessionsLast24h;
+        this.distinctGameTypes30d = distinctGameTypes30d;
+        this.userActive = userActive;
+    }
+
+    // Getters e Setters
+    public Integer getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(Integer sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public Integer getBetsLastHour() {
+        return betsLastHour;
+    }
+
+    public void setBetsLastHour(Integer betsLastHour) {
+        this.betsLastHour = betsLastHour;
+    }
+
+    public Integer getSessionsLast24h() {
+        return sessionsLast24h;
+    }
+
+    public void setSessionsLast24h(Integer sessionsLast24h) {
+        this.sessionsLast24h = sessionsLast24h;
+    }
+
+    public Integer getDistinctGameTypes30d() {
+        return distinctGameTypes30d;
+    }
+
+    public void setDistinctGameTypes30d(Integer distinctGameTypes30d) {
+        this.distinctGameTypes30d = distinctGameTypes30d;
+    }
+
+    public Boolean getUserActive() {
+        return userActive;
+    }
+
+    public void setUserActive(Boolean userActive) {
+        this.userActive = userActive;
+    }
+}
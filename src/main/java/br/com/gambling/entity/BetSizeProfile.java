@@ -0,0 +1,62 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade Perfil de Valor de Aposta - esboço de quantis serializado dos valores apostados por um usuário
+ */
+@Entity
+@Table(name = "perfis_valor_aposta")
+public class BetSizeProfile {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long userId;
+
+    @Column(name = "esboco", nullable = false, length = 1024)
+    private byte[] sketch; // Esboço de quantis no formato compacto de BetSizeSketch
+
+    @Column(name = "total_apostas", nullable = false)
+    private Long betCount = 0L;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public BetSizeProfile() {}
+
+    // Getters e Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public Long getBetCount() {
+        return betCount;
+    }
+
+    public void setBetCount(Long betCount) {
+        this.betCount = betCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Indicadores financeiros de uma avaliação de risco, gravados em colunas numéricas (o saldo líquido é indexado)
+ */
+@Embeddable
+public class FinancialIndicators {
+
+    @Column(name = "ind_total_depositos")
+    private Double totalDeposits;
+
+    @Column(name = "ind_total_saques")
+    private Double totalWithdrawals;
+
+    @Column(name = "ind_saldo_liquido")
+    private Double netBalance; // Depósitos menos saques no momento da avaliação
+
+    @Column(name = "ind_depositos_24h")
+    private Double deposits24h;
+
+    @Column(name = "ind_depositos_30d")
+    private Double deposits30d;
+
+    @Column(name = "ind_perda_liquida_24h")
+    private Double netLoss24h;
+
+    @Column(name = "ind_perda_liquida_30d")
+    private Double netLoss30d;
+
+    // Construtores
+    public FinancialIndicators() {}
+
+    public FinancialIndicators(Double totalDeposits, Double totalWithdrawals, Double netBalance, Double deposits24h, Double deposits30d, Double netLoss24h, Double netLoss30d) {
+        this.totalDeposits = totalDeposits;
+        this.totalWithdrawals = totalWithdrawals;
+        this.netBalance = netBalance;
+        this.deposits24h = deposits24h;
+        this.deposits30d = deposits30d;
+        this.netLoss24h = netLoss24h;
+        this.netLoss30d = netLoss30d;
+    }
+
+    // Getters e Setters
+    public Double getTotalDeposits() {
+        return totalDeposits;
+    }
+
+    public void setTotalDeposits(Double totalDeposits) {
+        this.totalDeposits = totalDeposits;
+    }
+
+    public Double getTotalWithdrawals() {
+        return totalWithdrawals;
+    }
+
+    public void setTotalWithdrawals(Double totalWithdrawals) {
+        this.totalWithdrawals = totalWithdrawals;
+    }
+
+    public Double getNetBalance() {
+        return netBalance;
+    }
+
+    public void setNetBalance(Double netBalance) {
+        this.netBalance = netBalance;
+    }
+
+    public Double getDeposits24h() {
+        return deposits24h;
+    }
+
+    public void setDeposits24h(Double deposits24h) {
+        this.deposits24h = deposits24h;
+    }
+
+    public Double getDeposits30d() {
+        return deposits30d;
+    }
+
+    public void setDeposits30d(Double deposits30d) {
+        this.deposits30d = deposits30d;
+    }
+
+    public Double getNetLoss24h() {
+        return netLoss24h;
+    }
+
+    public void setNetLoss24h(Double netLoss24h) {
+        this.netLoss24h = netLoss24h;
+    }
+
+    public Double getNetLoss30d() {
+        return netLoss30d;
+    }
+
+    public void setNetLoss30d(Double netLoss30d) {
+        this.netLoss30d = netLoss30d;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -47,6 +48,12 @@ public class GamblingSession {
     @Column(name = "valor_maximo_aposta")
     private Double maxBetAmount = 0.0;
 
+    @Column(name = "perda_dia")
+    private Double lossOnDay = 0.0; // Apostas menos ganhos gravados no dia de dia_perda (limite diário de perdas)
+
+    @Column(name = "dia_perda")
+    private LocalDate lossDay;
+
     @Column(name = "tipo_jogo")
     private String gameType;
 
@@ -60,7 +67,14 @@ public class GamblingSession {
     private Boolean hasLossChasing = false;
 
     @Column(name = "indicadores_risco")
-    private String riskIndicators; // JSON string com indicadores de risco
+    private Integer riskIndicators; // Máscara de bits de RiskFlag; nula até a análise da sessão
+
+    @Column(name = "seq_diario")
+    private Long journalSequence = 0L; // Último registro do diário de eventos já aplicado
+
+    @Version
+    @Column(name = "versao")
+    private Long version;
 
     @CreationTimestamp
     @Column(name = "criado_em", nullable = false, updatable = false)
@@ -155,6 +169,22 @@ public class GamblingSession {
         this.maxBetAmount = maxBetAmount;
     }
 
+    public Double getLossOnDay() {
+        return lossOnDay;
+    }
+
+    public void setLossOnDay(Double lossOnDay) {
+        this.lossOnDay = lossOnDay;
+    }
+
+    public LocalDate getLossDay() {
+        return lossDay;
+    }
+
+    public void setLossDay(LocalDate lossDay) {
+        this.lossDay = lossDay;
+    }
+
     public String getGameType() {
         return gameType;
     }
@@ -187,14 +217,30 @@ public class GamblingSession {
         this.hasLossChasing = hasLossChasing;
     }
 
-    public String getRiskIndicators() {
+    public Integer getRiskIndicators() {
         return riskIndicators;
     }
 
-    public void setRiskIndicators(String riskIndicators) {
+    public void setRiskIndicators(Integer riskIndicators) {
         this.riskIndicators = riskIndicators;
     }
 
+    public Long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(Long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
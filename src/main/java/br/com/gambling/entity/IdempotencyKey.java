@@ -0,0 +1,77 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade Chave de Idempotência - registra as requisições já processadas para janelas longas de deduplicação
+ */
+@Entity
+@Table(name = "chaves_idempotencia", indexes = @Index(name = "idx_chaves_idempotencia_criado_em", columnList = "criado_em"))
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "chave", length = 300)
+    private String key;
+
+    @Column(name = "id_resultado", nullable = false)
+    private Long resultId;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean newEntity = true; // Evita o SELECT do merge, já que a chave é atribuída pela aplicação
+
+    // Construtores
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(String key, Long resultId, LocalDateTime createdAt) {
+        this.key = key;
+        this.resultId = resultId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters e Setters
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Long getResultId() {
+        return resultId;
+    }
+
+    public void setResultId(Long resultId) {
+        this.resultId = resultId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -69,6 +69,12 @@ public class Intervention {
     @Column(name = "executada_por")
     private String executedBy;
 
+    @Column(name = "reivindicada_por")
+    private String claimedBy; // Operador que assumiu a intervenção na fila
+
+    @Column(name = "reivindicada_em")
+    private LocalDateTime claimedAt;
+
     @Column(name = "notas_execucao", columnDefinition = "TEXT")
     private String executionNotes;
 
@@ -221,6 +227,22 @@ public class Intervention {
         this.executedBy = executedBy;
     }
 
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
     public String getExecutionNotes() {
         return executionNotes;
     }
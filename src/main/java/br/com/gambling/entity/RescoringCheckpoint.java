@@ -0,0 +1,137 @@
+package br.com.gambling.entity;
+
+import br.com.gambling.enums.RescoringJobStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade Checkpoint de Reavaliação - registra o progresso de uma execução da reavaliação de risco em lote
+ */
+@Entity
+@Table(name = "checkpoints_reavaliacao")
+public class RescoringCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "situacao", nullable = false)
+    private RescoringJobStatus status;
+
+    @Column(name = "data_corte", nullable = false)
+    private LocalDateTime cutoffDate;
+
+    @Column(name = "ultimo_id_usuario", nullable = false)
+    private Long lastUserId = 0L;
+
+    @Column(name = "usuarios_processados", nullable = false)
+    private Long processedUsers = 0L;
+
+    @Column(name = "usuarios_com_falha", nullable = false)
+    private Long failedUsers = 0L;
+
+    @Column(name = "mudancas_nivel", nullable = false)
+    private Long levelChanges = 0L;
+
+    @Column(name = "iniciado_em", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finalizado_em")
+    private LocalDateTime finishedAt;
+
+    // Construtores
+    public RescoringCheckpoint() {}
+
+    public RescoringCheckpoint(LocalDateTime cutoffDate, LocalDateTime startedAt) {
+        this.status = RescoringJobStatus.RUNNING;
+        this.cutoffDate = cutoffDate;
+        this.startedAt = startedAt;
+        this.updatedAt = startedAt;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RescoringJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RescoringJobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCutoffDate() {
+        return cutoffDate;
+    }
+
+    public void setCutoffDate(LocalDateTime cutoffDate) {
+        this.cutoffDate = cutoffDate;
+    }
+
+    public Long getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(Long lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public Long getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public void setProcessedUsers(Long processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+
+    public Long getFailedUsers() {
+        return failedUsers;
+    }
+
+    public void setFailedUsers(Long failedUsers) {
+        this.failedUsers = failedUsers;
+    }
+
+    public Long getLevelChanges() {
+        return levelChanges;
+    }
+
+    public void setLevelChanges(Long levelChanges) {
+        this.levelChanges = levelChanges;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
  * Entidade Avaliação de Risco - representa uma avaliação de risco de um usuário
  */
 @Entity
-@Table(name = "avaliacoes_risco")
+@Table(name = "avaliacoes_risco", indexes = {
+        @Index(name = "idx_avaliacoes_usuario_data", columnList = "id_usuario, data_avaliacao"),
+        @Index(name = "idx_avaliacoes_saldo_liquido", columnList = "ind_saldo_liquido")
+})
 public class RiskAssessment {
 
     @Id
@@ -34,17 +37,17 @@ public class RiskAssessment {
     @Column(name = "motivo_avaliacao", columnDefinition = "TEXT")
     private String assessmentReason;
 
-    @Column(name = "indicadores_comportamentais", columnDefinition = "TEXT")
-    private String behavioralIndicators; // JSON string com indicadores comportamentais
+    @Embedded
+    private BehavioralIndicators behavioralIndicators;
 
-    @Column(name = "indicadores_financeiros", columnDefinition = "TEXT")
-    private String financialIndicators; // JSON string com indicadores financeiros
+    @Embedded
+    private FinancialIndicators financialIndicators;
 
-    @Column(name = "indicadores_temporais", columnDefinition = "TEXT")
-    private String temporalIndicators; // JSON string com indicadores temporais
+    @Embedded
+    private TemporalIndicators temporalIndicators;
 
-    @Column(name = "analise_sessoes", columnDefinition = "TEXT")
-    private String sessionAnalysis; // JSON string com análise das sessões
+    @Embedded
+    private SessionAnalysis sessionAnalysis;
 
     @Column(name = "recomendacoes", columnDefinition = "TEXT")
     private String recommendations; // JSON string com recomendações
@@ -120,35 +123,35 @@ public class RiskAssessment {
         this.assessmentReason = assessmentReason;
     }
 
-    public String getBehavioralIndicators() {
+    public BehavioralIndicators getBehavioralIndicators() {
         return behavioralIndicators;
     }
 
-    public void setBehavioralIndicators(String behavioralIndicators) {
+    public void setBehavioralIndicators(BehavioralIndicators behavioralIndicators) {
         this.behavioralIndicators = behavioralIndicators;
     }
 
-    public String getFinancialIndicators() {
+    public FinancialIndicators getFinancialIndicators() {
         return financialIndicators;
     }
 
-    public void setFinancialIndicators(String financialIndicators) {
+    public void setFinancialIndicators(FinancialIndicators financialIndicators) {
         this.financialIndicators = financialIndicators;
     }
 
-    public String getTemporalIndicators() {
+    public TemporalIndicators getTemporalIndicators() {
         return temporalIndicators;
     }
 
-    public void setTemporalIndicators(String temporalIndicators) {
+    public void setTemporalIndicators(TemporalIndicators temporalIndicators) {
         this.temporalIndicators = temporalIndicators;
     }
 
-    public String getSessionAnalysis() {
+    public SessionAnalysis getSessionAnalysis() {
         return sessionAnalysis;
     }
 
-    public void setSessionAnalysis(String sessionAnalysis) {
+    public void setSessionAnalysis(SessionAnalysis sessionAnalysis) {
         this.sessionAnalysis = sessionAnalysis;
     }
 
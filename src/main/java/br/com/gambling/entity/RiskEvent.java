@@ -0,0 +1,129 @@
+package br.com.gambling.entity;
+
+import br.com.gambling.enums.RiskLevel;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade Evento de Risco - mudança de nível de risco de um usuário registrada na mesma transação da
+ * mudança (outbox) e entregue depois aos assinantes do barramento de eventos de risco
+ */
+@Entity
+@Table(name = "eventos_risco", indexes = @Index(name = "idx_eventos_risco_processado_em", columnList = "processado_em, id"))
+public class RiskEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nivel_anterior")
+    private RiskLevel previousLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nivel_novo", nullable = false)
+    private RiskLevel newLevel;
+
+    @Column(name = "origem", nullable = false, length = 32)
+    private String source; // ANALISE, REAVALIACAO ou INCREMENTAL
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processado_em")
+    private LocalDateTime processedAt; // Nulo enquanto não entregue
+
+    @Column(name = "tentativas", nullable = false)
+    private Integer attempts = 0; // Entregas individuais que falharam; ao atingir o máximo o evento é estacionado
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String lastError;
+
+    // Construtores
+    public RiskEvent() {}
+
+    public RiskEvent(Long userId, RiskLevel previousLevel, RiskLevel newLevel, String source) {
+        this.userId = userId;
+        this.previousLevel = previousLevel;
+        this.newLevel = newLevel;
+        this.source = source;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public RiskLevel getPreviousLevel() {
+        return previousLevel;
+    }
+
+    public void setPreviousLevel(RiskLevel previousLevel) {
+        this.previousLevel = previousLevel;
+    }
+
+    public RiskLevel getNewLevel() {
+        return newLevel;
+    }
+
+    public void setNewLevel(RiskLevel newLevel) {
+        this.newLevel = newLevel;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
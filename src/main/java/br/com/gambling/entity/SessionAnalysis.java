@@ -0,0 +1,78 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Análise das sessões do usuário em uma avaliação de risco, gravada em colunas numéricas
+ */
+@Embeddable
+public class SessionAnalysis {
+
+    @Column(name = "ind_sessoes_7d")
+    private Integer sessions7d;
+
+    @Column(name = "ind_sessoes_30d")
+    private Integer sessions30d;
+
+    @Column(name = "ind_total_apostado_30d")
+    private Double totalBets30d;
+
+    @Column(name = "ind_apostas_30d")
+    private Integer betCount30d;
+
+    @Column(name = "ind_perdas_significativas_30d")
+    private Integer significantLosses30d;
+
+    // Construtores
+    public SessionAnalysis() {}
+
+    public SessionAnalysis(Integer sessions7d, Integer sessions30d, Double totalBets30d, Integer betCount30d, Integer significantLosses30d) {
+        this.sessions7d = sessions7d;
+        this.sessions30d = sessions30d;
+        this.totalBets30d = totalBets30d;
+        this.betCount30d = betCount30d;
+        this.significantLosses30d = significantLosses30d;
+    }
+
+    // Getters e Setters
+    public Integer getSessions7d() {
+        return sessions7d;
+    }
+
+    public void setSessions7d(Integer sessions7d) {
+        this.sessions7d = sessions7d;
+    }
+
+    public Integer getSessions30d() {
+        return sessions30d;
+    }
+
+    public void setSessions30d(Integer sessions30d) {
+        this.sessions30d = sessions30d;
+    }
+
+    public Double getTotalBets30d() {
+        return totalBets30d;
+    }
+
+    public void setTotalBets30d(Double totalBets30d) {
+        this.totalBets30d = totalBets30d;
+    }
+
+    public Integer getBetCount30d() {
+        return betCount30d;
+    }
+
+    public void setBetCount30d(Integer betCount30d) {
+        this.betCount30d = betCount30d;
+    }
+
+    public Integer getSignificantLosses30d() {
+        return significantLosses30d;
+    }
+
+    public void setSignificantLosses30d(Integer significantLosses30d) {
+        this.significantLosses30d = significantLosses30d;
+    }
+}
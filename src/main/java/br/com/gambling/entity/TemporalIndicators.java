@@ -0,0 +1,44 @@
+package br.com.gambling.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Indicadores temporais de uma avaliação de risco
+ */
+@Embeddable
+public class TemporalIndicators {
+
+    @Column(name = "ind_usuario_criado_em")
+    private LocalDateTime userCreatedAt;
+
+    @Column(name = "ind_ultima_atividade")
+    private LocalDateTime lastActivity;
+
+    // Construtores
+    public TemporalIndicators() {}
+
+    public TemporalIndicators(LocalDateTime userCreatedAt, LocalDateTime lastActivity) {
+        this.userCreatedAt = userCreatedAt;
+        this.lastActivity = lastActivity;
+    }
+
+    // Getters e Setters
+    public LocalDateTime getUserCreatedAt() {
+        return userCreatedAt;
+    }
+
+    public void setUserCreatedAt(LocalDateTime userCreatedAt) {
+        this.userCreatedAt = userCreatedAt;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
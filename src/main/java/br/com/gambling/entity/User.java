@@ -5,8 +5,10 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.List;
  * Entidade Usuário - representa um usuário do sistema
  */
 @Entity
+@DynamicUpdate
 @Table(name = "usuarios")
 public class User {
 
@@ -56,6 +59,25 @@ public class User {
     @Column(name = "ativo")
     private Boolean isActive = true;
 
+    @Column(name = "limite_deposito_diario")
+    private Double dailyDepositLimit;
+
+    @Column(name = "limite_perda_diaria")
+    private Double dailyLossLimit;
+
+    @Column(name = "limite_tempo_diario_minutos")
+    private Integer dailySessionMinutesLimit;
+
+    @Column(name = "depositos_dia")
+    private Double depositsOnDay = 0.0;
+
+    @Column(name = "dia_depositos")
+    private LocalDate depositsDay;
+
+    @Version
+    @Column(name = "versao")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "criado_em", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -170,6 +192,54 @@ public class User {
         this.isActive = isActive;
     }
 
+    public Double getDailyDepositLimit() {
+        return dailyDepositLimit;
+    }
+
+    public void setDailyDepositLimit(Double dailyDepositLimit) {
+        this.dailyDepositLimit = dailyDepositLimit;
+    }
+
+    public Double getDailyLossLimit() {
+        return dailyLossLimit;
+    }
+
+    public void setDailyLossLimit(Double dailyLossLimit) {
+        this.dailyLossLimit = dailyLossLimit;
+    }
+
+    public Integer getDailySessionMinutesLimit() {
+        return dailySessionMinutesLimit;
+    }
+
+    public void setDailySessionMinutesLimit(Integer dailySessionMinutesLimit) {
+        this.dailySessionMinutesLimit = dailySessionMinutesLimit;
+    }
+
+    public Double getDepositsOnDay() {
+        return depositsOnDay;
+    }
+
+    public void setDepositsOnDay(Double depositsOnDay) {
+        this.depositsOnDay = depositsOnDay;
+    }
+
+    public LocalDate getDepositsDay() {
+        return depositsDay;
+    }
+
+    public void setDepositsDay(LocalDate depositsDay) {
+        this.depositsDay = depositsDay;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,43 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa a situação de uma análise de risco assíncrona.
+ */
+public enum AnalysisJobStatus {
+
+    /**
+     * Aguardando um executor livre
+     */
+    QUEUED("Na fila", "Análise aceita e aguardando um executor livre"),
+
+    /**
+     * Análise em execução
+     */
+    RUNNING("Em execução", "Indicadores e nível de risco sendo calculados"),
+
+    /**
+     * Análise concluída com resultado
+     */
+    COMPLETED("Concluída", "Avaliação de risco disponível no resultado"),
+
+    /**
+     * Análise encerrada por erro
+     */
+    FAILED("Falhou", "Análise encerrada por erro; ver a mensagem de erro");
+
+    private final String description;
+    private final String details;
+
+    AnalysisJobStatus(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as janelas móveis das variáveis por usuário.
+ */
+public enum FeatureWindow {
+
+    /**
+     * Última hora, em baldes de 1 minuto
+     */
+    HOUR_1("1 hora", "Últimos 60 minutos, com resolução de 1 minuto"),
+
+    /**
+     * Últimas 24 horas, em baldes de 1 hora
+     */
+    HOURS_24("24 horas", "Últimas 24 horas, com resolução de 1 hora"),
+
+    /**
+     * Últimos 7 dias, em baldes de 1 dia
+     */
+    DAYS_7("7 dias", "Últimos 7 dias, com resolução de 1 dia"),
+
+    /**
+     * Últimos 30 dias, em baldes de 1 dia
+     */
+    DAYS_30("30 dias", "Últimos 30 dias, com resolução de 1 dia");
+
+    private final String description;
+    private final String details;
+
+    FeatureWindow(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as operações protegidas por chave de idempotência.
+ */
+public enum IdempotencyScope {
+
+    /**
+     * Aposta adicionada a uma sessão
+     */
+    BET("Aposta", "POST /api/sessions/{id}/bets"),
+
+    /**
+     * Ganho adicionado a uma sessão
+     */
+    WIN("Ganho", "POST /api/sessions/{id}/wins"),
+
+    /**
+     * Criação de sessão de apostas
+     */
+    SESSION_CREATE("Criação de sessão", "POST /api/sessions"),
+
+    /**
+     * Depósito de um usuário
+     */
+    DEPOSIT("Depósito", "POST /api/users/{id}/deposits");
+
+    private final String description;
+    private final String details;
+
+    IdempotencyScope(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa a situação de uma execução da reavaliação de risco em lote.
+ */
+public enum RescoringJobStatus {
+
+    /**
+     * Execução em andamento (ou interrompida sem finalizar, se não houver processo executando)
+     */
+    RUNNING("Em andamento", "Usuários sendo reavaliados a partir do último checkpoint"),
+
+    /**
+     * Execução parada a pedido, pode ser retomada
+     */
+    STOPPED("Parada", "Execução interrompida a pedido; a próxima execução continua do checkpoint"),
+
+    /**
+     * Execução encerrada por falha, pode ser retomada
+     */
+    FAILED("Falhou", "Execução encerrada por erro; a próxima execução continua do checkpoint"),
+
+    /**
+     * Todos os usuários pendentes foram reavaliados
+     */
+    COMPLETED("Concluída", "Todos os usuários que precisavam de nova avaliação foram reavaliados");
+
+    private final String description;
+    private final String details;
+
+    RescoringJobStatus(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
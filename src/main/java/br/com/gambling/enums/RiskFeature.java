@@ -0,0 +1,138 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as variáveis disponíveis às regras de risco (posições do vetor de variáveis).
+ */
+public enum RiskFeature {
+
+    /**
+     * Apostas na última hora
+     */
+    BETS_LAST_HOUR("Apostas na última hora", "Quantidade de apostas do usuário nos últimos 60 minutos"),
+
+    /**
+     * Valor apostado em 24h
+     */
+    BET_SUM_24H("Valor apostado em 24h", "Soma apostada pelo usuário nas últimas 24 horas"),
+
+    /**
+     * Perda líquida em 24h
+     */
+    NET_LOSS_24H("Perda líquida em 24h", "Valor apostado menos valor ganho nas últimas 24 horas"),
+
+    /**
+     * Perda líquida em 30 dias
+     */
+    NET_LOSS_30D("Perda líquida em 30 dias", "Valor apostado menos valor ganho nos últimos 30 dias"),
+
+    /**
+     * Sessões em 24h
+     */
+    SESSIONS_24H("Sessões em 24h", "Sessões iniciadas nas últimas 24 horas"),
+
+    /**
+     * Sessões em 7 dias
+     */
+    SESSIONS_7D("Sessões em 7 dias", "Sessões iniciadas nos últimos 7 dias"),
+
+    /**
+     * Sessões em 30 dias
+     */
+    SESSIONS_30D("Sessões em 30 dias", "Sessões iniciadas nos últimos 30 dias"),
+
+    /**
+     * Valor depositado em 24h
+     */
+    DEPOSITS_24H("Valor depositado em 24h", "Soma dos depósitos nas últimas 24 horas"),
+
+    /**
+     * Depósitos em 24h
+     */
+    DEPOSIT_COUNT_24H("Depósitos em 24h", "Quantidade de depósitos nas últimas 24 horas"),
+
+    /**
+     * Valor depositado em 30 dias
+     */
+    DEPOSITS_30D("Valor depositado em 30 dias", "Soma dos depósitos nos últimos 30 dias"),
+
+    /**
+     * Perdas significativas em 24h
+     */
+    SIGNIFICANT_LOSSES_24H("Perdas significativas em 24h", "Sessões finalizadas com perda significativa nas últimas 24 horas"),
+
+    /**
+     * Perdas significativas em 30 dias
+     */
+    SIGNIFICANT_LOSSES_30D("Perdas significativas em 30 dias", "Sessões finalizadas com perda significativa nos últimos 30 dias"),
+
+    /**
+     * Tipos de jogo em 30 dias
+     */
+    DISTINCT_GAME_TYPES_30D("Tipos de jogo em 30 dias", "Tipos de jogo distintos nos últimos 30 dias"),
+
+    /**
+     * Total depositado
+     */
+    TOTAL_DEPOSITS("Total depositado", "Soma de todos os depósitos do usuário"),
+
+    /**
+     * Saldo líquido
+     */
+    NET_BALANCE("Saldo líquido", "Total depositado menos total sacado"),
+
+    /**
+     * Total de sessões
+     */
+    LIFETIME_SESSIONS("Total de sessões", "Quantidade de sessões desde o cadastro"),
+
+    /**
+     * Resultado da sessão
+     */
+    SESSION_NET_RESULT("Resultado da sessão", "Resultado líquido da sessão (negativo = perda); zero fora do escopo de sessão"),
+
+    /**
+     * Maior aposta da sessão
+     */
+    SESSION_MAX_BET("Maior aposta da sessão", "Maior aposta da sessão; zero fora do escopo de sessão"),
+
+    /**
+     * Duração da sessão
+     */
+    SESSION_DURATION_MINUTES("Duração da sessão", "Duração da sessão em minutos; zero fora do escopo de sessão"),
+
+    /**
+     * Apostas da sessão
+     */
+    SESSION_BET_COUNT("Apostas da sessão", "Quantidade de apostas da sessão; zero fora do escopo de sessão"),
+
+    /**
+     * Apostas anômalas da sessão
+     */
+    SESSION_ANOMALOUS_BETS("Apostas anômalas da sessão", "Apostas da sessão acima da margem configurada sobre o p99 do usuário ou do múltiplo configurado da sua mediana; zero fora do escopo de sessão"),
+
+    /**
+     * Perfil de valores do usuário pronto
+     */
+    SESSION_USER_PROFILE_READY("Perfil de valores pronto", "1 se o perfil de valores do usuário já tem as apostas mínimas para detectar anomalias (gambling.risk.bet-size.min-bets), 0 caso contrário ou fora do escopo de sessão"),
+
+    /**
+     * Episódios de perseguição de perdas na sessão
+     */
+    SESSION_LOSS_CHASING_EPISODES("Perseguição de perdas na sessão", "Vezes em que a janela recente de eventos da sessão acumulou o mínimo de apostas aumentadas logo após perdas; zero fora do escopo de sessão");
+
+    private final String description;
+    private final String details;
+
+    RiskFeature(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.gambling.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Enum que representa os indicadores de risco marcados pelas regras de sessão.
+ */
+public enum RiskFlag {
+
+    /**
+     * Sessões frequentes
+     */
+    HIGH_FREQUENCY("Alta frequência", "Usuário com muitas sessões no período"),
+
+    /**
+     * Tentativa de recuperar perdas
+     */
+    LOSS_CHASING("Perda chasing", "Sessão com perda logo após outra perda significativa"),
+
+    /**
+     * Apostas de valor alto
+     */
+    HIGH_BETS("Apostas altas", "Sessão com aposta acima do limite"),
+
+    /**
+     * Sessão prolongada
+     */
+    LONG_SESSION("Sessão longa", "Sessão com duração acima do limite");
+
+    private final String description;
+    private final String details;
+
+    RiskFlag(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    /**
+     * Bit do indicador na máscara gravada na sessão
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Indicadores presentes em uma máscara de bits
+     */
+    public static Set<RiskFlag> fromMask(int mask) {
+        Set<RiskFlag> flags = EnumSet.noneOf(RiskFlag.class);
+        for (RiskFlag flag : values()) {
+            if ((mask & flag.mask()) != 0) {
+                flags.add(flag);
+            }
+        }
+        return flags;
+    }
+}
@@ -43,4 +43,20 @@ public enum RiskLevel {
     public String getDetails() {
         return details;
     }
+
+    /**
+     * Classifica uma pontuação de risco (0 a 100) pelas faixas usadas nas avaliações
+     */
+    public static RiskLevel fromScore(double score) {
+        if (score >= 80) {
+            return CRITICAL;
+        }
+        if (score >= 60) {
+            return HIGH;
+        }
+        if (score >= 40) {
+            return MEDIUM;
+        }
+        return LOW;
+    }
 }
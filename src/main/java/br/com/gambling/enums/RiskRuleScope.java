@@ -0,0 +1,33 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa onde uma regra de risco é avaliada.
+ */
+public enum RiskRuleScope {
+
+    /**
+     * Indicadores de uma sessão finalizada
+     */
+    SESSION("Sessão", "Avaliada ao finalizar uma sessão; marca os indicadores de risco da sessão"),
+
+    /**
+     * Pontuação da avaliação de risco do usuário
+     */
+    USER("Usuário", "Avaliada na análise completa do usuário; soma pontos à pontuação de risco");
+
+    private final String description;
+    private final String details;
+
+    RiskRuleScope(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as ações enviadas pelas plataformas no canal WebSocket de eventos de sessões.
+ */
+public enum SessionChannelAction {
+
+    /**
+     * Aposta realizada na sessão
+     */
+    BET("Aposta", "Soma o valor às apostas da sessão"),
+
+    /**
+     * Ganho obtido na sessão
+     */
+    WIN("Ganho", "Soma o valor aos ganhos da sessão"),
+
+    /**
+     * Finalização da sessão
+     */
+    END("Finalização", "Finaliza a sessão após aplicar os eventos anteriores do canal");
+
+    private final String description;
+    private final String details;
+
+    SessionChannelAction(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as mensagens enviadas pelo servidor no canal WebSocket de eventos de sessões.
+ */
+public enum SessionChannelMessageType {
+
+    /**
+     * Créditos iniciais da conexão
+     */
+    CREDIT("Créditos", "Quantidade de eventos que a plataforma pode enviar sem aguardar confirmação"),
+
+    /**
+     * Confirmação de eventos processados
+     */
+    ACK("Confirmação", "Confirma os eventos até a sequência informada e devolve os créditos correspondentes"),
+
+    /**
+     * Erro do canal
+     */
+    ERROR("Erro", "Violação do protocolo; a conexão é encerrada em seguida");
+
+    private final String description;
+    private final String details;
+
+    SessionChannelMessageType(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
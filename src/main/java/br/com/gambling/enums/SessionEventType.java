@@ -0,0 +1,33 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa os tipos de evento aplicáveis a uma sessão de apostas.
+ */
+public enum SessionEventType {
+
+    /**
+     * Aposta realizada na sessão
+     */
+    BET("Aposta", "Valor apostado pelo usuário"),
+
+    /**
+     * Ganho obtido na sessão
+     */
+    WIN("Ganho", "Valor ganho pelo usuário");
+
+    private final String description;
+    private final String details;
+
+    SessionEventType(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa as variáveis agregadas por usuário em janelas móveis.
+ */
+public enum UserFeature {
+
+    /**
+     * Soma dos valores apostados
+     */
+    BET_SUM("Valor apostado", "Soma dos valores apostados na janela"),
+
+    /**
+     * Quantidade de apostas
+     */
+    BET_COUNT("Apostas", "Quantidade de apostas na janela"),
+
+    /**
+     * Valor apostado menos valor ganho
+     */
+    NET_LOSS("Perda líquida", "Valor apostado menos valor ganho na janela (negativo quando o usuário ganhou)"),
+
+    /**
+     * Quantidade de sessões iniciadas
+     */
+    SESSION_COUNT("Sessões", "Quantidade de sessões iniciadas na janela"),
+
+    /**
+     * Soma dos depósitos
+     */
+    DEPOSIT_SUM("Valor depositado", "Soma dos depósitos na janela"),
+
+    /**
+     * Quantidade de depósitos
+     */
+    DEPOSIT_COUNT("Depósitos", "Quantidade de depósitos na janela"),
+
+    /**
+     * Sessões finalizadas com perda significativa
+     */
+    SIGNIFICANT_LOSS_SESSIONS("Sessões com perda significativa", "Sessões finalizadas na janela com perda líquida acima de 100");
+
+    private final String description;
+    private final String details;
+
+    UserFeature(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.gambling.enums;
+
+/**
+ * Enum que representa os limites diários de jogo responsável configuráveis por usuário.
+ */
+public enum UserLimitType {
+
+    /**
+     * Soma dos depósitos do dia
+     */
+    DAILY_DEPOSIT("Depósitos", "Soma dos depósitos realizados no dia"),
+
+    /**
+     * Perda líquida do dia (apostas menos ganhos)
+     */
+    DAILY_LOSS("Perdas", "Apostas menos ganhos no dia"),
+
+    /**
+     * Tempo em sessões de apostas no dia, em minutos
+     */
+    DAILY_SESSION_TIME("Tempo de sessão", "Minutos em sessões de apostas no dia");
+
+    private final String description;
+    private final String details;
+
+    UserLimitType(String description, String details) {
+        this.description = description;
+        this.details = details;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+}
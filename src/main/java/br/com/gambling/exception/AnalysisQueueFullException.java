@@ -0,0 +1,17 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de análises de risco assíncronas está cheia
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AnalysisQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AnalysisQueueFullException(int capacity) {
+        super("Fila de análises de risco cheia (" + capacity + " análises aguardando); tente novamente em instantes");
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exceção lançada quando um usuário com bloqueio temporário vigente tenta abrir uma sessão ou apostar
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class BettingBlockedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BettingBlockedException(Long userId, LocalDateTime blockedUntil) {
+        super("Usuário " + userId + " bloqueado para apostas "
+                + (blockedUntil != null ? "até " + blockedUntil : "por tempo indeterminado"));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando uma requisição com a mesma chave de idempotência ainda está em processamento ou a
+ * chave já foi usada para outro recurso
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("Requisição com a chave de idempotência " + idempotencyKey + " ainda está em processamento");
+    }
+
+    public IdempotencyConflictException(String idempotencyKey, Long usedFor, Long requestedFor) {
+        super("Chave de idempotência " + idempotencyKey + " já usada para o recurso " + usedFor
+                + ", não para " + requestedFor);
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a URL de retorno de uma análise aponta para um host não permitido
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCallbackUrlException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCallbackUrlException(String callbackUrl) {
+        super("URL de retorno não permitida: " + callbackUrl);
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a chave de idempotência informada é inválida
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.gambling.exception;
+
+import br.com.gambling.enums.UserLimitType;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a operação ultrapassaria um limite diário de jogo responsável do usuário
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class LimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LimitExceededException(Long userId, UserLimitType limitType, double limit, double used) {
+        super("Limite diário de " + limitType.getDescription().toLowerCase() + " do usuário " + userId
+                + " atingido: limite " + limit + ", utilizado hoje " + used);
+    }
+}
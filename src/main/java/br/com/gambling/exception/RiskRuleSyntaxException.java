@@ -0,0 +1,21 @@
+package br.com.gambling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o arquivo de regras de risco não pode ser compilado
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class RiskRuleSyntaxException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RiskRuleSyntaxException(int line, String message) {
+        super("Regra de risco inválida na linha " + line + ": " + message);
+    }
+
+    public RiskRuleSyntaxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.gambling.repository;
+
+import br.com.gambling.entity.BetSizeProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para operações de banco de dados relacionadas aos perfis de valor de aposta
+ */
+@Repository
+public interface BetSizeProfileRepository extends JpaRepository<BetSizeProfile, Long> {
+}
@@ -5,12 +5,15 @@ import br.com.gambling.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de banco de dados relacionadas às sessões de apostas
@@ -185,4 +188,93 @@ public interface GamblingSessionRepository extends JpaRepository<GamblingSession
      */
     @Query("SELECT COUNT(gs) > 0 FROM GamblingSession gs WHERE gs.user.id = :userId AND gs.sessionEnd >= :since AND gs.netResult < -100")
     boolean hasRecentSignificantLoss(@Param("userId") Long userId, @Param("since") LocalDateTime since);
-}
\ No newline at end of file
+
+    /**
+     * Percorre as sessões iniciadas a partir de uma data e as ainda ativas, em ordem de início
+     * (usado para reconstruir as janelas móveis por usuário)
+     */
+    @Query("SELECT gs.id, gs.user.id, gs.sessionStart, gs.sessionEnd, gs.totalBetAmount, gs.totalWinAmount, " +
+           "gs.betCount, gs.netResult, gs.gameType FROM GamblingSession gs " +
+           "WHERE gs.sessionStart >= :since OR gs.sessionEnd IS NULL ORDER BY gs.sessionStart")
+    Stream<Object[]> streamFeatureSourcesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Busca as sessões com atividade a partir de {@code dayStart} (ou ainda ativas), para os contadores de limites diários
+     */
+    @Query("SELECT gs.id, gs.user.id, gs.sessionStart, gs.sessionEnd, gs.lossOnDay, gs.lossDay FROM GamblingSession gs " +
+           "WHERE gs.sessionStart >= :dayStart OR gs.sessionEnd IS NULL OR gs.sessionEnd >= :dayStart")
+    List<Object[]> findLimitSourcesSince(@Param("dayStart") LocalDateTime dayStart);
+
+    /**
+     * Busca as sessões de um usuário com atividade a partir de {@code dayStart} (ou ainda ativas)
+     */
+    @Query("SELECT gs.id, gs.user.id, gs.sessionStart, gs.sessionEnd, gs.lossOnDay, gs.lossDay FROM GamblingSession gs " +
+           "WHERE gs.user.id = :userId AND (gs.sessionStart >= :dayStart OR gs.sessionEnd IS NULL OR gs.sessionEnd >= :dayStart)")
+    List<Object[]> findLimitSourcesByUserSince(@Param("userId") Long userId, @Param("dayStart") LocalDateTime dayStart);
+
+    /**
+     * Busca o ID do usuário dono da sessão e o fim da sessão (nulo se ativa)
+     */
+    @Query("SELECT gs.user.id, gs.sessionEnd FROM GamblingSession gs WHERE gs.id = :id")
+    List<Object[]> findOwnerById(@Param("id") Long id);
+
+    /**
+     * Busca o maior registro do diário de eventos já aplicado às sessões
+     */
+    @Query("SELECT COALESCE(MAX(gs.journalSequence), 0) FROM GamblingSession gs")
+    Long findMaxJournalSequence();
+
+    /**
+     * Soma uma aposta à sessão diretamente no banco, sem leitura prévia; a perda do dia usa a data de {@code now}
+     * (a do servidor, como nos contadores de limites), sem voltar a um dia anterior ao já gravado
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE sessoes_apostas SET valor_total_apostas = valor_total_apostas + :amount, " +
+                   "contador_apostas = contador_apostas + 1, " +
+                   "valor_maximo_aposta = GREATEST(valor_maximo_aposta, :amount), " +
+                   "perda_dia = CASE WHEN dia_perda = CAST(:now AS DATE) THEN COALESCE(perda_dia, 0) + :amount " +
+                   "WHEN dia_perda > CAST(:now AS DATE) THEN perda_dia ELSE :amount END, " +
+                   "dia_perda = GREATEST(COALESCE(dia_perda, CAST(:now AS DATE)), CAST(:now AS DATE)), " +
+                   "versao = versao + 1 " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementBet(@Param("id") Long id, @Param("amount") Double amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Soma um ganho à sessão diretamente no banco, sem leitura prévia
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE sessoes_apostas SET valor_total_ganhos = valor_total_ganhos + :amount, " +
+                   "perda_dia = CASE WHEN dia_perda = CAST(:now AS DATE) THEN COALESCE(perda_dia, 0) + -:amount " +
+                   "WHEN dia_perda > CAST(:now AS DATE) THEN perda_dia ELSE -:amount END, " +
+                   "dia_perda = GREATEST(COALESCE(dia_perda, CAST(:now AS DATE)), CAST(:now AS DATE)), " +
+                   "versao = versao + 1 " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementWin(@Param("id") Long id, @Param("amount") Double amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Soma à sessão os totais acumulados de vários eventos, diretamente no banco; {@code dayLoss} é a perda dos
+     * eventos do dia de {@code now} (o instante do último evento)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE sessoes_apostas SET valor_total_apostas = valor_total_apostas + :betAmount, " +
+                   "contador_apostas = contador_apostas + :betCount, " +
+                   "valor_maximo_aposta = GREATEST(valor_maximo_aposta, :maxBetAmount), " +
+                   "valor_total_ganhos = valor_total_ganhos + :winAmount, " +
+                   "perda_dia = CASE WHEN dia_perda = CAST(:now AS DATE) THEN COALESCE(perda_dia, 0) + :dayLoss " +
+                   "WHEN dia_perda > CAST(:now AS DATE) THEN perda_dia ELSE :dayLoss END, " +
+                   "dia_perda = GREATEST(COALESCE(dia_perda, CAST(:now AS DATE)), CAST(:now AS DATE)), " +
+                   "seq_diario = GREATEST(seq_diario, :journalSequence), " +
+                   "versao = versao + 1 " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementEventTotals(@Param("id") Long id,
+                             @Param("betAmount") Double betAmount,
+                             @Param("betCount") Integer betCount,
+                             @Param("maxBetAmount") Double maxBetAmount,
+                             @Param("winAmount") Double winAmount,
+                             @Param("journalSequence") Long journalSequence,
+                             @Param("dayLoss") Double dayLoss,
+                             @Param("now") LocalDateTime now);
+}
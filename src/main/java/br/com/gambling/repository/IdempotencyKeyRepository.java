@@ -0,0 +1,33 @@
+package br.com.gambling.repository;
+
+import br.com.gambling.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Repositório para operações de banco de dados relacionadas às chaves de idempotência
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Percorre as chaves registradas a partir de uma data (usado para aquecer o filtro de Bloom)
+     */
+    @Query("SELECT k.key FROM IdempotencyKey k WHERE k.createdAt >= :since")
+    Stream<String> streamKeysCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Remove as chaves anteriores ao período de retenção
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -40,12 +41,58 @@ public interface InterventionRepository extends JpaRepository<Intervention, Long
     @Query("SELECT i FROM Intervention i WHERE i.status = 'PENDING' ORDER BY i.priority DESC, i.createdAt ASC")
     List<Intervention> findPendingInterventions();
 
+    /**
+     * Busca as intervenções pendentes ou agendadas ainda não expiradas, com o usuário (carga da fila de intervenções)
+     */
+    @Query("SELECT i FROM Intervention i JOIN FETCH i.user WHERE i.status IN ('PENDING', 'SCHEDULED') " +
+           "AND (i.expiresAt IS NULL OR i.expiresAt > :now)")
+    List<Intervention> findOpenInterventions(@Param("now") LocalDateTime now);
+
+    /**
+     * Busca intervenções pelos IDs, com o usuário
+     */
+    @Query("SELECT i FROM Intervention i JOIN FETCH i.user WHERE i.id IN :ids")
+    List<Intervention> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Busca intervenções agendadas
      */
     @Query("SELECT i FROM Intervention i WHERE i.status = 'SCHEDULED' AND i.scheduledFor <= :now ORDER BY i.scheduledFor ASC")
     List<Intervention> findScheduledInterventionsToExecute(@Param("now") LocalDateTime now);
 
+    /**
+     * Busca ID e horário das intervenções automáticas agendadas (carga do agendador)
+     */
+    @Query("SELECT i.id, i.scheduledFor FROM Intervention i WHERE i.status = 'SCHEDULED' AND i.isAutomatic = true")
+    List<Object[]> findScheduledAutomaticInterventions();
+
+    /**
+     * Busca usuário e tipo das intervenções pendentes ou agendadas dos usuários informados
+     */
+    @Query("SELECT i.user.id, i.interventionType FROM Intervention i WHERE i.user.id IN :userIds AND i.status IN ('PENDING', 'SCHEDULED')")
+    List<Object[]> findOpenInterventionTypes(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Busca usuário e fim dos bloqueios temporários executados e ainda vigentes (carga do índice de bloqueios)
+     */
+    @Query("SELECT i.user.id, i.expiresAt FROM Intervention i WHERE i.interventionType = 'TEMPORARY_BLOCK' AND i.status = 'EXECUTED' " +
+           "AND (i.expiresAt IS NULL OR i.expiresAt > :now)")
+    List<Object[]> findActiveBlocks(@Param("now") LocalDateTime now);
+
+    /**
+     * Busca o fim dos bloqueios temporários executados e ainda vigentes de um usuário
+     */
+    @Query("SELECT i.expiresAt FROM Intervention i WHERE i.user.id = :userId AND i.interventionType = 'TEMPORARY_BLOCK' " +
+           "AND i.status = 'EXECUTED' AND (i.expiresAt IS NULL OR i.expiresAt > :now)")
+    List<LocalDateTime> findActiveBlocksByUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Busca usuário e fim dos bloqueios temporários executados e ainda vigentes entre as intervenções informadas
+     */
+    @Query("SELECT i.user.id, i.expiresAt FROM Intervention i WHERE i.id IN :ids AND i.interventionType = 'TEMPORARY_BLOCK' " +
+           "AND i.status = 'EXECUTED' AND (i.expiresAt IS NULL OR i.expiresAt > :now)")
+    List<Object[]> findActiveBlocksByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     /**
      * Busca intervenções expiradas
      */
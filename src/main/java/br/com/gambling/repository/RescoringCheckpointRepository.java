@@ -0,0 +1,19 @@
+package br.com.gambling.repository;
+
+import br.com.gambling.entity.RescoringCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositório para operações de banco de dados relacionadas aos checkpoints da reavaliação de risco em lote
+ */
+@Repository
+public interface RescoringCheckpointRepository extends JpaRepository<RescoringCheckpoint, Long> {
+
+    /**
+     * Busca o checkpoint da execução mais recente
+     */
+    Optional<RescoringCheckpoint> findTopByOrderByIdDesc();
+}
@@ -26,6 +26,11 @@ public interface RiskAssessmentRepository extends JpaRepository<RiskAssessment,
     @Query("SELECT ra FROM RiskAssessment ra WHERE ra.user = :user AND ra.isActive = true ORDER BY ra.assessmentDate DESC")
     Optional<RiskAssessment> findLatestByUser(@Param("user") User user);
 
+    /**
+     * Busca apenas a avaliação ativa mais recente de um usuário (usa o índice por usuário e data)
+     */
+    Optional<RiskAssessment> findFirstByUserIdAndIsActiveTrueOrderByAssessmentDateDesc(Long userId);
+
     /**
      * Busca todas as avaliações de um usuário ordenadas por data
      */
@@ -66,6 +71,12 @@ public interface RiskAssessmentRepository extends JpaRepository<RiskAssessment,
     @Query("SELECT ra FROM RiskAssessment ra WHERE ra.validUntil IS NOT NULL AND ra.validUntil <= :cutoffDate AND ra.isActive = true")
     List<RiskAssessment> findAssessmentsNeedingRenewal(@Param("cutoffDate") LocalDateTime cutoffDate);
 
+    /**
+     * Busca avaliações ativas com saldo líquido abaixo do valor informado (usa o índice de saldo líquido)
+     */
+    @Query("SELECT ra FROM RiskAssessment ra WHERE ra.financialIndicators.netBalance < :netBalance AND ra.isActive = true")
+    Page<RiskAssessment> findActiveByNetBalanceBelow(@Param("netBalance") Double netBalance, Pageable pageable);
+
     /**
      * Busca avaliações com filtros
      */
@@ -108,6 +119,17 @@ public interface RiskAssessmentRepository extends JpaRepository<RiskAssessment,
            "NOT EXISTS (SELECT ra FROM RiskAssessment ra WHERE ra.user = u AND ra.assessmentDate >= :cutoffDate AND ra.isActive = true)")
     List<User> findUsersNeedingNewAssessment(@Param("cutoffDate") LocalDateTime cutoffDate);
 
+    /**
+     * Busca a próxima página de IDs de usuários que precisam de nova avaliação, depois do ID informado
+     * (paginação por chave, sem OFFSET)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isActive = true AND u.id > :afterId AND " +
+           "NOT EXISTS (SELECT ra FROM RiskAssessment ra WHERE ra.user = u AND ra.assessmentDate >= :cutoffDate AND ra.isActive = true) " +
+           "ORDER BY u.id")
+    List<Long> findUserIdsNeedingNewAssessmentAfter(@Param("afterId") Long afterId,
+                                                    @Param("cutoffDate") LocalDateTime cutoffDate,
+                                                    Pageable pageable);
+
     /**
      * Busca avaliações expiradas (método padrão)
      */
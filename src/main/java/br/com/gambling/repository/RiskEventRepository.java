@@ -0,0 +1,44 @@
+package br.com.gambling.repository;
+
+import br.com.gambling.entity.RiskEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório para operações de banco de dados relacionadas aos eventos de risco (outbox)
+ */
+@Repository
+public interface RiskEventRepository extends JpaRepository<RiskEvent, Long> {
+
+    /**
+     * Busca os eventos ainda não entregues e não estacionados, em ordem de registro
+     */
+    @Query("SELECT e FROM RiskEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<RiskEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    /**
+     * Conta os eventos ainda não entregues e não estacionados
+     */
+    @Query("SELECT COUNT(e) FROM RiskEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Conta os eventos estacionados após falhas repetidas na entrega
+     */
+    @Query("SELECT COUNT(e) FROM RiskEvent e WHERE e.processedAt IS NULL AND e.attempts >= :maxAttempts")
+    long countParked(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Remove os eventos entregues antes de uma data
+     */
+    @Modifying
+    @Query("DELETE FROM RiskEvent e WHERE e.processedAt IS NOT NULL AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
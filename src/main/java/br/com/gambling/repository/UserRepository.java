@@ -5,11 +5,14 @@ import br.com.gambling.enums.RiskLevel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -85,4 +88,80 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u.currentRiskLevel, COUNT(u) FROM User u WHERE u.isActive = true GROUP BY u.currentRiskLevel")
     List<Object[]> countUsersByRiskLevel();
-}
\ No newline at end of file
+
+    /**
+     * Busca nível de risco e totais acumulados de vários usuários (id, nível, depósitos, saques, sessões), para a
+     * carga em lote da pontuação incremental
+     */
+    @Query("SELECT u.id, u.currentRiskLevel, u.totalDeposits, u.totalWithdrawals, u.sessionCount FROM User u WHERE u.id IN :ids")
+    List<Object[]> findRiskSeeds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Soma um depósito ao usuário diretamente no banco, sem leitura prévia, mantendo o total de depósitos do dia
+     * (zerado na virada do dia) usado na recuperação dos limites diários.
+     * Os contadores não alteram a versão: as atualizações completas de User gravam apenas as colunas modificadas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE usuarios SET total_depositos = total_depositos + :amount, " +
+                   "depositos_dia = CASE WHEN dia_depositos = CAST(:now AS DATE) THEN COALESCE(depositos_dia, 0) + :amount ELSE :amount END, " +
+                   "dia_depositos = CAST(:now AS DATE), " +
+                   "ultima_atividade = :now, atualizado_em = :now " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementDeposits(@Param("id") Long id, @Param("amount") Double amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Soma um saque ao usuário diretamente no banco, sem leitura prévia
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE usuarios SET total_saques = total_saques + :amount, " +
+                   "ultima_atividade = :now, atualizado_em = :now " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementWithdrawals(@Param("id") Long id, @Param("amount") Double amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Incrementa o contador de sessões do usuário diretamente no banco
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE usuarios SET contador_sessoes = contador_sessoes + 1, " +
+                   "ultima_atividade = :now, atualizado_em = :now " +
+                   "WHERE id = :id", nativeQuery = true)
+    int incrementSessionCount(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Atualiza os limites diários de jogo responsável do usuário (nulo remove o limite)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.dailyDepositLimit = :depositLimit, u.dailyLossLimit = :lossLimit, " +
+           "u.dailySessionMinutesLimit = :sessionMinutesLimit, u.updatedAt = :now, u.version = u.version + 1 " +
+           "WHERE u.id = :id")
+    int updateLimits(@Param("id") Long id, @Param("depositLimit") Double depositLimit, @Param("lossLimit") Double lossLimit,
+                     @Param("sessionMinutesLimit") Integer sessionMinutesLimit, @Param("now") LocalDateTime now);
+
+    /**
+     * Busca limites e depósitos do dia dos usuários com algum limite configurado (carga dos contadores de limites)
+     */
+    @Query("SELECT u.id, u.dailyDepositLimit, u.dailyLossLimit, u.dailySessionMinutesLimit, u.depositsOnDay, u.depositsDay " +
+           "FROM User u WHERE u.dailyDepositLimit IS NOT NULL OR u.dailyLossLimit IS NOT NULL OR u.dailySessionMinutesLimit IS NOT NULL")
+    List<Object[]> findLimitSources();
+
+    /**
+     * Busca limites e depósitos do dia de um usuário
+     */
+    @Query("SELECT u.id, u.dailyDepositLimit, u.dailyLossLimit, u.dailySessionMinutesLimit, u.depositsOnDay, u.depositsDay " +
+           "FROM User u WHERE u.id = :id")
+    List<Object[]> findLimitSourcesById(@Param("id") Long id);
+
+    /**
+     * Atualiza o nível de risco atual do usuário diretamente no banco
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.currentRiskLevel = :riskLevel, " +
+           "u.updatedAt = :now, u.version = u.version + 1 " +
+           "WHERE u.id = :id")
+    int updateCurrentRiskLevel(@Param("id") Long id, @Param("riskLevel") RiskLevel riskLevel, @Param("now") LocalDateTime now);
+}
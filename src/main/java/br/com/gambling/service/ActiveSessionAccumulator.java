@@ -0,0 +1,447 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.GamblingSessionResponseDto;
+import br.com.gambling.entity.GamblingSession;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.repository.GamblingSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Acumulador em memória das apostas e ganhos das sessões ativas (write-behind).
+ *
+ * As apostas são somadas em contadores primitivos por sessão e as sessões com alterações
+ * pendentes são gravadas no banco em lote, em intervalo configurável e ao finalizar a sessão.
+ * Cada evento é registrado no {@link SessionEventJournal} antes de ser confirmado, para que
+ * os valores ainda não gravados sejam recuperados após uma queda. Uma sessão finalizada deixa um marcador
+ * fechado por alguns instantes, para que eventos ainda em trânsito (pipeline, canais) não recriem os contadores
+ * antes de a finalização ser gravada no banco.
+ */
+@Component
+public class ActiveSessionAccumulator {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveSessionAccumulator.class);
+
+    /**
+     * Tempo em que o marcador de uma sessão finalizada é mantido; bem acima da duração da transação de finalização
+     */
+    private static final long CLOSED_RETENTION_MILLIS = 60_000L;
+
+    private final Map<Long, SessionCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Leitura: registro de um evento; escrita: checkpoint do diário e coleta dos contadores
+     */
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GamblingSessionRepository gamblingSessionRepository;
+
+    @Autowired
+    private SessionEventJournal sessionEventJournal;
+
+    @Value("${gambling.sessions.write-behind.enabled:true}")
+    private boolean enabled;
+
+    public ActiveSessionAccumulator(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra uma aposta em memória; retorna false se a sessão não estiver ativa
+     */
+    public boolean addBet(Long sessionId, double amount) {
+        return record(sessionId, SessionEventType.BET, amount);
+    }
+
+    /**
+     * Registra um ganho em memória; retorna false se a sessão não estiver ativa
+     */
+    public boolean addWin(Long sessionId, double amount) {
+        return record(sessionId, SessionEventType.WIN, amount);
+    }
+
+    /**
+     * Registra o evento em memória e no diário sem aguardar a confirmação em disco;
+     * retorna a sequência do diário ou -1 se a sessão não estiver ativa
+     */
+    public long append(Long sessionId, SessionEventType type, double amount) {
+        SessionCounters sessionCounters = resolve(sessionId);
+        if (sessionCounters == null) {
+            return -1L;
+        }
+        flushLock.readLock().lock();
+        try {
+            return sessionCounters.record(sessionEventJournal, type, amount);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que os eventos registrados até a sequência informada estejam em disco
+     */
+    public void awaitDurable(long sequence) {
+        sessionEventJournal.awaitDurable(sequence);
+    }
+
+    /**
+     * Verifica se o instante do evento (epoch millis sem fuso, como em {@link SessionEventBinaryFormat}) não é
+     * anterior ao início da sessão (sessões desconhecidas são aceitas aqui)
+     */
+    public boolean acceptsTimestamp(Long sessionId, long timestampMillis) {
+        if (timestampMillis == SessionEventBinaryFormat.NO_TIMESTAMP) {
+            return true;
+        }
+        SessionCounters sessionCounters = resolve(sessionId);
+        return sessionCounters == null || timestampMillis >= sessionCounters.sessionStartMillis;
+    }
+
+    /**
+     * Soma ao DTO os valores ainda não gravados da sessão (inclusive os de uma gravação em andamento), para que
+     * leituras vejam os totais correntes
+     */
+    public void applyPendingTotals(GamblingSessionResponseDto dto) {
+        SessionCounters sessionCounters = counters.get(dto.getId());
+        if (sessionCounters != null) {
+            sessionCounters.overlay(dto);
+        }
+    }
+
+    /**
+     * Grava os valores pendentes da sessão e deixa de acumulá-la em memória (usado ao finalizar a sessão); os
+     * contadores ficam fechados, rejeitando novos eventos, até serem descartados pela gravação em lote
+     */
+    public synchronized void flushSession(Long sessionId) {
+        SessionCounters sessionCounters = counters.computeIfAbsent(sessionId, SessionCounters::new);
+        PendingTotals pending = sessionCounters.close();
+        if (pending != null) {
+            write(Map.of(sessionId, pending));
+        }
+    }
+
+    /**
+     * Grava em lote todas as sessões com valores pendentes
+     */
+    @Scheduled(fixedDelayString = "${gambling.sessions.write-behind.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, PendingTotals> drained = new HashMap<>();
+        long checkpoint;
+        flushLock.writeLock().lock();
+        try {
+            checkpoint = sessionEventJournal.checkpoint();
+            long closedBefore = System.currentTimeMillis() - CLOSED_RETENTION_MILLIS;
+            for (SessionCounters sessionCounters : counters.values()) {
+                PendingTotals pending = sessionCounters.drain();
+                if (pending != null) {
+                    drained.put(sessionCounters.sessionId, pending);
+                } else if (sessionCounters.isClosedBefore(closedBefore)) {
+                    counters.remove(sessionCounters.sessionId, sessionCounters);
+                }
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        try {
+            if (!drained.isEmpty()) {
+                write(drained);
+            }
+            sessionEventJournal.truncateBefore(checkpoint);
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} sessões acumuladas; valores mantidos em memória", drained.size(), e);
+        }
+    }
+
+    /**
+     * Reaplica ao banco os eventos do diário que não chegaram a ser gravados antes da última parada
+     */
+    public synchronized void recoverFromJournal() {
+        if (!sessionEventJournal.isEnabled()) {
+            return;
+        }
+        Set<Long> journaledSessions = new HashSet<>();
+        sessionEventJournal.replay((sequence, type, sessionId, amount, timestampMillis) -> journaledSessions.add(sessionId));
+
+        Map<Long, Long> appliedSequences = new HashMap<>();
+        gamblingSessionRepository.findAllById(journaledSessions)
+                .forEach(session -> appliedSequences.put(session.getId(), session.getJournalSequence()));
+
+        Map<Long, SessionCounters> recovered = new HashMap<>();
+        long[] lastSequence = {gamblingSessionRepository.findMaxJournalSequence()};
+        sessionEventJournal.replay((sequence, type, sessionId, amount, timestampMillis) -> {
+            lastSequence[0] = Math.max(lastSequence[0], sequence);
+            Long applied = appliedSequences.get(sessionId);
+            if (applied == null || sequence <= applied) {
+                return;
+            }
+            SessionCounters sessionCounters = recovered.computeIfAbsent(sessionId, SessionCounters::new);
+            if (type == SessionEventType.BET) {
+                sessionCounters.addBet(amount, sequence, timestampMillis);
+            } else {
+                sessionCounters.addWin(amount, sequence, timestampMillis);
+            }
+        });
+
+        Map<Long, PendingTotals> pendingBySession = new HashMap<>();
+        recovered.forEach((sessionId, sessionCounters) -> pendingBySession.put(sessionId, sessionCounters.drain()));
+        if (!pendingBySession.isEmpty()) {
+            write(pendingBySession);
+            log.info("Diário de sessões recuperado: {} sessões atualizadas", pendingBySession.size());
+        }
+        int discarded = journaledSessions.size() - appliedSequences.size();
+        if (discarded > 0) {
+            log.warn("Diário de sessões continha eventos de {} sessões inexistentes, descartados", discarded);
+        }
+        sessionEventJournal.start(lastSequence[0]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Registra o evento no diário e nos contadores da sessão, aguardando a confirmação em disco
+     */
+    private boolean record(Long sessionId, SessionEventType type, double amount) {
+        long sequence = append(sessionId, type, amount);
+        if (sequence < 0) {
+            return false;
+        }
+        sessionEventJournal.awaitDurable(sequence);
+        return true;
+    }
+
+    /**
+     * Obtém os contadores da sessão, carregando-a do banco no primeiro acesso; uma sessão finalizada há pouco
+     * retorna o marcador fechado, que rejeita o evento
+     */
+    private SessionCounters resolve(Long sessionId) {
+        SessionCounters sessionCounters = counters.get(sessionId);
+        if (sessionCounters != null) {
+            return sessionCounters;
+        }
+        GamblingSession session = gamblingSessionRepository.findById(sessionId)
+                .filter(GamblingSession::isSessionActive)
+                .orElse(null);
+        if (session == null) {
+            return null;
+        }
+        SessionCounters created = new SessionCounters(sessionId);
+        if (session.getSessionStart() != null) {
+            created.sessionStartMillis = SessionEventBinaryFormat.toEpochMillis(session.getSessionStart());
+        }
+        SessionCounters existing = counters.putIfAbsent(sessionId, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Soma os totais pendentes às sessões no banco em uma única transação; em caso de falha devolve-os aos
+     * contadores. Até o commit os totais seguem somados às leituras como gravação em andamento.
+     */
+    private void write(Map<Long, PendingTotals> pendingBySession) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                pendingBySession.forEach((sessionId, pending) -> gamblingSessionRepository.incrementEventTotals(
+                        sessionId, pending.betAmount(), pending.betCount(), pending.maxBetAmount(),
+                        pending.winAmount(), pending.journalSequence(), pending.dayLoss(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(pending.lossAtMillis()), ZoneId.systemDefault())));
+            });
+        } catch (RuntimeException e) {
+            pendingBySession.forEach((sessionId, pending) -> counters
+                    .computeIfAbsent(sessionId, SessionCounters::new)
+                    .restore(pending));
+            throw e;
+        }
+        pendingBySession.forEach((sessionId, pending) -> {
+            SessionCounters sessionCounters = counters.get(sessionId);
+            if (sessionCounters != null) {
+                sessionCounters.written(pending);
+            }
+        });
+    }
+
+    /**
+     * Totais pendentes de gravação de uma sessão; {@code dayLoss} é a perda dos eventos do dia do último evento
+     * ({@code lossAtMillis}), para a perda diária ser gravada no dia em que os eventos ocorreram
+     */
+    private record PendingTotals(double betAmount, int betCount, double maxBetAmount, double winAmount,
+                                 long journalSequence, double dayLoss, long lossAtMillis) {
+    }
+
+    /**
+     * Contadores primitivos de uma sessão ativa
+     */
+    private static final class SessionCounters {
+
+        private final long sessionId;
+        private volatile long sessionStartMillis = Long.MIN_VALUE;
+        private double betAmount;
+        private int betCount;
+        private double maxBetAmount;
+        private double winAmount;
+        private long journalSequence;
+        private double dayLoss;
+        private long lossAtMillis = Long.MIN_VALUE;
+        private long lossDayStartMillis = Long.MIN_VALUE;
+        private long lossDayEndMillis = Long.MIN_VALUE;
+        private boolean dirty;
+        private PendingTotals inFlight; // Drenados e ainda não confirmados no banco
+        private boolean closed;
+        private long closedAtMillis;
+
+        SessionCounters(long sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        /**
+         * Anexa o evento ao diário e o soma aos contadores; retorna a sequência ou -1 se a sessão foi encerrada
+         */
+        synchronized long record(SessionEventJournal journal, SessionEventType type, double amount) {
+            if (closed) {
+                return -1L;
+            }
+            long sequence = journal.append(type, sessionId, amount);
+            long now = System.currentTimeMillis();
+            if (type == SessionEventType.BET) {
+                addBet(amount, sequence, now);
+            } else {
+                addWin(amount, sequence, now);
+            }
+            return sequence;
+        }
+
+        synchronized void addBet(double amount, long sequence, long atMillis) {
+            betAmount += amount;
+            betCount++;
+            if (amount > maxBetAmount) {
+                maxBetAmount = amount;
+            }
+            journalSequence = Math.max(journalSequence, sequence);
+            addLoss(amount, atMillis);
+            dirty = true;
+        }
+
+        synchronized void addWin(double amount, long sequence, long atMillis) {
+            winAmount += amount;
+            journalSequence = Math.max(journalSequence, sequence);
+            addLoss(-amount, atMillis);
+            dirty = true;
+        }
+
+        /**
+         * Soma à perda do dia do evento; um evento de um novo dia recomeça a perda, um de dia anterior não conta
+         */
+        private void addLoss(double loss, long atMillis) {
+            if (atMillis >= lossDayEndMillis) {
+                startLossDay(atMillis);
+                dayLoss = 0.0;
+            } else if (atMillis < lossDayStartMillis) {
+                return;
+            }
+            dayLoss += loss;
+            lossAtMillis = Math.max(lossAtMillis, atMillis);
+        }
+
+        private void startLossDay(long atMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate day = Instant.ofEpochMilli(atMillis).atZone(zone).toLocalDate();
+            lossDayStartMillis = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            lossDayEndMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        synchronized PendingTotals drain() {
+            if (!dirty) {
+                return null;
+            }
+            PendingTotals pending = new PendingTotals(betAmount, betCount, maxBetAmount, winAmount, journalSequence,
+                    dayLoss, lossAtMillis);
+            betAmount = 0.0;
+            betCount = 0;
+            maxBetAmount = 0.0;
+            winAmount = 0.0;
+            dayLoss = 0.0;
+            dirty = false;
+            inFlight = pending;
+            return pending;
+        }
+
+        /**
+         * Descarta a gravação em andamento após o commit, quando o banco já tem os totais
+         */
+        synchronized void written(PendingTotals pending) {
+            if (inFlight == pending) {
+                inFlight = null;
+            }
+        }
+
+        synchronized PendingTotals close() {
+            if (!closed) {
+                closed = true;
+                closedAtMillis = System.currentTimeMillis();
+            }
+            return drain();
+        }
+
+        synchronized boolean isClosedBefore(long millis) {
+            return closed && !dirty && inFlight == null && closedAtMillis < millis;
+        }
+
+        synchronized void restore(PendingTotals pending) {
+            if (inFlight == pending) {
+                inFlight = null;
+            }
+            betAmount += pending.betAmount();
+            betCount += pending.betCount();
+            maxBetAmount = Math.max(maxBetAmount, pending.maxBetAmount());
+            winAmount += pending.winAmount();
+            journalSequence = Math.max(journalSequence, pending.journalSequence());
+            addLoss(pending.dayLoss(), pending.lossAtMillis());
+            dirty = true;
+        }
+
+        synchronized void overlay(GamblingSessionResponseDto dto) {
+            if (!dirty && inFlight == null) {
+                return;
+            }
+            if (inFlight != null) {
+                dto.setTotalBetAmount(dto.getTotalBetAmount() + inFlight.betAmount());
+                dto.setBetCount(dto.getBetCount() + inFlight.betCount());
+                dto.setMaxBetAmount(Math.max(dto.getMaxBetAmount(), inFlight.maxBetAmount()));
+                dto.setTotalWinAmount(dto.getTotalWinAmount() + inFlight.winAmount());
+            }
+            dto.setTotalBetAmount(dto.getTotalBetAmount() + betAmount);
+            dto.setBetCount(dto.getBetCount() + betCount);
+            dto.setMaxBetAmount(Math.max(dto.getMaxBetAmount(), maxBetAmount));
+            dto.setTotalWinAmount(dto.getTotalWinAmount() + winAmount);
+            dto.setAverageBetAmount(dto.getBetCount() > 0 ? dto.getTotalBetAmount() / dto.getBetCount() : 0.0);
+        }
+    }
+}
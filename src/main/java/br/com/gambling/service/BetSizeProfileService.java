@@ -0,0 +1,285 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.BetSizeProfileDto;
+import br.com.gambling.entity.BetSizeProfile;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.repository.BetSizeProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Perfil de valores apostados por usuário, para detectar apostas fora do padrão do próprio usuário.
+ *
+ * Cada aposta aceita atualiza um {@link BetSizeSketch} do usuário (algumas dezenas de bytes) e, quando o
+ * perfil já tem apostas suficientes, é comparada antes com ele: é anômala se atingir uma margem configurada
+ * acima do p99 do usuário (só superar o p99 marcaria cerca de 1% das apostas, e quase toda sessão longa) ou
+ * um múltiplo configurado da sua mediana. As apostas anômalas são contadas por sessão e viram
+ * a variável {@code SESSION_ANOMALOUS_BETS} das regras de risco. Os perfis alterados são gravados em lote
+ * periodicamente e no desligamento, carregados sob demanda e descartados da memória quando ociosos.
+ */
+@Service
+public class BetSizeProfileService implements UserActivityListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BetSizeProfileService.class);
+
+    private static final String UPDATE_PROFILE = "UPDATE perfis_valor_aposta SET esboco = ?, total_apostas = ?, " +
+            "atualizado_em = ? WHERE id_usuario = ?";
+
+    private static final String INSERT_PROFILE = "INSERT INTO perfis_valor_aposta (esboco, total_apostas, " +
+            "atualizado_em, id_usuario) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private BetSizeProfileRepository betSizeProfileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.risk.bet-size.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.risk.bet-size.min-bets:20}")
+    private int minBets;
+
+    @Value("${gambling.risk.bet-size.escalation-factor:5.0}")
+    private double escalationFactor;
+
+    @Value("${gambling.risk.bet-size.p99-margin:2.0}")
+    private double p99Margin;
+
+    @Value("${gambling.risk.bet-size.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final Map<Long, UserProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> sessionAnomalies = new ConcurrentHashMap<>();
+
+    public BetSizeProfileService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void register() {
+        userFeatureStore.addListener(this);
+    }
+
+    @Override
+    public void onEvent(Long sessionId, Long userId, SessionEventType type, double amount) {
+        if (!enabled || type != SessionEventType.BET) {
+            return;
+        }
+        boolean anomalous = withProfile(userId, profile -> profile.record(amount, minBets, p99Margin, escalationFactor));
+        if (anomalous) {
+            sessionAnomalies.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onSessionEnd(Long sessionId, Long userId, double netResult) {
+        sessionAnomalies.remove(sessionId);
+    }
+
+    /**
+     * Apostas anômalas registradas até agora na sessão
+     */
+    public int countAnomalousBets(Long sessionId) {
+        AtomicInteger anomalies = sessionAnomalies.get(sessionId);
+        return anomalies != null ? anomalies.get() : 0;
+    }
+
+    /**
+     * Se a aposta seria anômala para o perfil atual do usuário, sem registrá-la
+     */
+    public boolean isAnomalous(Long userId, double amount) {
+        return enabled && userId != null
+                && withProfile(userId, profile -> profile.isAnomalous(amount, minBets, p99Margin, escalationFactor));
+    }
+
+    /**
+     * Se o perfil do usuário já tem as apostas mínimas para detectar anomalias ({@code min-bets})
+     */
+    public boolean isProfileReady(Long userId) {
+        return enabled && withProfile(userId, profile -> profile.sketch.count() >= minBets);
+    }
+
+    /**
+     * Quantis dos valores apostados pelo usuário
+     */
+    public Optional<BetSizeProfileDto> findProfile(Long userId) {
+        return Optional.ofNullable(withProfile(userId, profile -> {
+            if (profile.sketch.count() == 0) {
+                return null;
+            }
+            BetSizeProfileDto dto = new BetSizeProfileDto();
+            dto.setUserId(userId);
+            dto.setBetCount(profile.sketch.count());
+            dto.setMedian(profile.sketch.quantile(0.5));
+            dto.setP90(profile.sketch.quantile(0.9));
+            dto.setP99(profile.sketch.quantile(0.99));
+            dto.setRelativeAccuracy(BetSizeSketch.RELATIVE_ACCURACY);
+            dto.setSketchBytes(profile.sketch.encode().length);
+            dto.setDetectionActive(enabled && profile.sketch.count() >= minBets);
+            return dto;
+        }));
+    }
+
+    /**
+     * Grava em lote os perfis alterados e descarta da memória os ociosos já gravados
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.bet-size.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<PendingWrite> pending = new ArrayList<>();
+        profiles.forEach((userId, profile) -> {
+            synchronized (profile) {
+                if (profile.dirty) {
+                    pending.add(new PendingWrite(userId, profile, profile.sketch.encode(), profile.sketch.count()));
+                    profile.dirty = false;
+                } else if (profile.lastAccess < idleBefore) {
+                    profile.evicted = true;
+                    profiles.remove(userId, profile);
+                }
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (PendingWrite write : pending) {
+            Object[] row = {write.sketch, write.betCount, now, write.userId};
+            (write.profile.persisted ? updates : inserts).add(row);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_PROFILE, updates);
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_PROFILE, inserts);
+                }
+            });
+            pending.forEach(write -> write.profile.persisted = true);
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} perfis de valor de aposta; nova tentativa no próximo ciclo", pending.size(), e);
+            pending.forEach(write -> {
+                synchronized (write.profile) {
+                    write.profile.dirty = true;
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private <T> T withProfile(Long userId, Function<UserProfile, T> action) {
+        while (true) {
+            UserProfile profile = profiles.get(userId);
+            if (profile == null) {
+                UserProfile loaded = load(userId);
+                profile = profiles.putIfAbsent(userId, loaded);
+                if (profile == null) {
+                    profile = loaded;
+                }
+            }
+            synchronized (profile) {
+                if (!profile.evicted) {
+                    profile.lastAccess = System.currentTimeMillis();
+                    return action.apply(profile);
+                }
+            }
+        }
+    }
+
+    private UserProfile load(Long userId) {
+        Optional<BetSizeProfile> stored = transactionTemplate.execute(status -> betSizeProfileRepository.findById(userId));
+        if (stored == null || stored.isEmpty()) {
+            return new UserProfile(new BetSizeSketch(), false);
+        }
+        try {
+            return new UserProfile(BetSizeSketch.decode(stored.get().getSketch()), true);
+        } catch (RuntimeException e) {
+            log.warn("Perfil de valor de aposta do usuário {} ilegível; reiniciando o perfil", userId, e);
+            UserProfile profile = new UserProfile(new BetSizeSketch(), true);
+            profile.dirty = true;
+            return profile;
+        }
+    }
+
+    /**
+     * Perfil em memória de um usuário; acessado sob o monitor do próprio objeto
+     */
+    private static final class UserProfile {
+
+        private final BetSizeSketch sketch;
+        private boolean persisted;
+        private boolean dirty;
+        private boolean evicted;
+        private long lastAccess = System.currentTimeMillis();
+
+        UserProfile(BetSizeSketch sketch, boolean persisted) {
+            this.sketch = sketch;
+            this.persisted = persisted;
+        }
+
+        /**
+         * Compara a aposta com o perfil atual e a registra, retornando se é anômala
+         */
+        boolean record(double amount, int minBets, double p99Margin, double escalationFactor) {
+            boolean anomalous = isAnomalous(amount, minBets, p99Margin, escalationFactor);
+            sketch.add(amount);
+            dirty = true;
+            return anomalous;
+        }
+
+        boolean isAnomalous(double amount, int minBets, double p99Margin, double escalationFactor) {
+            return sketch.count() >= minBets && amount > 0
+                    && (amount >= p99Margin * sketch.quantile(0.99) || amount >= escalationFactor * sketch.quantile(0.5));
+        }
+    }
+
+    /**
+     * Perfil a gravar, com o esboço serializado no momento da coleta
+     */
+    private static final class PendingWrite {
+
+        private final Long userId;
+        private final UserProfile profile;
+        private final byte[] sketch;
+        private final long betCount;
+
+        PendingWrite(Long userId, UserProfile profile, byte[] sketch, long betCount) {
+            this.userId = userId;
+            this.profile = profile;
+            this.sketch = sketch;
+            this.betCount = betCount;
+        }
+    }
+}
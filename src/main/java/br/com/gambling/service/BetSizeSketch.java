@@ -0,0 +1,207 @@
+package br.com.gambling.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Esboço de quantis dos valores apostados por um usuário, com erro relativo limitado e memória constante.
+ *
+ * Cada valor cai no balde {@code ceil(log(x) / log(GAMMA))}; o valor representativo de um balde difere de
+ * qualquer valor nele em no máximo {@link #RELATIVE_ACCURACY}. Os baldes são contíguos a partir de
+ * {@code offset} e limitados a {@link #MAX_BINS}: quando a faixa de valores excede esse limite, os baldes
+ * mais baixos são fundidos, preservando os quantis altos (p90, p99) usados na detecção. Não é seguro
+ * para acesso concorrente; o chamador sincroniza.
+ *
+ * Formato serializado: versão (1 byte), offset e número de baldes (varint com sinal e varint), seguidos
+ * das contagens em varint; um perfil típico ocupa poucas dezenas de bytes.
+ */
+final class BetSizeSketch {
+
+    static final double RELATIVE_ACCURACY = 0.05;
+    static final int MAX_BINS = 64;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte VERSION = 1;
+    private static final int INITIAL_BINS = 8;
+
+    private int offset;
+    private int[] bins = new int[0];
+    private int binCount;
+    private long count;
+
+    /**
+     * Balde de um valor positivo
+     */
+    static int indexOf(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * Valor representativo de um balde
+     */
+    static double valueOf(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Registra um valor apostado (valores não positivos são ignorados)
+     */
+    void add(double value) {
+        if (!(value > 0)) {
+            return;
+        }
+        int index = indexOf(value);
+        if (binCount == 0) {
+            offset = index;
+            bins = new int[INITIAL_BINS];
+            binCount = 1;
+        } else if (index < offset) {
+            int highest = offset + binCount - 1;
+            if (highest - index + 1 > MAX_BINS) {
+                // Abaixo da faixa representável: soma no balde mais baixo
+                index = offset;
+            } else {
+                shiftRight(offset - index);
+                offset = index;
+            }
+        } else if (index >= offset + binCount) {
+            int newCount = index - offset + 1;
+            if (newCount > MAX_BINS) {
+                collapseLowest(index - MAX_BINS + 1);
+                newCount = MAX_BINS;
+            }
+            ensureCapacity(newCount);
+            binCount = newCount;
+        }
+        bins[index - offset]++;
+        count++;
+    }
+
+    /**
+     * Quantidade de valores registrados
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * Balde do quantil {@code q} (0 a 1); {@link Integer#MIN_VALUE} se vazio
+     */
+    int quantileIndex(double q) {
+        if (count == 0) {
+            return Integer.MIN_VALUE;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long cumulative = 0;
+        for (int bin = 0; bin < binCount; bin++) {
+            cumulative += bins[bin];
+            if (cumulative > rank) {
+                return offset + bin;
+            }
+        }
+        return offset + binCount - 1;
+    }
+
+    /**
+     * Valor aproximado do quantil {@code q} (0 a 1); zero se vazio
+     */
+    double quantile(double q) {
+        return count == 0 ? 0.0 : valueOf(quantileIndex(q));
+    }
+
+    /**
+     * Serializa o esboço no formato compacto
+     */
+    byte[] encode() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(8 + binCount * 2);
+        output.write(VERSION);
+        writeVarLong(output, (offset << 1) ^ (offset >> 31));
+        writeVarLong(output, binCount);
+        for (int bin = 0; bin < binCount; bin++) {
+            writeVarLong(output, bins[bin]);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reconstrói um esboço serializado por {@link #encode()}
+     */
+    static BetSizeSketch decode(byte[] data) {
+        ByteBuffer input = ByteBuffer.wrap(data);
+        if (input.get() != VERSION) {
+            throw new IllegalArgumentException("Versão de esboço de apostas desconhecida");
+        }
+        BetSizeSketch sketch = new BetSizeSketch();
+        int zigzag = (int) readVarLong(input);
+        sketch.offset = (zigzag >>> 1) ^ -(zigzag & 1);
+        sketch.binCount = (int) readVarLong(input);
+        if (sketch.binCount > MAX_BINS) {
+            throw new IllegalArgumentException("Esboço de apostas com baldes demais: " + sketch.binCount);
+        }
+        sketch.bins = new int[Math.max(sketch.binCount, INITIAL_BINS)];
+        for (int bin = 0; bin < sketch.binCount; bin++) {
+            sketch.bins[bin] = (int) readVarLong(input);
+            sketch.count += sketch.bins[bin];
+        }
+        return sketch;
+    }
+
+    private void shiftRight(int shift) {
+        ensureCapacity(binCount + shift);
+        System.arraycopy(bins, 0, bins, shift, binCount);
+        Arrays.fill(bins, 0, shift, 0);
+        binCount += shift;
+    }
+
+    private void collapseLowest(int newOffset) {
+        int shift = newOffset - offset;
+        if (shift >= binCount) {
+            // Todos os baldes atuais ficam abaixo da nova faixa
+            int total = 0;
+            for (int bin = 0; bin < binCount; bin++) {
+                total += bins[bin];
+            }
+            Arrays.fill(bins, 0);
+            bins[0] = total;
+            binCount = 1;
+        } else {
+            int merged = 0;
+            for (int bin = 0; bin <= shift; bin++) {
+                merged += bins[bin];
+            }
+            System.arraycopy(bins, shift, bins, 0, binCount - shift);
+            Arrays.fill(bins, binCount - shift, binCount, 0);
+            bins[0] = merged;
+            binCount -= shift;
+        }
+        offset = newOffset;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bins.length) {
+            bins = Arrays.copyOf(bins, Math.min(MAX_BINS, Math.max(capacity, bins.length * 2)));
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer input) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = input.get();
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint inválido no esboço de apostas");
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.gambling.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Conjunto de usuários bloqueados para apostas, com o fim do bloqueio de cada um, em endereçamento aberto.
+ *
+ * Chaves e valores ficam intercalados em um único {@code long[]} (ID do usuário, fim do bloqueio em epoch
+ * millis), com sondagem linear e remoção por deslocamento para trás, sem objetos por entrada. A consulta é
+ * uma leitura otimista do {@link StampedLock}, sem bloquear, e só repete sob trava de leitura se houve
+ * escrita no meio; as escritas (raras) usam a trava de escrita. IDs de usuário são positivos: 0 marca
+ * posição vazia.
+ */
+final class BettingBlockIndex {
+
+    static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private static final long EMPTY = 0L;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] table;
+    private volatile int size;
+
+    BettingBlockIndex(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(expectedEntries, 8) * 2 - 1) << 1;
+        this.table = new long[capacity * 2];
+    }
+
+    /**
+     * Fim do bloqueio do usuário em epoch millis, ou 0 se ele não está no índice
+     */
+    long blockedUntil(long userId) {
+        long stamp = lock.tryOptimisticRead();
+        long until = find(userId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                until = find(userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return until;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Registra o bloqueio, mantendo o fim mais distante se o usuário já estava bloqueado
+     */
+    void merge(long userId, long until) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(userId);
+            if (table[slot] == userId) {
+                table[slot + 1] = Math.max(table[slot + 1], until);
+            } else {
+                insert(slot, userId, until);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Substitui o fim do bloqueio do usuário
+     */
+    void put(long userId, long until) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(userId);
+            if (table[slot] == userId) {
+                table[slot + 1] = until;
+            } else {
+                insert(slot, userId, until);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(long userId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(userId);
+            if (table[slot] == userId) {
+                delete(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove os bloqueios encerrados até {@code now}, retornando quantos foram removidos
+     */
+    int purgeExpired(long now) {
+        long stamp = lock.writeLock();
+        try {
+            int removed = 0;
+            int slot = 0;
+            while (slot < table.length) {
+                // Após a remoção, a posição recebe outra entrada deslocada e é examinada de novo
+                if (table[slot] != EMPTY && table[slot + 1] <= now) {
+                    delete(slot);
+                    removed++;
+                } else {
+                    slot += 2;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sondagem sem trava; o laço é limitado à capacidade para terminar mesmo lendo uma tabela em alteração
+     */
+    private long find(long userId) {
+        long[] entries = table;
+        int mask = entries.length - 1;
+        int slot = hash(userId) & mask;
+        for (int probes = entries.length >> 1; probes > 0; probes--) {
+            long key = entries[slot];
+            if (key == userId) {
+                return entries[slot + 1];
+            }
+            if (key == EMPTY) {
+                return 0L;
+            }
+            slot = (slot + 2) & mask;
+        }
+        return 0L;
+    }
+
+    /**
+     * Posição da chave ou da primeira posição vazia da sua sequência de sondagem (sob trava de escrita)
+     */
+    private int slotOf(long userId) {
+        int mask = table.length - 1;
+        int slot = hash(userId) & mask;
+        while (table[slot] != EMPTY && table[slot] != userId) {
+            slot = (slot + 2) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, long userId, long until) {
+        table[slot] = userId;
+        table[slot + 1] = until;
+        size++;
+        if (size * 4 > table.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Esvazia a posição e desloca para trás as entradas seguintes da mesma sequência, sem marcadores de remoção
+     */
+    private void delete(int slot) {
+        int mask = table.length - 1;
+        int hole = slot;
+        int next = (hole + 2) & mask;
+        while (table[next] != EMPTY) {
+            int home = hash(table[next]) & mask;
+            // A entrada pode ocupar o buraco se a sua posição ideal não estiver entre o buraco e ela
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                table[hole + 1] = table[next + 1];
+                hole = next;
+            }
+            next = (next + 2) & mask;
+        }
+        table[hole] = EMPTY;
+        table[hole + 1] = 0L;
+        size--;
+    }
+
+    private void resize() {
+        long[] previous = table;
+        table = new long[previous.length * 2];
+        for (int slot = 0; slot < previous.length; slot += 2) {
+            if (previous[slot] != EMPTY) {
+                int target = slotOf(previous[slot]);
+                table[target] = previous[slot];
+                table[target + 1] = previous[slot + 1];
+            }
+        }
+    }
+
+    private static int hash(long userId) {
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) << 1;
+    }
+}
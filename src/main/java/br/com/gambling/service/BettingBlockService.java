@@ -0,0 +1,182 @@
+package br.com.gambling.service;
+
+import br.com.gambling.exception.BettingBlockedException;
+import br.com.gambling.repository.InterventionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aplicação dos bloqueios temporários (intervenções TEMPORARY_BLOCK executadas) na abertura de sessões e nas apostas.
+ *
+ * Os usuários bloqueados ficam em um {@link BettingBlockIndex} em memória com o fim de cada bloqueio
+ * ({@code expiresAt} da intervenção; sem expiração, até o cancelamento), de modo que a verificação no caminho
+ * das apostas é uma única consulta ao índice. O índice é reconstruído na inicialização com uma consulta e
+ * acompanha, após o commit, a execução (manual ou pelo {@link InterventionScheduler}) e o cancelamento das
+ * intervenções; bloqueios encerrados deixam de valer no horário e são descartados periodicamente.
+ */
+@Service
+public class BettingBlockService {
+
+    private static final Logger log = LoggerFactory.getLogger(BettingBlockService.class);
+
+    @Autowired
+    private InterventionRepository interventionRepository;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.betting-block.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.betting-block.expected-users:1024}")
+    private int expectedUsers;
+
+    private BettingBlockIndex index;
+
+    public BettingBlockService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Também chamado após o commit de outra transação: lê sempre em uma transação própria
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reconstrói o índice com os bloqueios vigentes
+     */
+    @PostConstruct
+    public void load() {
+        index = new BettingBlockIndex(expectedUsers);
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> rows = transactionTemplate.execute(status -> interventionRepository.findActiveBlocks(LocalDateTime.now()));
+        rows.forEach(row -> index.merge((Long) row[0], toMillis((LocalDateTime) row[1])));
+        log.info("Índice de bloqueios de apostas carregado com {} usuários bloqueados", index.size());
+    }
+
+    /**
+     * Rejeita o usuário se ele tem um bloqueio vigente
+     */
+    public void checkUser(Long userId) {
+        long until = activeBlockEnd(userId);
+        if (until > 0L) {
+            throw new BettingBlockedException(userId, toDateTime(until));
+        }
+    }
+
+    /**
+     * Rejeita a aposta se o dono da sessão tem um bloqueio vigente
+     */
+    public void checkSession(Long sessionId) {
+        if (!index.isEmpty()) {
+            checkUser(userFeatureStore.findUserId(sessionId));
+        }
+    }
+
+    /**
+     * Indica se o dono da sessão tem um bloqueio vigente (só resolve o usuário se há algum bloqueio no índice)
+     */
+    public boolean isSessionBlocked(Long sessionId) {
+        return !index.isEmpty() && activeBlockEnd(userFeatureStore.findUserId(sessionId)) > 0L;
+    }
+
+    /**
+     * Motivo de rejeição de uma aposta em lote, ou {@code null} se o usuário não está bloqueado
+     */
+    public String rejectionReason(Long userId) {
+        long until = activeBlockEnd(userId);
+        return until > 0L ? new BettingBlockedException(userId, toDateTime(until)).getMessage() : null;
+    }
+
+    /**
+     * Registra o bloqueio de um TEMPORARY_BLOCK executado, após o commit da transação corrente
+     */
+    public void block(Long userId, LocalDateTime expiresAt) {
+        if (enabled) {
+            long until = toMillis(expiresAt);
+            TransactionCallbacks.afterCommit(() -> index.merge(userId, until));
+        }
+    }
+
+    /**
+     * Recalcula o bloqueio do usuário a partir das intervenções, após o commit (usado ao cancelar um TEMPORARY_BLOCK)
+     */
+    public void refreshUser(Long userId) {
+        if (enabled && index.blockedUntil(userId) != 0L) {
+            TransactionCallbacks.afterCommit(() -> {
+                List<LocalDateTime> blocks = transactionTemplate.execute(status ->
+                        interventionRepository.findActiveBlocksByUser(userId, LocalDateTime.now()));
+                long until = blocks.stream().mapToLong(BettingBlockService::toMillis).max().orElse(0L);
+                if (until > 0L) {
+                    index.put(userId, until);
+                } else {
+                    index.remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Registra os bloqueios entre intervenções executadas em lote por JDBC (o tipo não é conhecido de antemão)
+     */
+    public void refreshInterventions(Collection<Long> interventionIds) {
+        if (enabled && !interventionIds.isEmpty()) {
+            List<Object[]> rows = transactionTemplate.execute(status ->
+                    interventionRepository.findActiveBlocksByIds(interventionIds, LocalDateTime.now()));
+            rows.forEach(row -> index.merge((Long) row[0], toMillis((LocalDateTime) row[1])));
+        }
+    }
+
+    /**
+     * Quantidade de usuários no índice de bloqueios
+     */
+    public int countBlocked() {
+        return index.size();
+    }
+
+    /**
+     * Descarta do índice os bloqueios já encerrados
+     */
+    @Scheduled(fixedDelayString = "${gambling.betting-block.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int removed = index.purgeExpired(System.currentTimeMillis());
+        if (removed > 0) {
+            log.debug("{} bloqueios de apostas encerrados removidos do índice", removed);
+        }
+    }
+
+    /**
+     * Fim do bloqueio vigente do usuário em epoch millis, ou 0 se não há bloqueio
+     */
+    private long activeBlockEnd(Long userId) {
+        if (userId == null || index.isEmpty()) {
+            return 0L;
+        }
+        long until = index.blockedUntil(userId);
+        return until > System.currentTimeMillis() ? until : 0L;
+    }
+
+    private static long toMillis(LocalDateTime expiresAt) {
+        return expiresAt != null ? expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : BettingBlockIndex.NO_EXPIRY;
+    }
+
+    private static LocalDateTime toDateTime(long until) {
+        return until != BettingBlockIndex.NO_EXPIRY ? LocalDateTime.ofInstant(Instant.ofEpochMilli(until), ZoneId.systemDefault()) : null;
+    }
+}
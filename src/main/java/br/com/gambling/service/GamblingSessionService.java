@@ -2,19 +2,32 @@ package br.com.gambling.service;
 
 import br.com.gambling.dto.GamblingSessionRequestDto;
 import br.com.gambling.dto.GamblingSessionResponseDto;
+import br.com.gambling.dto.SessionEventBatchResponseDto;
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.dto.SessionEventResultDto;
 import br.com.gambling.entity.GamblingSession;
 import br.com.gambling.entity.User;
+import br.com.gambling.enums.IdempotencyScope;
+import br.com.gambling.enums.RiskFlag;
+import br.com.gambling.enums.RiskRuleScope;
+import br.com.gambling.enums.SessionEventType;
 import br.com.gambling.repository.GamblingSessionRepository;
 import br.com.gambling.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para operações relacionadas às sessões de apostas
@@ -29,10 +42,43 @@ public class GamblingSessionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActiveSessionAccumulator activeSessionAccumulator;
+
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private SessionCommandExecutor sessionCommandExecutor;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private RiskRuleEngine riskRuleEngine;
+
+    @Autowired
+    private RiskFeatureExtractor riskFeatureExtractor;
+
+    @Autowired
+    private LossChasingDetector lossChasingDetector;
+
+    @Autowired
+    private BettingBlockService bettingBlockService;
+
+    @Autowired
+    private UserLimitService userLimitService;
+
     /**
-     * Cria uma nova sessão de apostas
+     * Cria uma nova sessão de apostas (rejeitada se o usuário tem bloqueio temporário vigente ou esgotou o tempo
+     * diário em sessões)
      */
     public Optional<GamblingSessionResponseDto> createSession(GamblingSessionRequestDto sessionRequestDto) {
+        bettingBlockService.checkUser(sessionRequestDto.getUserId());
+        userLimitService.checkSessionStart(sessionRequestDto.getUserId());
         return userRepository.findById(sessionRequestDto.getUserId())
                 .map(user -> {
                     GamblingSession session = new GamblingSession();
@@ -44,13 +90,22 @@ public class GamblingSessionService {
                     GamblingSession savedSession = gamblingSessionRepository.save(session);
                     
                     // Incrementa contador de sessões do usuário
-                    user.incrementSessionCount();
-                    userRepository.save(user);
+                    userRepository.incrementSessionCount(user.getId(), LocalDateTime.now());
+                    userFeatureStore.recordSessionStart(savedSession.getId(), user.getId(), savedSession.getSessionStart(),
+                            savedSession.getGameType());
 
                     return mapToResponseDto(savedSession);
                 });
     }
 
+    /**
+     * Cria uma nova sessão de apostas uma única vez por chave de idempotência; repetições retornam a sessão já criada
+     */
+    public Optional<GamblingSessionResponseDto> createSession(GamblingSessionRequestDto sessionRequestDto, String idempotencyKey) {
+        return idempotencyService.execute(IdempotencyScope.SESSION_CREATE, idempotencyKey,
+                () -> createSession(sessionRequestDto), GamblingSessionResponseDto::getId, this::findById);
+    }
+
     /**
      * Busca uma sessão por ID
      */
@@ -61,46 +116,179 @@ public class GamblingSessionService {
     }
 
     /**
-     * Finaliza uma sessão de apostas
+     * Finaliza uma sessão de apostas, repetindo a gravação em caso de conflito com apostas concorrentes
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<GamblingSessionResponseDto> endSession(Long id) {
-        return gamblingSessionRepository.findById(id)
-                .map(session -> {
-                    session.endSession();
-                    session.calculateNetResult();
-                    
-                    // Analisa indicadores de risco
-                    analyzeRiskIndicators(session);
-                    
-                    GamblingSession savedSession = gamblingSessionRepository.save(session);
-                    return mapToResponseDto(savedSession);
-                });
+        return sessionCommandExecutor.execute(id, () -> {
+            // Grava as apostas ainda acumuladas em memória antes de calcular o resultado
+            activeSessionAccumulator.flushSession(id);
+
+            return optimisticRetryExecutor.execute(() -> gamblingSessionRepository.findById(id)
+                    .map(session -> {
+                        // Só a primeira finalização é registrada nas janelas móveis e nos assinantes
+                        boolean wasActive = session.isSessionActive();
+                        session.endSession();
+                        session.calculateNetResult();
+
+                        // Analisa indicadores de risco
+                        analyzeRiskIndicators(session);
+
+                        GamblingSession savedSession = gamblingSessionRepository.saveAndFlush(session);
+                        if (wasActive) {
+                            userFeatureStore.recordSessionEnd(id, savedSession.getUser().getId(), savedSession.getNetResult());
+                        }
+                        return mapToResponseDto(savedSession);
+                    }));
+        });
     }
 
     /**
-     * Adiciona uma aposta à sessão
+     * Adiciona uma aposta à sessão, acumulando-a em memória quando a sessão está ativa (rejeitada se o usuário
+     * tem bloqueio temporário vigente ou se ela ultrapassaria um limite diário)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean addBet(Long id, Double amount) {
-        return gamblingSessionRepository.findById(id)
-                .map(session -> {
-                    session.addBet(amount);
-                    gamblingSessionRepository.save(session);
+        bettingBlockService.checkSession(id);
+        Long limitedUserId = userLimitService.reserveBet(id, amount);
+        try {
+            boolean added = sessionCommandExecutor.execute(id, () -> {
+                if (activeSessionAccumulator.isEnabled() && activeSessionAccumulator.addBet(id, amount)) {
                     return true;
-                })
-                .orElse(false);
+                }
+                return gamblingSessionRepository.incrementBet(id, amount, LocalDateTime.now()) > 0;
+            });
+            if (added) {
+                userFeatureStore.recordEvent(id, SessionEventType.BET, amount);
+            }
+            return added;
+        } finally {
+            userLimitService.releaseBet(limitedUserId, amount);
+        }
     }
 
     /**
-     * Adiciona um ganho à sessão
+     * Adiciona um ganho à sessão, acumulando-o em memória quando a sessão está ativa
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean addWin(Long id, Double amount) {
-        return gamblingSessionRepository.findById(id)
+        boolean added = sessionCommandExecutor.execute(id, () -> {
+            if (activeSessionAccumulator.isEnabled() && activeSessionAccumulator.addWin(id, amount)) {
+                return true;
+            }
+            return gamblingSessionRepository.incrementWin(id, amount, LocalDateTime.now()) > 0;
+        });
+        if (added) {
+            userFeatureStore.recordEvent(id, SessionEventType.WIN, amount);
+        }
+        return added;
+    }
+
+    /**
+     * Adiciona uma aposta à sessão uma única vez por chave de idempotência
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean addBet(Long id, Double amount, String idempotencyKey) {
+        return idempotencyService.execute(IdempotencyScope.BET, idempotencyKey,
+                () -> addBet(id, amount) ? Optional.of(id) : Optional.<Long>empty(), sessionId -> sessionId,
+                sessionId -> IdempotencyService.replayTarget(id, sessionId, idempotencyKey))
+                .isPresent();
+    }
+
+    /**
+     * Adiciona um ganho à sessão uma única vez por chave de idempotência
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean addWin(Long id, Double amount, String idempotencyKey) {
+        return idempotencyService.execute(IdempotencyScope.WIN, idempotencyKey,
+                () -> addWin(id, amount) ? Optional.of(id) : Optional.<Long>empty(), sessionId -> sessionId,
+                sessionId -> IdempotencyService.replayTarget(id, sessionId, idempotencyKey))
+                .isPresent();
+    }
+
+    /**
+     * Aplica um lote ordenado de apostas e ganhos à sessão com uma única leitura e um único incremento no banco
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<SessionEventBatchResponseDto> applyEventBatch(Long id, List<SessionEventDto> events) {
+        return sessionCommandExecutor.executeInTransaction(id, () -> gamblingSessionRepository.findById(id)
                 .map(session -> {
-                    session.addWin(amount);
-                    gamblingSessionRepository.save(session);
-                    return true;
-                })
-                .orElse(false);
+                    SessionEventBatchResponseDto response = new SessionEventBatchResponseDto(session.getId());
+                    EventTotals totals = new EventTotals();
+                    List<SessionEventDto> accepted = new ArrayList<>();
+                    try {
+                        for (int index = 0; index < events.size(); index++) {
+                            SessionEventDto event = events.get(index);
+                            String rejectionReason = validateEvent(session, event);
+                            if (rejectionReason == null) {
+                                totals.add(event);
+                                accepted.add(event);
+                            }
+                            response.addResult(new SessionEventResultDto(index,
+                                    event != null ? event.getType() : null,
+                                    rejectionReason == null,
+                                    rejectionReason));
+                        }
+                    } catch (RuntimeException e) {
+                        releaseBets(session.getUser().getId(), accepted);
+                        throw e;
+                    }
+
+                    recordAfterCommit(session, accepted);
+                    if (response.getAcceptedCount() > 0) {
+                        totals.applyTo(gamblingSessionRepository, session.getId());
+                    }
+                    return response;
+                }));
+    }
+
+    /**
+     * Aplica um micro-lote de eventos de várias sessões, agrupados por sessão, retornando quantos foram aceitos.
+     * Cada grupo é aplicado em sua própria transação, na faixa da sua sessão; as faixas trabalham em paralelo.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int applyEventMicroBatch(List<SessionEventDto> events) {
+        Map<Long, List<SessionEventDto>> eventsBySession = events.stream()
+                .filter(event -> event.getSessionId() != null)
+                .collect(Collectors.groupingBy(SessionEventDto::getSessionId, LinkedHashMap::new, Collectors.toList()));
+
+        List<CompletableFuture<Integer>> pending = new ArrayList<>(eventsBySession.size());
+        eventsBySession.forEach((sessionId, sessionEvents) -> pending.add(sessionCommandExecutor.submitInTransaction(
+                sessionId, () -> applyGroupedEvents(Map.of(sessionId, sessionEvents)))));
+
+        int accepted = 0;
+        for (CompletableFuture<Integer> future : pending) {
+            accepted += SessionCommandExecutor.join(future);
+        }
+        return accepted;
+    }
+
+    /**
+     * Valida e aplica eventos já agrupados por sessão, com uma leitura e um incremento por sessão
+     */
+    private int applyGroupedEvents(Map<Long, List<SessionEventDto>> eventsBySession) {
+        int accepted = 0;
+        for (GamblingSession session : gamblingSessionRepository.findAllById(eventsBySession.keySet())) {
+            EventTotals totals = new EventTotals();
+            List<SessionEventDto> sessionAccepted = new ArrayList<>();
+            try {
+                for (SessionEventDto event : eventsBySession.get(session.getId())) {
+                    if (validateEvent(session, event) == null) {
+                        totals.add(event);
+                        sessionAccepted.add(event);
+                    }
+                }
+            } catch (RuntimeException e) {
+                releaseBets(session.getUser().getId(), sessionAccepted);
+                throw e;
+            }
+            recordAfterCommit(session, sessionAccepted);
+            accepted += sessionAccepted.size();
+            if (totals.touched) {
+                totals.applyTo(gamblingSessionRepository, session.getId());
+            }
+        }
+        return accepted;
     }
 
     /**
@@ -243,32 +431,68 @@ public class GamblingSessionService {
     }
 
     /**
-     * Analisa indicadores de risco de uma sessão
+     * Valida um evento de sessão, retornando o motivo da rejeição ou null se válido (apostas válidas ficam
+     * reservadas nos limites do usuário até {@link #recordAfterCommit})
      */
-    private void analyzeRiskIndicators(GamblingSession session) {
-        // Alta frequência: mais de 3 sessões por dia
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        long sessionCount = gamblingSessionRepository.countSessionsByUserAndPeriod(session.getUser().getId(), oneDayAgo, LocalDateTime.now());
-        session.setIsHighFrequency(sessionCount > 3);
-
-        // Perda chasing: sessão após perda significativa
-        boolean hasRecentLoss = gamblingSessionRepository.hasRecentSignificantLoss(session.getUser().getId(), LocalDateTime.now().minusHours(24));
-        session.setHasLossChasing(hasRecentLoss && session.getNetResult() < 0);
-
-        // Gera indicadores de risco em JSON
-        String riskIndicators = generateRiskIndicatorsJson(session);
-        session.setRiskIndicators(riskIndicators);
+    private String validateEvent(GamblingSession session, SessionEventDto event) {
+        if (event == null || event.getType() == null) {
+            return "Tipo de evento é obrigatório";
+        }
+        if (event.getAmount() == null || !Double.isFinite(event.getAmount()) || event.getAmount() <= 0) {
+            return "Valor deve ser positivo";
+        }
+        if (event.getSessionId() != null && !event.getSessionId().equals(session.getId())) {
+            return "Evento de outra sessão";
+        }
+        if (!session.isSessionActive()) {
+            return "Sessão já finalizada";
+        }
+        if (event.getTimestamp() != null && event.getTimestamp().isBefore(session.getSessionStart())) {
+            return "Evento anterior ao início da sessão";
+        }
+        if (event.getType() == SessionEventType.BET) {
+            String blockReason = bettingBlockService.rejectionReason(session.getUser().getId());
+            return blockReason != null ? blockReason : userLimitService.tryReserveBet(session.getUser().getId(), event.getAmount());
+        }
+        return null;
     }
 
     /**
-     * Gera JSON com indicadores de risco
+     * Registra os eventos aceitos nas janelas móveis (que somam as apostas à perda do dia) após o commit dos
+     * totais e libera as reservas feitas na validação, também se a transação for revertida
      */
-    private String generateRiskIndicatorsJson(GamblingSession session) {
-        return String.format("{\"highFrequency\":%s,\"lossChasing\":%s,\"highBets\":%s,\"longSession\":%s}",
-                session.getIsHighFrequency(),
-                session.getHasLossChasing(),
-                session.getMaxBetAmount() > 1000,
-                session.getDurationMinutes() != null && session.getDurationMinutes() > 240);
+    private void recordAfterCommit(GamblingSession session, List<SessionEventDto> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        Long sessionId = session.getId();
+        Long userId = session.getUser().getId();
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                accepted.forEach(event -> userFeatureStore.recordEvent(sessionId, event.getType(), event.getAmount()));
+            } finally {
+                releaseBets(userId, accepted);
+            }
+        }, () -> releaseBets(userId, accepted));
+    }
+
+    private void releaseBets(Long userId, List<SessionEventDto> events) {
+        for (SessionEventDto event : events) {
+            if (event.getType() == SessionEventType.BET) {
+                userLimitService.releaseBet(userId, event.getAmount());
+            }
+        }
+    }
+
+    /**
+     * Analisa indicadores de risco de uma sessão pelas regras de escopo de sessão
+     * (a sessão corrente só é registrada nas janelas móveis depois desta análise)
+     */
+    private void analyzeRiskIndicators(GamblingSession session) {
+        RiskRuleResult result = riskRuleEngine.evaluate(RiskRuleScope.SESSION, riskFeatureExtractor.forSession(session));
+        session.setIsHighFrequency(result.hasFlag(RiskFlag.HIGH_FREQUENCY));
+        session.setHasLossChasing(result.hasFlag(RiskFlag.LOSS_CHASING));
+        session.setRiskIndicators(result.getFlags());
     }
 
     /**
@@ -291,9 +515,40 @@ public class GamblingSessionService {
         dto.setGameType(session.getGameType());
         dto.setPlatform(session.getPlatform());
         dto.setIsHighFrequency(session.getIsHighFrequency());
-        dto.setHasLossChasing(session.getHasLossChasing());
-        dto.setRiskIndicators(session.getRiskIndicators());
+        // Sessões ativas refletem a detecção em andamento antes da gravação na finalização
+        dto.setHasLossChasing(Boolean.TRUE.equals(session.getHasLossChasing()) || lossChasingDetector.isChasing(session.getId()));
+        dto.setRiskIndicators(session.getRiskIndicators() != null ? RiskFlag.fromMask(session.getRiskIndicators()) : null);
         dto.setCreatedAt(session.getCreatedAt());
+        activeSessionAccumulator.applyPendingTotals(dto);
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Totais de um conjunto de eventos válidos, aplicados à sessão com um único incremento no banco
+     */
+    private static final class EventTotals {
+
+        private double betAmount;
+        private int betCount;
+        private double maxBetAmount;
+        private double winAmount;
+        private boolean touched;
+
+        void add(SessionEventDto event) {
+            switch (event.getType()) {
+                case BET -> {
+                    betAmount += event.getAmount();
+                    betCount++;
+                    maxBetAmount = Math.max(maxBetAmount, event.getAmount());
+                }
+                case WIN -> winAmount += event.getAmount();
+            }
+            touched = true;
+        }
+
+        void applyTo(GamblingSessionRepository repository, Long sessionId) {
+            repository.incrementEventTotals(sessionId, betAmount, betCount, maxBetAmount, winAmount, 0L,
+                    betAmount - winAmount, LocalDateTime.now());
+        }
+    }
+}
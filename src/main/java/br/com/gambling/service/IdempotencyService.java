@@ -0,0 +1,387 @@
+package br.com.gambling.service;
+
+import br.com.gambling.entity.IdempotencyKey;
+import br.com.gambling.enums.IdempotencyScope;
+import br.com.gambling.exception.IdempotencyConflictException;
+import br.com.gambling.exception.InvalidIdempotencyKeyException;
+import br.com.gambling.repository.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de deduplicação de requisições por chave de idempotência (cabeçalho Idempotency-Key).
+ *
+ * As chaves recentes ficam em um mapa em memória dividido em duas gerações, descartadas por tempo
+ * ou quando atingem o limite de chaves. Um filtro de Bloom à frente indica quando uma chave
+ * certamente nunca foi vista; só nesse caso de dúvida a tabela persistida (opcional, para janelas
+ * longas) é consultada, de modo que o caminho comum não acessa o banco.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final long PENDING = Long.MIN_VALUE;
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.idempotency.window-minutes:10}")
+    private long windowMinutes;
+
+    @Value("${gambling.idempotency.max-keys:500000}")
+    private int maxKeys;
+
+    @Value("${gambling.idempotency.bloom-false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    @Value("${gambling.idempotency.persistent.enabled:false}")
+    private boolean persistent;
+
+    @Value("${gambling.idempotency.persistent.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${gambling.idempotency.persistent.expected-keys:2000000}")
+    private long expectedPersistentKeys;
+
+    private volatile KeyGeneration currentKeys;
+    private volatile KeyGeneration previousKeys;
+    private volatile BloomFilter currentBloom;
+    private volatile BloomFilter previousBloom;
+    private final Queue<IdempotencyKey> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        long now = System.currentTimeMillis();
+        currentKeys = new KeyGeneration(now);
+        previousKeys = new KeyGeneration(now);
+        currentBloom = newBloomFilter(now);
+        previousBloom = newBloomFilter(now);
+        if (persistent) {
+            warmUpBloomFilter();
+        }
+    }
+
+    /**
+     * Executa a operação uma única vez por chave. Repetições com a mesma chave não executam a operação
+     * e recebem o resultado original reconstruído por {@code replay}; sem chave, a operação é sempre executada.
+     * A chave só é confirmada após o commit da transação corrente, e liberada se a operação falhar.
+     */
+    public <T> Optional<T> execute(IdempotencyScope scope, String idempotencyKey, Supplier<Optional<T>> action,
+                                   Function<T, Long> resultId, Function<Long, Optional<T>> replay) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Chave de idempotência deve ter no máximo " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String key = scope.name() + ':' + idempotencyKey;
+        Long seen = reserve(key);
+        if (seen != null) {
+            if (seen == PENDING) {
+                throw new IdempotencyConflictException(idempotencyKey);
+            }
+            return replay.apply(seen);
+        }
+
+        Optional<T> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            release(key);
+            throw e;
+        }
+        finish(key, result.map(resultId).orElse(null));
+        return result;
+    }
+
+    /**
+     * Repete o resultado de uma operação sobre um recurso já existente (aposta, ganho, depósito), recusando a
+     * chave reutilizada para outro recurso
+     */
+    public static Optional<Long> replayTarget(Long targetId, Long resultId, String idempotencyKey) {
+        if (!resultId.equals(targetId)) {
+            throw new IdempotencyConflictException(idempotencyKey, resultId, targetId);
+        }
+        return Optional.of(resultId);
+    }
+
+    /**
+     * Descarta as gerações expiradas do mapa de chaves e do filtro de Bloom
+     */
+    @Scheduled(fixedDelayString = "${gambling.idempotency.rotation-check-ms:10000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        KeyGeneration keys = currentKeys;
+        if (now - keys.startedAt >= windowMinutes * 60_000L) {
+            rotateKeys(keys);
+        }
+        BloomFilter bloom = currentBloom;
+        long bloomWindowMillis = persistent ? retentionHours * 3_600_000L : windowMinutes * 60_000L;
+        if (now - bloom.startedAt >= bloomWindowMillis) {
+            rotateBloom(bloom);
+        }
+    }
+
+    /**
+     * Grava em lote as chaves confirmadas na tabela persistida
+     */
+    @Scheduled(fixedDelayString = "${gambling.idempotency.persistent.flush-interval-ms:1000}")
+    public void flushPersistentKeys() {
+        if (!persistent) {
+            return;
+        }
+        List<IdempotencyKey> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        IdempotencyKey next;
+        while ((next = pendingWrites.poll()) != null) {
+            batch.add(next);
+            if (batch.size() == WRITE_BATCH_SIZE) {
+                saveBatch(batch);
+                batch = new ArrayList<>(WRITE_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch);
+        }
+    }
+
+    /**
+     * Remove da tabela persistida as chaves fora do período de retenção
+     */
+    @Scheduled(fixedDelayString = "${gambling.idempotency.persistent.purge-interval-ms:3600000}")
+    public void purgePersistentKeys() {
+        if (!persistent) {
+            return;
+        }
+        int removed = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("{} chaves de idempotência expiradas removidas", removed);
+        }
+    }
+
+    /**
+     * Reserva a chave; retorna null se for nova, PENDING se outra requisição a está processando,
+     * ou o identificador do resultado original
+     */
+    private Long reserve(String key) {
+        KeyGeneration keys = currentKeys;
+        Long seen = previousKeys.results.get(key);
+        if (seen != null) {
+            return seen;
+        }
+        long hash = hash(key);
+        boolean maybeSeen = currentBloom.mightContain(hash) || previousBloom.mightContain(hash);
+
+        seen = keys.results.putIfAbsent(key, PENDING);
+        if (seen != null) {
+            return seen;
+        }
+        if (keys.size.incrementAndGet() >= maxKeys / 2) {
+            rotateKeys(keys);
+        }
+        if (maybeSeen && persistent) {
+            Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(key);
+            if (stored.isPresent()) {
+                keys.results.put(key, stored.get().getResultId());
+                return stored.get().getResultId();
+            }
+        }
+        BloomFilter bloom = currentBloom;
+        if (bloom.put(hash) >= expectedBloomInsertions()) {
+            rotateBloom(bloom);
+        }
+        return null;
+    }
+
+    /**
+     * Confirma (resultado presente) ou libera a chave, após o término da transação corrente se houver uma
+     */
+    private void finish(String key, Long resultId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(key, resultId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(key, status == STATUS_COMMITTED ? resultId : null);
+            }
+        });
+    }
+
+    private void complete(String key, Long resultId) {
+        if (resultId == null) {
+            release(key);
+            return;
+        }
+        currentKeys.results.put(key, resultId);
+        previousKeys.results.remove(key, PENDING);
+        if (persistent) {
+            pendingWrites.add(new IdempotencyKey(key, resultId, LocalDateTime.now()));
+        }
+    }
+
+    private void release(String key) {
+        currentKeys.results.remove(key, PENDING);
+        previousKeys.results.remove(key, PENDING);
+    }
+
+    private synchronized void rotateKeys(KeyGeneration expected) {
+        if (currentKeys != expected) {
+            return;
+        }
+        previousKeys = expected;
+        currentKeys = new KeyGeneration(System.currentTimeMillis());
+    }
+
+    private synchronized void rotateBloom(BloomFilter expected) {
+        if (currentBloom != expected) {
+            return;
+        }
+        previousBloom = expected;
+        currentBloom = newBloomFilter(System.currentTimeMillis());
+    }
+
+    private BloomFilter newBloomFilter(long startedAt) {
+        return new BloomFilter(expectedBloomInsertions(), bloomFalsePositiveRate, startedAt);
+    }
+
+    private long expectedBloomInsertions() {
+        return persistent ? expectedPersistentKeys : maxKeys;
+    }
+
+    private void warmUpBloomFilter() {
+        LocalDateTime since = LocalDateTime.now().minusHours(retentionHours);
+        long loaded = transactionTemplate.execute(status -> {
+            try (Stream<String> keys = idempotencyKeyRepository.streamKeysCreatedSince(since)) {
+                return keys.peek(key -> currentBloom.put(hash(key))).count();
+            }
+        });
+        log.info("Filtro de Bloom de idempotência aquecido com {} chaves persistidas", loaded);
+    }
+
+    private void saveBatch(List<IdempotencyKey> batch) {
+        try {
+            idempotencyKeyRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} chaves de idempotência", batch.size(), e);
+        }
+    }
+
+    /**
+     * Hash de 64 bits da chave (FNV-1a seguido de mistura final), base dos índices do filtro de Bloom
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int index = 0; index < key.length(); index++) {
+            hash ^= key.charAt(index);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Geração do mapa de chaves recentes (chave → identificador do resultado ou PENDING)
+     */
+    private static final class KeyGeneration {
+
+        private final Map<String, Long> results = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final long startedAt;
+
+        KeyGeneration(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    /**
+     * Filtro de Bloom sobre um vetor de bits primitivo, com k índices derivados por hashing duplo
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final long startedAt;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate, long startedAt) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1L, (bits + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.startedAt = startedAt;
+        }
+
+        boolean mightContain(long hash) {
+            long step = stepOf(hash);
+            for (int index = 0; index < hashCount; index++) {
+                long bit = ((hash + index * step) & Long.MAX_VALUE) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Marca a chave e retorna o total de inserções do filtro
+         */
+        long put(long hash) {
+            long step = stepOf(hash);
+            for (int index = 0; index < hashCount; index++) {
+                long bit = ((hash + index * step) & Long.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (current, added) -> current | added);
+                }
+            }
+            return insertions.incrementAndGet();
+        }
+
+        private static long stepOf(long hash) {
+            return (Long.rotateLeft(hash, 32) * 0x9E3779B97F4A7C15L) | 1L;
+        }
+    }
+}
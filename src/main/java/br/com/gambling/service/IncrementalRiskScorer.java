@@ -0,0 +1,378 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.LiveRiskScoreDto;
+import br.com.gambling.entity.RiskEvent;
+import br.com.gambling.enums.RiskFeature;
+import br.com.gambling.enums.RiskLevel;
+import br.com.gambling.enums.RiskRuleScope;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Pontuação de risco incremental, atualizada a cada aposta, ganho, sessão e depósito.
+ *
+ * Recebe a atividade do {@link UserFeatureStore} e, a cada evento, avalia as regras de usuário do
+ * {@link RiskRuleEngine} sobre o mesmo vetor da análise completa ({@link RiskFeatureExtractor}): as variáveis
+ * em janela móvel vêm do {@link UserFeatureStore} e os totais acumulados do usuário (depósitos, saques,
+ * sessões) ficam no estado em memória, somados a cada evento e relidos do banco periodicamente. Assim a
+ * pontuação e o nível coincidem com os de {@code /analyze}. O nível só é gravado em
+ * {@code User.currentRiskLevel} quando cruza uma faixa, com histerese na descida para não oscilar entre
+ * níveis. Nível e totais de um usuário sem estado em memória são lidos em lote pela tarefa periódica, fora
+ * das threads de ingestão; até lá a pontuação é calculada mas o nível não muda.
+ *
+ * A escalada de valores (contadores com meia-vida de 1 hora sobre a média móvel das apostas) e a sequência
+ * de sessões com perda são acompanhadas só como indicadores da pontuação em tempo real, fora das regras.
+ */
+@Service
+public class IncrementalRiskScorer implements UserActivityListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalRiskScorer.class);
+
+    private static final double LN2 = Math.log(2);
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long IDLE_EVICTION_MILLIS = 48 * HOUR_MILLIS;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private RiskEventBus riskEventBus;
+
+    @Autowired
+    private RiskRuleEngine riskRuleEngine;
+
+    @Autowired
+    private RiskFeatureExtractor riskFeatureExtractor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.risk.incremental.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.risk.incremental.hysteresis:5}")
+    private double hysteresis;
+
+    private final Map<Long, UserRiskState> states = new ConcurrentHashMap<>();
+    private final Map<Long, RiskEvent> pendingLevels = new ConcurrentHashMap<>();
+    private final Set<Long> pendingLoads = ConcurrentHashMap.newKeySet();
+
+    public IncrementalRiskScorer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void register() {
+        userFeatureStore.addListener(this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onSessionStart(Long sessionId, Long userId, LocalDateTime sessionStart) {
+        if (enabled) {
+            update(userId, state -> state.sessionCount++);
+        }
+    }
+
+    @Override
+    public void onEvent(Long sessionId, Long userId, SessionEventType type, double amount) {
+        if (!enabled) {
+            return;
+        }
+        if (type == SessionEventType.BET) {
+            update(userId, state -> state.recordBet(amount));
+        } else {
+            update(userId, state -> {});
+        }
+    }
+
+    @Override
+    public void onSessionEnd(Long sessionId, Long userId, double netResult) {
+        if (enabled) {
+            update(userId, state -> state.losingStreak = netResult < 0 ? state.losingStreak + 1 : 0);
+        }
+    }
+
+    @Override
+    public void onDeposit(Long userId, double amount) {
+        if (enabled) {
+            update(userId, state -> state.totalDeposits += amount);
+        }
+    }
+
+    /**
+     * Alinha o nível em memória com um nível atribuído por análise completa ou manualmente
+     */
+    public void onLevelAssigned(Long userId, RiskLevel riskLevel) {
+        UserRiskState state = states.get(userId);
+        if (state != null) {
+            synchronized (state) {
+                state.level = riskLevel;
+                state.levelAssigned = true;
+            }
+        }
+    }
+
+    /**
+     * Retorna a pontuação corrente do usuário, se houver estado em memória
+     */
+    public Optional<LiveRiskScoreDto> getLiveScore(Long userId) {
+        UserRiskState state = states.get(userId);
+        if (state == null) {
+            return Optional.empty();
+        }
+        synchronized (state) {
+            state.decay(System.currentTimeMillis());
+            score(userId, state);
+            return Optional.of(state.toDto(userId));
+        }
+    }
+
+    /**
+     * Carrega os níveis gravados dos usuários novos em memória e grava no usuário os níveis que cruzaram uma
+     * faixa desde a última execução
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.incremental.flush-interval-ms:500}")
+    public void flushLevelChanges() {
+        loadPendingStates();
+        for (Map.Entry<Long, RiskEvent> change : pendingLevels.entrySet()) {
+            Long userId = change.getKey();
+            RiskEvent event = change.getValue();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.updateCurrentRiskLevel(userId, event.getNewLevel(), LocalDateTime.now());
+                    if (event.getPreviousLevel() != event.getNewLevel()) {
+                        riskEventBus.publish(List.of(event));
+                    }
+                });
+            } catch (RuntimeException e) {
+                // A mudança continua pendente e é regravada na próxima execução
+                log.error("Falha ao gravar o nível de risco do usuário {}", userId, e);
+                continue;
+            }
+            // Uma mudança mesclada durante a gravação continua pendente, agora a partir do nível gravado
+            if (!pendingLevels.remove(userId, event)) {
+                pendingLevels.computeIfPresent(userId, (id, newer) ->
+                        new RiskEvent(id, event.getNewLevel(), newer.getNewLevel(), RiskEventBus.SOURCE_INCREMENTAL));
+            }
+        }
+    }
+
+    /**
+     * Reavalia os usuários sem eventos recentes (as janelas móveis avançam), descarta os inativos e agenda a
+     * releitura dos totais acumulados dos demais (corrige saques e eventos não vistos por esta instância)
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.incremental.reevaluation-interval-ms:60000}")
+    public void reevaluateIdleStates() {
+        long now = System.currentTimeMillis();
+        states.forEach((userId, state) -> {
+            synchronized (state) {
+                if (now - state.lastEventMillis >= IDLE_EVICTION_MILLIS) {
+                    states.remove(userId, state);
+                    return;
+                }
+                state.decay(now);
+                rescore(userId, state);
+            }
+            pendingLoads.add(userId);
+        });
+    }
+
+    /**
+     * Lê em lote o nível gravado (só na primeira carga) e os totais acumulados dos estados pendentes e os recalcula
+     */
+    private void loadPendingStates() {
+        if (pendingLoads.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(pendingLoads);
+        for (int from = 0; from < userIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, userIds.size()));
+            List<Object[]> rows;
+            try {
+                rows = transactionTemplate.execute(status -> userRepository.findRiskSeeds(chunk));
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar o nível de risco de {} usuários; nova tentativa na próxima execução", chunk.size(), e);
+                return;
+            }
+            for (Object[] row : rows) {
+                Long userId = (Long) row[0];
+                UserRiskState state = states.get(userId);
+                if (state != null) {
+                    synchronized (state) {
+                        // Um nível atribuído enquanto a leitura estava pendente é mais recente que o lido
+                        if (!state.loaded && !state.levelAssigned && row[1] != null) {
+                            state.level = (RiskLevel) row[1];
+                        }
+                        state.totalDeposits = row[2] != null ? (Double) row[2] : 0.0;
+                        state.totalWithdrawals = row[3] != null ? (Double) row[3] : 0.0;
+                        state.sessionCount = row[4] != null ? (Integer) row[4] : 0;
+                        state.loaded = true;
+                        rescore(userId, state);
+                    }
+                }
+            }
+            chunk.forEach(pendingLoads::remove);
+        }
+    }
+
+    private void update(Long userId, Consumer<UserRiskState> update) {
+        UserRiskState state = states.get(userId);
+        if (state == null) {
+            // Primeiro evento do usuário: o nível gravado é lido depois, em lote, fora desta thread
+            UserRiskState created = new UserRiskState(RiskLevel.LOW, System.currentTimeMillis());
+            state = states.putIfAbsent(userId, created);
+            if (state == null) {
+                state = created;
+                pendingLoads.add(userId);
+            }
+        }
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            state.decay(now);
+            update.accept(state);
+            state.lastEventMillis = now;
+            state.updatedAt = LocalDateTime.now();
+            rescore(userId, state);
+        }
+    }
+
+    /**
+     * Recalcula a pontuação e registra a mudança de nível quando uma faixa é cruzada
+     */
+    private void rescore(Long userId, UserRiskState state) {
+        score(userId, state);
+        if (!state.loaded) {
+            return;
+        }
+        RiskLevel candidate = RiskLevel.fromScore(state.score);
+        boolean raise = candidate.compareTo(state.level) > 0;
+        boolean lower = candidate.compareTo(state.level) < 0
+                && RiskLevel.fromScore(state.score + hysteresis).compareTo(state.level) < 0;
+        if (raise || lower) {
+            log.info("Nível de risco do usuário {} alterado de {} para {} (pontuação {})",
+                    userId, state.level, candidate, String.format("%.1f", state.score));
+            // Várias mudanças antes da gravação viram um só evento, a partir do último nível gravado
+            pendingLevels.merge(userId, new RiskEvent(userId, state.level, candidate, RiskEventBus.SOURCE_INCREMENTAL),
+                    (pending, latest) -> new RiskEvent(userId, pending.getPreviousLevel(), candidate, RiskEventBus.SOURCE_INCREMENTAL));
+            state.level = candidate;
+        }
+    }
+
+    /**
+     * Avalia as regras de usuário sobre o vetor corrente, com o mesmo limite de 100 pontos da análise completa
+     */
+    private void score(Long userId, UserRiskState state) {
+        double[] features = riskFeatureExtractor.forUser(userId, state.totalDeposits, state.totalWithdrawals, state.sessionCount);
+        state.score = Math.min(100.0, riskRuleEngine.evaluate(RiskRuleScope.USER, features).getScore());
+        state.betsPerHour = features[RiskFeature.BETS_LAST_HOUR.ordinal()];
+        state.stakePerDay = features[RiskFeature.BET_SUM_24H.ordinal()];
+        state.netLossPerDay = features[RiskFeature.NET_LOSS_24H.ordinal()];
+        state.sessionsPerDay = features[RiskFeature.SESSIONS_24H.ordinal()];
+        state.depositsPerDay = features[RiskFeature.DEPOSIT_COUNT_24H.ordinal()];
+        state.depositAmountPerDay = features[RiskFeature.DEPOSITS_24H.ordinal()];
+    }
+
+    /**
+     * Variáveis de risco de um usuário. Os agregados de janela exibidos são copiados do vetor a cada recálculo;
+     * apostas e escaladas decaem com meia-vida de 1 hora (um contador com meia-vida H equivale a uma taxa de
+     * {@code contador * ln2 / H}) e servem só à taxa de escalada.
+     */
+    private static final class UserRiskState {
+
+        private long lastDecayMillis;
+        private long lastEventMillis;
+        private double bets;
+        private double escalations;
+        private double averageBet;
+        private int losingStreak;
+        private double betsPerHour;
+        private double stakePerDay;
+        private double netLossPerDay;
+        private double sessionsPerDay;
+        private double depositsPerDay;
+        private double depositAmountPerDay;
+        private double totalDeposits;
+        private double totalWithdrawals;
+        private int sessionCount;
+        private double score;
+        private RiskLevel level;
+        private boolean loaded;
+        private boolean levelAssigned;
+        private LocalDateTime updatedAt;
+
+        UserRiskState(RiskLevel level, long now) {
+            this.level = level;
+            this.lastDecayMillis = now;
+            this.lastEventMillis = now;
+        }
+
+        void decay(long now) {
+            long elapsed = now - lastDecayMillis;
+            if (elapsed <= 0) {
+                return;
+            }
+            double hourly = Math.exp(-elapsed * LN2 / HOUR_MILLIS);
+            bets *= hourly;
+            escalations *= hourly;
+            lastDecayMillis = now;
+        }
+
+        void recordBet(double amount) {
+            // Escalada: aposta acima do dobro da média móvel das apostas anteriores
+            if (averageBet > 0 && amount > 2 * averageBet) {
+                escalations += 1;
+            }
+            averageBet = averageBet == 0 ? amount : averageBet + 0.05 * (amount - averageBet);
+            bets += 1;
+        }
+
+        double lossRatio() {
+            return stakePerDay > 0 ? Math.max(0.0, Math.min(1.0, netLossPerDay / stakePerDay)) : 0.0;
+        }
+
+        double escalationRate() {
+            return bets >= 1 ? Math.min(1.0, escalations / bets) : 0.0;
+        }
+
+        LiveRiskScoreDto toDto(Long userId) {
+            LiveRiskScoreDto dto = new LiveRiskScoreDto();
+            dto.setUserId(userId);
+            dto.setRiskScore(score);
+            dto.setRiskLevel(level);
+            dto.setBetsPerHour(betsPerHour);
+            dto.setLossRatio(lossRatio());
+            dto.setEscalationRate(escalationRate());
+            dto.setConsecutiveLosingSessions(losingStreak);
+            dto.setSessionsPerDay(sessionsPerDay);
+            dto.setDepositsPerDay(depositsPerDay);
+            dto.setDepositAmountPerDay(depositAmountPerDay);
+            dto.setUpdatedAt(updatedAt);
+            return dto;
+        }
+    }
+}
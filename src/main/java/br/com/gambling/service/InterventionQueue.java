@@ -0,0 +1,298 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.InterventionResponseDto;
+import br.com.gambling.entity.Intervention;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Fila de prioridade em memória das intervenções abertas (PENDING e SCHEDULED), para o console dos operadores.
+ *
+ * As intervenções ficam em um {@link ConcurrentSkipListSet} na ordem de {@code findPendingInterventions}
+ * (prioridade decrescente, criação crescente), de modo que as listagens percorrem só o início da fila, sem
+ * consultar a tabela. Um operador assume as próximas N intervenções pendentes retirando-as da fila: a remoção
+ * de cada item só tem sucesso para um dos operadores concorrentes, então nenhum item é entregue a dois. Itens
+ * assumidos e não concluídos dentro do prazo de reserva voltam à fila. A fila é carregada na inicialização pelo
+ * {@link InterventionService} e acompanha, após o commit, a criação, execução e cancelamento das intervenções;
+ * intervenções com {@code expiresAt} vencido deixam de ser listadas e são descartadas periodicamente.
+ */
+@Service
+public class InterventionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(InterventionQueue.class);
+
+    private static final Comparator<QueuedIntervention> ORDER = Comparator
+            .comparingInt((QueuedIntervention queued) -> -queued.priority)
+            .thenComparingLong(queued -> queued.createdAtMillis)
+            .thenComparingLong(queued -> queued.id);
+
+    @Value("${gambling.interventions.queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.interventions.queue.claim-lease-minutes:30}")
+    private long claimLeaseMinutes;
+
+    private final ConcurrentSkipListSet<QueuedIntervention> queue = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, QueuedIntervention> queued = new ConcurrentHashMap<>();
+    private final Map<Long, QueuedIntervention> claimed = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Substitui o conteúdo da fila pelas intervenções abertas informadas (carga inicial); as assumidas há menos
+     * que o prazo de reserva continuam com o operador
+     */
+    public void load(List<InterventionResponseDto> interventions) {
+        queue.clear();
+        queued.clear();
+        claimed.clear();
+        long leaseStart = System.currentTimeMillis() - claimLeaseMillis();
+        for (InterventionResponseDto intervention : interventions) {
+            QueuedIntervention entry = new QueuedIntervention(intervention);
+            if (intervention.getClaimedAt() != null && toMillis(intervention.getClaimedAt()) > leaseStart) {
+                entry.claimedAtMillis = toMillis(intervention.getClaimedAt());
+                claimed.put(entry.id, entry);
+            } else {
+                intervention.setClaimedBy(null);
+                intervention.setClaimedAt(null);
+                enqueue(entry);
+            }
+        }
+        log.info("Fila de intervenções carregada com {} intervenções abertas ({} assumidas por operadores)",
+                queue.size(), claimed.size());
+    }
+
+    /**
+     * Inclui (ou atualiza) a intervenção na fila, após o commit da transação corrente
+     */
+    public void add(InterventionResponseDto intervention) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> {
+                claimed.remove(intervention.getId());
+                enqueue(new QueuedIntervention(intervention));
+            });
+        }
+    }
+
+    /**
+     * Retira a intervenção da fila ou dos itens assumidos, após o commit (usado ao executá-la ou cancelá-la)
+     */
+    public void remove(Long interventionId) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> discard(interventionId));
+        }
+    }
+
+    /**
+     * Retira em lote, de imediato, intervenções que deixaram de estar abertas fora de uma transação (agendador)
+     * ou que o banco recusou ao assumir
+     */
+    public void removeAll(Collection<Long> interventionIds) {
+        if (enabled) {
+            interventionIds.forEach(this::discard);
+        }
+    }
+
+    /**
+     * Intervenções pendentes na ordem de prioridade
+     */
+    public List<InterventionResponseDto> findPending() {
+        long now = System.currentTimeMillis();
+        List<InterventionResponseDto> pending = new ArrayList<>();
+        for (QueuedIntervention entry : queue) {
+            if (entry.status == Intervention.InterventionStatus.PENDING && !entry.isExpired(now)) {
+                pending.add(entry.intervention);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Intervenções pendentes ou agendadas com prioridade mínima; percorre só o início da fila
+     */
+    public List<InterventionResponseDto> findHighPriority(int minPriority) {
+        long now = System.currentTimeMillis();
+        List<InterventionResponseDto> highPriority = new ArrayList<>();
+        for (QueuedIntervention entry : queue) {
+            if (entry.priority < minPriority) {
+                break;
+            }
+            if (!entry.isExpired(now)) {
+                highPriority.add(entry.intervention);
+            }
+        }
+        return highPriority;
+    }
+
+    /**
+     * Assume para o operador as próximas {@code count} intervenções pendentes, retirando-as da fila; cada item é
+     * entregue a um único operador mesmo com chamadas concorrentes
+     */
+    public List<InterventionResponseDto> claim(String operator, int count) {
+        long now = System.currentTimeMillis();
+        LocalDateTime claimedAt = LocalDateTime.now();
+        List<InterventionResponseDto> taken = new ArrayList<>(count);
+        for (QueuedIntervention entry : queue) {
+            if (taken.size() >= count) {
+                break;
+            }
+            if (entry.status != Intervention.InterventionStatus.PENDING || entry.isExpired(now)) {
+                continue;
+            }
+            // Só um operador consegue remover o item do conjunto
+            if (!queue.remove(entry)) {
+                continue;
+            }
+            // A passagem para os assumidos é atômica em relação ao descarte (que retira primeiro de queued): um
+            // item descartado ou substituído enquanto era retirado do conjunto não volta como assumido
+            boolean[] moved = new boolean[1];
+            queued.computeIfPresent(entry.id, (interventionId, current) -> {
+                if (current != entry) {
+                    return current;
+                }
+                entry.claimedAtMillis = now;
+                entry.intervention.setClaimedBy(operator);
+                entry.intervention.setClaimedAt(claimedAt);
+                claimed.put(interventionId, entry);
+                moved[0] = true;
+                return null;
+            });
+            if (moved[0]) {
+                taken.add(entry.intervention);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Devolve à fila intervenções assumidas cuja reserva não pôde ser gravada ou venceu
+     */
+    public void release(Collection<Long> interventionIds) {
+        for (Long interventionId : interventionIds) {
+            QueuedIntervention entry = claimed.remove(interventionId);
+            if (entry != null) {
+                entry.intervention.setClaimedBy(null);
+                entry.intervention.setClaimedAt(null);
+                enqueue(entry);
+            }
+        }
+    }
+
+    /**
+     * Quantidade de intervenções na fila
+     */
+    public int size() {
+        return queued.size();
+    }
+
+    /**
+     * Quantidade de intervenções assumidas por operadores e ainda não concluídas
+     */
+    public int claimedCount() {
+        return claimed.size();
+    }
+
+    /**
+     * Prazo de reserva de uma intervenção assumida
+     */
+    public long getClaimLeaseMinutes() {
+        return claimLeaseMinutes;
+    }
+
+    /**
+     * Descarta as intervenções expiradas e devolve à fila as assumidas com reserva vencida
+     */
+    @Scheduled(fixedDelayString = "${gambling.interventions.queue.purge-interval-ms:60000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (QueuedIntervention entry : queue) {
+            if (entry.isExpired(now) && queue.remove(entry)) {
+                queued.remove(entry.id, entry);
+                expired++;
+            }
+        }
+        long leaseStart = now - claimLeaseMillis();
+        List<Long> leaseExpired = new ArrayList<>();
+        claimed.forEach((interventionId, entry) -> {
+            if (entry.isExpired(now)) {
+                claimed.remove(interventionId, entry);
+            } else if (entry.claimedAtMillis <= leaseStart) {
+                leaseExpired.add(interventionId);
+            }
+        });
+        release(leaseExpired);
+        if (expired > 0 || !leaseExpired.isEmpty()) {
+            log.debug("{} intervenções expiradas descartadas e {} reservas vencidas devolvidas à fila", expired, leaseExpired.size());
+        }
+    }
+
+    private void enqueue(QueuedIntervention entry) {
+        QueuedIntervention previous = queued.put(entry.id, entry);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+    }
+
+    private void discard(Long interventionId) {
+        QueuedIntervention entry = queued.remove(interventionId);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+        claimed.remove(interventionId);
+    }
+
+    private long claimLeaseMillis() {
+        return claimLeaseMinutes * 60_000L;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Item da fila: a chave de ordenação é fixa e o DTO é entregue como está nas listagens
+     */
+    private static final class QueuedIntervention {
+
+        final long id;
+        final int priority;
+        final long createdAtMillis;
+        final long expiresAtMillis;
+        final Intervention.InterventionStatus status;
+        final InterventionResponseDto intervention;
+        volatile long claimedAtMillis;
+
+        QueuedIntervention(InterventionResponseDto intervention) {
+            this.id = intervention.getId();
+            this.priority = intervention.getPriority() != null ? intervention.getPriority() : 1;
+            this.createdAtMillis = intervention.getCreatedAt() != null ? toMillis(intervention.getCreatedAt()) : System.currentTimeMillis();
+            this.expiresAtMillis = intervention.getExpiresAt() != null ? toMillis(intervention.getExpiresAt()) : Long.MAX_VALUE;
+            this.status = intervention.getStatus();
+            this.intervention = intervention;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.gambling.service;
+
+import br.com.gambling.repository.InterventionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução das intervenções automáticas agendadas no horário de {@code scheduledFor}, sem consultar a tabela.
+ *
+ * As intervenções automáticas com status SCHEDULED são carregadas de {@code intervencoes} na inicialização
+ * para uma {@link TimingWheel} e incluídas ou retiradas dela quando criadas, executadas ou canceladas (após
+ * o commit). A cada passo da roda as vencidas são marcadas como executadas por {@code SISTEMA_AUTOMATICO}
+ * em um UPDATE em lote; a condição {@code status = 'SCHEDULED'} ignora as que mudaram de status por outro
+ * caminho, como a execução manual. Em caso de falha na gravação, as intervenções voltam a ser tentadas no
+ * passo seguinte. As executadas saem da {@link InterventionQueue} e os bloqueios temporários executados são
+ * repassados ao {@link BettingBlockService}. A roda avança em uma thread própria, para que as demais tarefas
+ * periódicas da aplicação não atrasem os passos.
+ */
+@Service
+public class InterventionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(InterventionScheduler.class);
+
+    private static final String EXECUTED_BY = "SISTEMA_AUTOMATICO";
+
+    private static final String EXECUTE_SCHEDULED = "UPDATE intervencoes SET status = 'EXECUTED', executada_em = ?, " +
+            "executada_por = ? WHERE id = ? AND status = 'SCHEDULED'";
+
+    @Autowired
+    private InterventionRepository interventionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BettingBlockService bettingBlockService;
+
+    @Autowired
+    private InterventionQueue interventionQueue;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.interventions.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.interventions.scheduler.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${gambling.interventions.scheduler.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${gambling.interventions.scheduler.batch-size:500}")
+    private int batchSize;
+
+    private TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+    private final Map<Long, TimingWheel.Entry> scheduled = new HashMap<>();
+    private final List<Long> due = new ArrayList<>();
+
+    public InterventionScheduler(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Carrega as intervenções automáticas agendadas e inicia a thread da roda
+     */
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        List<Object[]> rows = transactionTemplate.execute(status -> interventionRepository.findScheduledAutomaticInterventions());
+        synchronized (this) {
+            wheel = new TimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+            rows.forEach(row -> add((Long) row[0], (LocalDateTime) row[1]));
+        }
+        log.info("Agendador de intervenções iniciado com {} intervenções agendadas ({} já vencidas)", rows.size(), due.size());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "agendador-intervencoes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::safeTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (ticker != null) {
+            ticker.shutdown();
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Agenda a execução da intervenção automática, após o commit da transação corrente
+     */
+    public void schedule(Long interventionId, LocalDateTime scheduledFor) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> {
+                synchronized (this) {
+                    add(interventionId, scheduledFor);
+                }
+            });
+        }
+    }
+
+    /**
+     * Retira a intervenção do agendador, após o commit da transação corrente (usado ao executá-la ou cancelá-la)
+     */
+    public void unschedule(Long interventionId) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> {
+                synchronized (this) {
+                    TimingWheel.Entry entry = scheduled.remove(interventionId);
+                    if (entry != null) {
+                        entry.cancelled = true;
+                    }
+                    due.remove(interventionId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Quantidade de intervenções aguardando execução no agendador
+     */
+    public synchronized int countScheduled() {
+        return scheduled.size() + due.size();
+    }
+
+    /**
+     * Avança a roda e executa em lote as intervenções vencidas
+     */
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> batch;
+        synchronized (this) {
+            List<TimingWheel.Entry> expired = new ArrayList<>();
+            wheel.advance(System.currentTimeMillis(), expired);
+            expired.forEach(entry -> {
+                scheduled.remove(entry.id);
+                due.add(entry.id);
+            });
+            if (due.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(due);
+            due.clear();
+        }
+
+        Timestamp executedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            int[][] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(EXECUTE_SCHEDULED, batch, batchSize,
+                    (statement, interventionId) -> {
+                        statement.setTimestamp(1, executedAt);
+                        statement.setString(2, EXECUTED_BY);
+                        statement.setLong(3, interventionId);
+                    }));
+            long executed = 0;
+            for (int[] chunk : updated) {
+                for (int count : chunk) {
+                    executed += Math.max(count, 0);
+                }
+            }
+            log.debug("{} intervenções agendadas executadas ({} já não estavam agendadas)", executed, batch.size() - executed);
+            interventionQueue.removeAll(batch);
+            bettingBlockService.refreshInterventions(batch);
+        } catch (RuntimeException e) {
+            log.error("Falha ao executar {} intervenções agendadas; nova tentativa no próximo passo", batch.size(), e);
+            synchronized (this) {
+                due.addAll(batch);
+            }
+        }
+    }
+
+    /**
+     * Passo da thread da roda; uma exceção não interrompe os passos seguintes
+     */
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Falha no passo do agendador de intervenções", e);
+        }
+    }
+
+    private void add(Long interventionId, LocalDateTime scheduledFor) {
+        TimingWheel.Entry previous = scheduled.remove(interventionId);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        long deadline = scheduledFor != null ? scheduledFor.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        TimingWheel.Entry entry = new TimingWheel.Entry(interventionId, deadline);
+        if (deadline <= System.currentTimeMillis() || !wheel.add(entry)) {
+            due.add(interventionId);
+        } else {
+            scheduled.put(interventionId, entry);
+        }
+    }
+}
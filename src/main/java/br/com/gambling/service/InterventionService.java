@@ -3,28 +3,59 @@ package br.com.gambling.service;
 import br.com.gambling.dto.InterventionRequestDto;
 import br.com.gambling.dto.InterventionResponseDto;
 import br.com.gambling.entity.Intervention;
+import br.com.gambling.entity.RiskEvent;
 import br.com.gambling.entity.User;
 import br.com.gambling.enums.InterventionType;
 import br.com.gambling.enums.RiskLevel;
 import br.com.gambling.repository.InterventionRepository;
 import br.com.gambling.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Serviço para operações relacionadas às intervenções
+ * Serviço para operações relacionadas às intervenções.
+ *
+ * Também assina o {@link RiskEventBus}: cada aumento de nível de risco gera, fora do caminho da análise,
+ * a intervenção automática do novo nível, a menos que o usuário já tenha uma intervenção pendente ou
+ * agendada do mesmo tipo. As intervenções abertas são mantidas na {@link InterventionQueue}, que atende as
+ * listagens de pendentes e de alta prioridade e a distribuição entre operadores.
  */
 @Service
 @Transactional
-public class InterventionService {
+public class InterventionService implements RiskEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InterventionService.class);
+
+    private static final String CLAIM_INTERVENTION = "UPDATE intervencoes SET reivindicada_por = ?, reivindicada_em = ? " +
+            "WHERE id = ? AND status = 'PENDING' AND (reivindicada_por IS NULL OR reivindicada_em < ?)";
+
+    private static final String INSERT_AUTOMATIC_INTERVENTION = "INSERT INTO intervencoes (id_usuario, tipo_intervencao, " +
+            "titulo, descricao, mensagem, status, prioridade, automatica, criada_por, expira_em, criado_em) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING', ?, TRUE, 'SISTEMA', ?, ?)";
 
     @Autowired
     private InterventionRepository interventionRepository;
@@ -32,6 +63,32 @@ public class InterventionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private InterventionScheduler interventionScheduler;
+
+    @Autowired
+    private RiskEventBus riskEventBus;
+
+    @Autowired
+    private BettingBlockService bettingBlockService;
+
+    @Autowired
+    private InterventionQueue interventionQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void register() {
+        riskEventBus.addListener(this);
+        if (interventionQueue.isEnabled()) {
+            interventionQueue.load(interventionRepository.findOpenInterventions(LocalDateTime.now())
+                    .stream()
+                    .map(this::mapToResponseDto)
+                    .collect(Collectors.toList()));
+        }
+    }
+
     /**
      * Cria uma nova intervenção
      */
@@ -65,7 +122,13 @@ public class InterventionService {
                     }
 
                     Intervention savedIntervention = interventionRepository.save(intervention);
-                    return mapToResponseDto(savedIntervention);
+                    if (savedIntervention.getStatus() == Intervention.InterventionStatus.SCHEDULED
+                            && Boolean.TRUE.equals(savedIntervention.getIsAutomatic())) {
+                        interventionScheduler.schedule(savedIntervention.getId(), savedIntervention.getScheduledFor());
+                    }
+                    InterventionResponseDto response = mapToResponseDto(savedIntervention);
+                    interventionQueue.add(mapToResponseDto(savedIntervention));
+                    return response;
                 });
     }
 
@@ -89,6 +152,9 @@ public class InterventionService {
                         intervention.setExecutionNotes(executionNotes);
                     }
                     interventionRepository.save(intervention);
+                    interventionScheduler.unschedule(id);
+                    interventionQueue.remove(id);
+                    syncBettingBlock(intervention);
                     return true;
                 })
                 .orElse(false);
@@ -102,6 +168,9 @@ public class InterventionService {
                 .map(intervention -> {
                     intervention.cancel(reason);
                     interventionRepository.save(intervention);
+                    interventionScheduler.unschedule(id);
+                    interventionQueue.remove(id);
+                    syncBettingBlock(intervention);
                     return true;
                 })
                 .orElse(false);
@@ -137,10 +206,13 @@ public class InterventionService {
     }
 
     /**
-     * Busca intervenções pendentes
+     * Busca intervenções pendentes (da fila em memória, sem as expiradas e as assumidas por operadores)
      */
     @Transactional(readOnly = true)
     public List<InterventionResponseDto> findPendingInterventions() {
+        if (interventionQueue.isEnabled()) {
+            return interventionQueue.findPending();
+        }
         return interventionRepository.findPendingInterventions()
                 .stream()
                 .map(this::mapToResponseDto)
@@ -170,10 +242,13 @@ public class InterventionService {
     }
 
     /**
-     * Busca intervenções de alta prioridade
+     * Busca intervenções de alta prioridade (da fila em memória, sem as expiradas e as assumidas por operadores)
      */
     @Transactional(readOnly = true)
     public List<InterventionResponseDto> findHighPriorityInterventions(Integer minPriority) {
+        if (interventionQueue.isEnabled()) {
+            return interventionQueue.findHighPriority(minPriority);
+        }
         return interventionRepository.findHighPriorityInterventions(minPriority)
                 .stream()
                 .map(this::mapToResponseDto)
@@ -291,7 +366,56 @@ public class InterventionService {
     }
 
     /**
-     * Executa intervenções automáticas agendadas
+     * Assume para o operador as próximas intervenções pendentes da fila; nenhuma intervenção é entregue a dois
+     * operadores. As não concluídas dentro do prazo de reserva voltam à fila. O banco só aceita a reserva de
+     * intervenções ainda pendentes e sem reserva vigente; as recusadas (concluídas ou assumidas por outra
+     * instância) saem da fila e não são entregues.
+     */
+    public List<InterventionResponseDto> claimInterventions(String operator, int count) {
+        List<InterventionResponseDto> claimed = interventionQueue.claim(operator, count);
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        List<Long> claimedIds = claimed.stream().map(InterventionResponseDto::getId).collect(Collectors.toList());
+        int[][] updated;
+        try {
+            LocalDateTime claimedAt = claimed.get(0).getClaimedAt();
+            Timestamp leaseStart = Timestamp.valueOf(claimedAt.minusMinutes(interventionQueue.getClaimLeaseMinutes()));
+            updated = jdbcTemplate.batchUpdate(CLAIM_INTERVENTION, claimedIds, claimedIds.size(), (statement, interventionId) -> {
+                statement.setString(1, operator);
+                statement.setTimestamp(2, Timestamp.valueOf(claimedAt));
+                statement.setLong(3, interventionId);
+                statement.setTimestamp(4, leaseStart);
+            });
+        } catch (RuntimeException e) {
+            interventionQueue.release(claimedIds);
+            throw e;
+        }
+
+        List<InterventionResponseDto> accepted = new ArrayList<>(claimed.size());
+        List<Long> rejectedIds = new ArrayList<>();
+        int index = 0;
+        for (int[] chunk : updated) {
+            for (int rows : chunk) {
+                InterventionResponseDto intervention = claimed.get(index++);
+                // SUCCESS_NO_INFO (-2) indica sucesso sem contagem de linhas
+                if (rows == 0) {
+                    rejectedIds.add(intervention.getId());
+                } else {
+                    accepted.add(intervention);
+                }
+            }
+        }
+        if (!rejectedIds.isEmpty()) {
+            log.info("{} intervenções recusadas pelo banco ao serem assumidas por {}: {}", rejectedIds.size(), operator, rejectedIds);
+            interventionQueue.removeAll(rejectedIds);
+        }
+        return accepted;
+    }
+
+    /**
+     * Executa intervenções automáticas agendadas já vencidas (o {@link InterventionScheduler} já as executa
+     * no horário; mantido para execução manual)
      */
     public List<InterventionResponseDto> executeScheduledAutomaticInterventions() {
         List<Intervention> scheduledInterventions = interventionRepository.findScheduledInterventionsToExecute(LocalDateTime.now());
@@ -301,6 +425,9 @@ public class InterventionService {
                 .map(intervention -> {
                     intervention.execute("SISTEMA_AUTOMATICO");
                     interventionRepository.save(intervention);
+                    interventionScheduler.unschedule(intervention.getId());
+                    interventionQueue.remove(intervention.getId());
+                    syncBettingBlock(intervention);
                     return mapToResponseDto(intervention);
                 })
                 .collect(Collectors.toList());
@@ -327,7 +454,77 @@ public class InterventionService {
         intervention.setPriority(determinePriority(riskLevel));
         intervention.setExpirationPeriod(24);
 
-        interventionRepository.save(intervention);
+        interventionQueue.add(mapToResponseDto(interventionRepository.save(intervention)));
+    }
+
+    /**
+     * Cria em lote as intervenções automáticas dos aumentos de nível de risco, uma por usuário e tipo,
+     * ignorando os tipos que o usuário já tem pendentes ou agendados
+     */
+    @Override
+    public void onRiskLevelChanges(List<RiskEvent> events) {
+        Map<Long, Map<InterventionType, RiskLevel>> requested = new LinkedHashMap<>();
+        for (RiskEvent event : events) {
+            RiskLevel previous = event.getPreviousLevel() != null ? event.getPreviousLevel() : RiskLevel.LOW;
+            if (event.getNewLevel().compareTo(previous) > 0) {
+                requested.computeIfAbsent(event.getUserId(), userId -> new EnumMap<>(InterventionType.class))
+                        .merge(determineInterventionType(event.getNewLevel()), event.getNewLevel(),
+                                (current, candidate) -> candidate.compareTo(current) > 0 ? candidate : current);
+            }
+        }
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        Set<String> open = new HashSet<>();
+        interventionRepository.findOpenInterventionTypes(requested.keySet())
+                .forEach(row -> open.add(row[0] + ":" + row[1]));
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        requested.forEach((userId, types) -> types.forEach((type, riskLevel) -> {
+            if (!open.contains(userId + ":" + type)) {
+                rows.add(new Object[]{userId, type.name(), generateInterventionTitle(riskLevel),
+                        generateInterventionDescription(riskLevel), generateInterventionMessage(riskLevel),
+                        determinePriority(riskLevel), Timestamp.valueOf(now.plusHours(24)), Timestamp.valueOf(now)});
+            }
+        }));
+        if (!rows.isEmpty()) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_AUTOMATIC_INTERVENTION, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int index) throws SQLException {
+                            Object[] row = rows.get(index);
+                            for (int column = 0; column < row.length; column++) {
+                                statement.setObject(column + 1, row[column]);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keyHolder);
+            List<Long> createdIds = keyHolder.getKeyList().stream()
+                    .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                    .collect(Collectors.toList());
+            interventionRepository.findAllWithUserByIdIn(createdIds).forEach(created -> interventionQueue.add(mapToResponseDto(created)));
+        }
+        log.info("{} intervenções automáticas criadas a partir de {} eventos de risco", rows.size(), events.size());
+    }
+
+    /**
+     * Atualiza o índice de bloqueios de apostas quando um bloqueio temporário é executado ou cancelado
+     */
+    private void syncBettingBlock(Intervention intervention) {
+        if (intervention.getInterventionType() != InterventionType.TEMPORARY_BLOCK) {
+            return;
+        }
+        if (intervention.getStatus() == Intervention.InterventionStatus.EXECUTED) {
+            bettingBlockService.block(intervention.getUser().getId(), intervention.getExpiresAt());
+        } else {
+            bettingBlockService.refreshUser(intervention.getUser().getId());
+        }
     }
 
     /**
@@ -412,6 +609,8 @@ public class InterventionService {
         dto.setIsAutomatic(intervention.getIsAutomatic());
         dto.setCreatedBy(intervention.getCreatedBy());
         dto.setExecutedBy(intervention.getExecutedBy());
+        dto.setClaimedBy(intervention.getClaimedBy());
+        dto.setClaimedAt(intervention.getClaimedAt());
         dto.setExecutionNotes(intervention.getExecutionNotes());
         dto.setUserResponse(intervention.getUserResponse());
         dto.setEffectivenessScore(intervention.getEffectivenessScore());
@@ -0,0 +1,177 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.AssessmentCacheMetricsDto;
+import br.com.gambling.dto.RiskAssessmentResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória da avaliação de risco ativa mais recente de cada usuário.
+ *
+ * Cada entrada expira no que vier primeiro entre o TTL configurado e o {@code validUntil} da avaliação,
+ * de modo que uma avaliação vencida nunca é reaproveitada pelo cache. A gravação de uma nova avaliação
+ * substitui a entrada e a desativação ou a gravação em lote a removem, sempre depois do commit. Ao
+ * atingir o limite de entradas, as vencidas são descartadas e, se ainda faltar espaço, as que vencem
+ * primeiro.
+ */
+@Service
+public class LatestAssessmentCache {
+
+    @Value("${gambling.risk.assessment-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${gambling.risk.assessment-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, CachedAssessment> entries = new ConcurrentHashMap<>();
+
+    // Incrementado a cada invalidação; uma carga do banco iniciada antes dela não é guardada
+    private final AtomicLong invalidationStamp = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Avaliação mais recente e ainda válida do usuário, carregando do banco em caso de ausência
+     */
+    public Optional<RiskAssessmentResponseDto> get(Long userId, Supplier<Optional<RiskAssessmentResponseDto>> loader) {
+        long now = System.currentTimeMillis();
+        CachedAssessment cached = entries.get(userId);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                hits.incrementAndGet();
+                return Optional.of(cached.assessment);
+            }
+            if (entries.remove(userId, cached)) {
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        long stamp = invalidationStamp.get();
+        Optional<RiskAssessmentResponseDto> loaded = loader.get();
+        loads.incrementAndGet();
+        loaded.ifPresent(assessment -> {
+            if (invalidationStamp.get() == stamp) {
+                store(userId, assessment);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Registra a avaliação recém-gravada como a mais recente do usuário, após o commit da transação corrente
+     */
+    public void put(Long userId, RiskAssessmentResponseDto assessment) {
+        TransactionCallbacks.afterCommit(() -> store(userId, assessment));
+    }
+
+    /**
+     * Remove a entrada do usuário, após o commit da transação corrente
+     */
+    public void invalidate(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            invalidationStamp.incrementAndGet();
+            if (entries.remove(userId) != null) {
+                invalidations.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Descarta periodicamente as entradas vencidas
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.assessment-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((userId, cached) -> {
+            if (cached.expiresAt <= now && entries.remove(userId, cached)) {
+                expirations.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Métricas de acerto e descarte do cache
+     */
+    public AssessmentCacheMetricsDto getMetrics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        AssessmentCacheMetricsDto dto = new AssessmentCacheMetricsDto();
+        dto.setSize(entries.size());
+        dto.setMaxEntries(maxEntries);
+        dto.setTtlSeconds(ttlSeconds);
+        dto.setHits(hitCount);
+        dto.setMisses(missCount);
+        dto.setHitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        dto.setLoads(loads.get());
+        dto.setExpirations(expirations.get());
+        dto.setEvictions(evictions.get());
+        dto.setInvalidations(invalidations.get());
+        return dto;
+    }
+
+    private void store(Long userId, RiskAssessmentResponseDto assessment) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        if (assessment.getValidUntil() != null) {
+            expiresAt = Math.min(expiresAt, assessment.getValidUntil().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        CachedAssessment cached = new CachedAssessment(assessment, expiresAt);
+        // Nunca substitui uma avaliação mais nova por uma mais antiga carregada em paralelo
+        entries.merge(userId, cached, (current, candidate) ->
+                candidate.assessment.getId() >= current.assessment.getId() ? candidate : current);
+        if (entries.size() > maxEntries) {
+            evictOverflow();
+        }
+    }
+
+    private synchronized void evictOverflow() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        purgeExpired();
+        int excess = entries.size() - maxEntries * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+                .limit(excess)
+                .toList()
+                .forEach(entry -> {
+                    if (entries.remove(entry.getKey(), entry.getValue())) {
+                        evictions.incrementAndGet();
+                    }
+                });
+    }
+
+    /**
+     * Avaliação guardada e o instante em que deixa de ser reaproveitada
+     */
+    private static final class CachedAssessment {
+
+        private final RiskAssessmentResponseDto assessment;
+        private final long expiresAt;
+
+        CachedAssessment(RiskAssessmentResponseDto assessment, long expiresAt) {
+            this.assessment = assessment;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.SessionEventType;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecção de perseguição de perdas dentro da sessão, à medida que as apostas chegam.
+ *
+ * Cada sessão ativa mantém uma janela deslizante com os últimos eventos (apostas e ganhos) em arrays
+ * primitivos de tamanho fixo. Uma aposta é uma escalada quando a aposta anterior foi perdida (os ganhos
+ * recebidos depois dela não a cobriram), a janela está no prejuízo e o novo valor atinge o fator
+ * configurado da aposta anterior. Ao acumular o mínimo configurado de escaladas na janela, a sessão passa
+ * a ser marcada com perseguição de perdas imediatamente, sem consultas ao banco; cada vez que isso ocorre
+ * conta um episódio, exposto às regras de risco como {@code SESSION_LOSS_CHASING_EPISODES}.
+ */
+@Service
+public class LossChasingDetector implements UserActivityListener {
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Value("${gambling.risk.loss-chasing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.risk.loss-chasing.window-size:32}")
+    private int windowSize;
+
+    @Value("${gambling.risk.loss-chasing.escalation-factor:1.5}")
+    private double escalationFactor;
+
+    @Value("${gambling.risk.loss-chasing.min-escalations:3}")
+    private int minEscalations;
+
+    @Value("${gambling.risk.loss-chasing.idle-minutes:240}")
+    private long idleMinutes;
+
+    private final Map<Long, SessionWindow> windows = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        userFeatureStore.addListener(this);
+    }
+
+    @Override
+    public void onEvent(Long sessionId, Long userId, SessionEventType type, double amount) {
+        if (!enabled) {
+            return;
+        }
+        SessionWindow window = windows.computeIfAbsent(sessionId, id -> new SessionWindow(windowSize));
+        synchronized (window) {
+            if (type == SessionEventType.BET) {
+                window.bet(amount, escalationFactor, minEscalations);
+            } else {
+                window.win(amount);
+            }
+        }
+    }
+
+    @Override
+    public void onSessionEnd(Long sessionId, Long userId, double netResult) {
+        windows.remove(sessionId);
+    }
+
+    /**
+     * Se a sessão já foi marcada com perseguição de perdas
+     */
+    public boolean isChasing(Long sessionId) {
+        return countEpisodes(sessionId) > 0;
+    }
+
+    /**
+     * Vezes em que a janela da sessão atingiu o mínimo de escaladas após perdas
+     */
+    public int countEpisodes(Long sessionId) {
+        SessionWindow window = windows.get(sessionId);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            return window.episodes;
+        }
+    }
+
+    /**
+     * Descarta as janelas de sessões sem eventos há mais tempo que o configurado (sessões abandonadas sem finalizar)
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.loss-chasing.purge-interval-ms:600000}")
+    public void purgeIdle() {
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000;
+        windows.values().removeIf(window -> window.lastEventAt < idleBefore);
+    }
+
+    /**
+     * Janela circular dos últimos eventos de uma sessão; acessada sob o monitor do próprio objeto
+     */
+    private static final class SessionWindow {
+
+        // Valor de cada evento com sinal: aposta negativa, ganho positivo
+        private final double[] amounts;
+        private final boolean[] escalations;
+        private int next;
+        private int size;
+        private double windowNet;
+        private int windowEscalations;
+
+        private double lastBet;
+        private double returnSinceLastBet;
+        private int episodes;
+        private volatile long lastEventAt = System.currentTimeMillis();
+
+        SessionWindow(int capacity) {
+            this.amounts = new double[Math.max(2, capacity)];
+            this.escalations = new boolean[amounts.length];
+        }
+
+        void bet(double amount, double escalationFactor, int minEscalations) {
+            boolean previousLost = lastBet > 0 && returnSinceLastBet < lastBet;
+            boolean escalation = previousLost && windowNet < 0 && amount >= escalationFactor * lastBet;
+            boolean wasChasing = windowEscalations >= minEscalations;
+            push(-amount, escalation);
+            if (!wasChasing && windowEscalations >= minEscalations) {
+                episodes++;
+            }
+            lastBet = amount;
+            returnSinceLastBet = 0;
+        }
+
+        void win(double amount) {
+            push(amount, false);
+            returnSinceLastBet += amount;
+        }
+
+        private void push(double signedAmount, boolean escalation) {
+            if (size == amounts.length) {
+                windowNet -= amounts[next];
+                if (escalations[next]) {
+                    windowEscalations--;
+                }
+            } else {
+                size++;
+            }
+            amounts[next] = signedAmount;
+            escalations[next] = escalation;
+            windowNet += signedAmount;
+            if (escalation) {
+                windowEscalations++;
+            }
+            next = (next + 1) % amounts.length;
+            lastEventAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.gambling.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Executa atualizações completas de entidades versionadas (@Version), cada tentativa em uma
+ * transação própria, repetindo um número limitado de vezes em caso de conflito otimista.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.concurrency.optimistic-retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${gambling.concurrency.optimistic-retry.backoff-ms:5}")
+    private long backoffMs;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Executa a ação em uma nova transação, repetindo-a enquanto houver conflito de versão
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Conflito de versão na tentativa {} de {}; repetindo", attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Espera aleatória com crescimento exponencial, para que as transações em conflito não colidam de novo
+     */
+    private void backoff(int attempt) {
+        long bound = backoffMs << Math.min(attempt, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Repetição interrompida", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.gambling.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coordenação dos processamentos em lote por páginas (reavaliação e backtest de risco).
+ *
+ * A thread chamadora lê a próxima página e entrega a tarefa dela a um {@link ForkJoinPool} próprio, com no
+ * máximo duas páginas por thread em andamento, até não haver mais páginas ou ser pedida a parada; ao sair,
+ * mesmo por exceção, aguarda as tarefas entregues terminarem. O tratamento de falhas de cada página fica
+ * com a tarefa.
+ */
+final class ParallelChunkRunner {
+
+    private ParallelChunkRunner() {}
+
+    /**
+     * Executa as tarefas retornadas por {@code nextChunk} (nulo quando não há mais páginas) com
+     * {@code parallelism} threads (0 = número de processadores)
+     */
+    static void run(int parallelism, BooleanSupplier stopped, Supplier<Runnable> nextChunk) throws InterruptedException {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        int maxInFlight = threads * 2;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            while (!stopped.getAsBoolean()) {
+                Runnable chunk = nextChunk.get();
+                if (chunk == null) {
+                    break;
+                }
+                inFlight.acquire();
+                try {
+                    pool.execute(() -> {
+                        try {
+                            chunk.run();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(maxInFlight);
+            pool.shutdown();
+        }
+    }
+}
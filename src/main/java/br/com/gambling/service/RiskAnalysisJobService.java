@@ -0,0 +1,335 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.RiskAnalysisJobDto;
+import br.com.gambling.dto.RiskAnalysisRequestDto;
+import br.com.gambling.dto.RiskAssessmentResponseDto;
+import br.com.gambling.enums.AnalysisJobStatus;
+import br.com.gambling.exception.AnalysisQueueFullException;
+import br.com.gambling.exception.InvalidCallbackUrlException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço de análises de risco com execução única por usuário.
+ *
+ * Pedidos simultâneos para o mesmo usuário e a mesma data de análise são agrupados em uma só análise
+ * em andamento: quem chega depois recebe o mesmo job (ou, no modo síncrono, aguarda o mesmo resultado)
+ * em vez de recalcular e gravar outra avaliação. Um pedido com reanálise forçada só se junta a uma
+ * análise que ainda não começou ou que também é forçada. As análises assíncronas rodam em um pool
+ * limitado com fila de tamanho fixo, ficam disponíveis para consulta por um tempo e, se informada uma
+ * URL de retorno, o resultado é enviado a ela ao concluir; as síncronas não são guardadas para consulta. Só são aceitas URLs de retorno para os hosts configurados,
+ * para que a API não possa ser usada para enviar requisições a serviços internos.
+ */
+@Service
+public class RiskAnalysisJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskAnalysisJobService.class);
+
+    @Autowired
+    private RiskAssessmentService riskAssessmentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gambling.risk.analysis-jobs.workers:4}")
+    private int workers;
+
+    @Value("${gambling.risk.analysis-jobs.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${gambling.risk.analysis-jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${gambling.risk.analysis-jobs.callback-timeout-ms:5000}")
+    private long callbackTimeoutMs;
+
+    @Value("${gambling.risk.analysis-jobs.callback-allowed-hosts:}")
+    private String[] callbackAllowedHosts;
+
+    private final Map<JobKey, AnalysisJob> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "analise-risco-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(callbackTimeoutMs))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Aceita uma análise assíncrona, juntando-a à análise em andamento do mesmo usuário quando possível
+     */
+    public RiskAnalysisJobDto submit(RiskAnalysisRequestDto request) {
+        AnalysisJob[] created = new AnalysisJob[1];
+        AnalysisJob job = acquire(request, AnalysisJobStatus.QUEUED, created);
+        if (created[0] != null) {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(job.key, job);
+                finish(job, null, new AnalysisQueueFullException(queueCapacity));
+                throw new AnalysisQueueFullException(queueCapacity);
+            }
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Realiza a análise e aguarda o resultado; pedidos simultâneos para o mesmo usuário aguardam
+     * a mesma análise
+     */
+    public RiskAssessmentResponseDto analyze(RiskAnalysisRequestDto request) {
+        AnalysisJob[] created = new AnalysisJob[1];
+        AnalysisJob job = acquire(request, AnalysisJobStatus.RUNNING, created);
+        if (created[0] != null) {
+            run(job);
+        }
+        return SessionCommandExecutor.join(job.future);
+    }
+
+    /**
+     * Situação de uma análise assíncrona
+     */
+    public Optional<RiskAnalysisJobDto> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(AnalysisJob::toDto);
+    }
+
+    /**
+     * Descarta as análises concluídas há mais tempo que a retenção configurada
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.analysis-jobs.purge-interval-ms:60000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    private AnalysisJob acquire(RiskAnalysisRequestDto request, AnalysisJobStatus initialStatus, AnalysisJob[] created) {
+        if (request.getCallbackUrl() != null) {
+            checkCallbackUrl(request.getCallbackUrl());
+        }
+        boolean force = Boolean.TRUE.equals(request.getForceReanalysis());
+        JobKey key = new JobKey(request.getUserId(), request.getAnalysisDate());
+        AnalysisJob job = inFlight.compute(key, (jobKey, current) -> {
+            if (current != null && current.join(force, request.getCallbackUrl())) {
+                return current;
+            }
+            created[0] = new AnalysisJob(jobKey, force, initialStatus, request.getCallbackUrl());
+            return created[0];
+        });
+        // Só as análises assíncronas são consultadas pelo identificador
+        if (initialStatus == AnalysisJobStatus.QUEUED) {
+            jobs.putIfAbsent(job.id, job);
+        }
+        return job;
+    }
+
+    /**
+     * Aceita só URLs http/https para um dos hosts configurados (sem redirecionamentos, que o cliente não segue)
+     */
+    private void checkCallbackUrl(String callbackUrl) {
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCallbackUrlException(callbackUrl);
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (host == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))
+                || Arrays.stream(callbackAllowedHosts).map(String::trim).noneMatch(host::equalsIgnoreCase)) {
+            throw new InvalidCallbackUrlException(callbackUrl);
+        }
+    }
+
+    private void run(AnalysisJob job) {
+        RiskAnalysisRequestDto request = new RiskAnalysisRequestDto();
+        request.setUserId(job.userId);
+        request.setAnalysisDate(job.analysisDate);
+        request.setForceReanalysis(job.begin());
+        try {
+            finish(job, riskAssessmentService.performRiskAnalysis(request), null);
+        } catch (RuntimeException e) {
+            finish(job, null, e);
+        } finally {
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private void finish(AnalysisJob job, RiskAssessmentResponseDto result, RuntimeException error) {
+        List<String> callbacks = job.complete(result, error);
+        if (error != null) {
+            job.future.completeExceptionally(error);
+        } else {
+            job.future.complete(result);
+        }
+        callbacks.forEach(callbackUrl -> sendCallback(callbackUrl, job.toDto()));
+    }
+
+    private void sendCallback(String callbackUrl, RiskAnalysisJobDto job) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(callbackUrl))
+                    .timeout(Duration.ofMillis(callbackTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(job)))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.warn("Falha ao enviar o resultado da análise {} para {}: {}", job.getJobId(), callbackUrl, error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            log.warn("Retorno da análise {} recusado por {} com status {}", job.getJobId(), callbackUrl, response.statusCode());
+                        }
+                    });
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Não foi possível enviar o resultado da análise {} para {}: {}", job.getJobId(), callbackUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Chave de agrupamento: só pedidos do mesmo usuário para a mesma data de análise compartilham o resultado
+     */
+    private record JobKey(Long userId, LocalDateTime analysisDate) {
+    }
+
+    /**
+     * Análise em andamento ou concluída, compartilhada por todos os pedidos agrupados nela
+     */
+    private static final class AnalysisJob {
+
+        private final String id = UUID.randomUUID().toString();
+        private final JobKey key;
+        private final Long userId;
+        private final LocalDateTime analysisDate;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<RiskAssessmentResponseDto> future = new CompletableFuture<>();
+        private final Set<String> callbacks = new LinkedHashSet<>(); // Cada URL é notificada uma vez
+        private boolean force;
+        private int requests = 1;
+        private AnalysisJobStatus status;
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+        private RiskAssessmentResponseDto result;
+        private String error;
+
+        AnalysisJob(JobKey key, boolean force, AnalysisJobStatus status, String callbackUrl) {
+            this.key = key;
+            this.userId = key.userId();
+            this.force = force;
+            this.analysisDate = key.analysisDate();
+            this.status = status;
+            if (status == AnalysisJobStatus.RUNNING) {
+                this.startedAt = submittedAt;
+            }
+            if (callbackUrl != null) {
+                callbacks.add(callbackUrl);
+            }
+        }
+
+        /**
+         * Junta um pedido a esta análise, se ela ainda puder atendê-lo
+         */
+        synchronized boolean join(boolean forceRequested, String callbackUrl) {
+            if (status == AnalysisJobStatus.COMPLETED || status == AnalysisJobStatus.FAILED) {
+                return false;
+            }
+            if (forceRequested && !force) {
+                // Uma análise não forçada já iniciada pode reaproveitar uma avaliação anterior ao pedido
+                if (status != AnalysisJobStatus.QUEUED) {
+                    return false;
+                }
+                force = true;
+            }
+            requests++;
+            if (callbackUrl != null) {
+                callbacks.add(callbackUrl);
+            }
+            return true;
+        }
+
+        /**
+         * Marca o início da execução, retornando se a reanálise é forçada
+         */
+        synchronized boolean begin() {
+            status = AnalysisJobStatus.RUNNING;
+            if (startedAt == null) {
+                startedAt = LocalDateTime.now();
+            }
+            return force;
+        }
+
+        /**
+         * Registra o resultado, retornando as URLs de retorno a notificar
+         */
+        synchronized List<String> complete(RiskAssessmentResponseDto result, RuntimeException error) {
+            this.status = error != null ? AnalysisJobStatus.FAILED : AnalysisJobStatus.COMPLETED;
+            this.result = result;
+            this.error = error != null ? error.getMessage() : null;
+            this.completedAt = LocalDateTime.now();
+            return List.copyOf(callbacks);
+        }
+
+        synchronized boolean isFinishedBefore(LocalDateTime cutoff) {
+            return completedAt != null && completedAt.isBefore(cutoff);
+        }
+
+        synchronized RiskAnalysisJobDto toDto() {
+            RiskAnalysisJobDto dto = new RiskAnalysisJobDto();
+            dto.setJobId(id);
+            dto.setUserId(userId);
+            dto.setStatus(status);
+            dto.setForceReanalysis(force);
+            dto.setCoalescedRequests(requests);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setCompletedAt(completedAt);
+            dto.setResult(result);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package br.com.gambling.service;
 
+import br.com.gambling.dto.AssessmentCacheMetricsDto;
+import br.com.gambling.dto.BetSizeProfileDto;
+import br.com.gambling.dto.LiveRiskScoreDto;
 import br.com.gambling.dto.RiskAnalysisRequestDto;
 import br.com.gambling.dto.RiskAssessmentResponseDto;
+import br.com.gambling.dto.UserFeaturesDto;
+import br.com.gambling.entity.BehavioralIndicators;
+import br.com.gambling.entity.FinancialIndicators;
 import br.com.gambling.entity.RiskAssessment;
+import br.com.gambling.entity.RiskEvent;
+import br.com.gambling.entity.SessionAnalysis;
+import br.com.gambling.entity.TemporalIndicators;
 import br.com.gambling.entity.User;
+import br.com.gambling.enums.FeatureWindow;
 import br.com.gambling.enums.RiskLevel;
+import br.com.gambling.enums.RiskRuleScope;
+import br.com.gambling.enums.UserFeature;
 import br.com.gambling.repository.RiskAssessmentRepository;
 import br.com.gambling.repository.UserRepository;
-import br.com.gambling.repository.GamblingSessionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -32,45 +44,104 @@ public class RiskAssessmentService {
     private UserRepository userRepository;
 
     @Autowired
-    private GamblingSessionRepository gamblingSessionRepository;
+    private IncrementalRiskScorer incrementalRiskScorer;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private RiskRuleEngine riskRuleEngine;
+
+    @Autowired
+    private LatestAssessmentCache latestAssessmentCache;
+
+    @Autowired
+    private BetSizeProfileService betSizeProfileService;
+
+    @Autowired
+    private RiskFeatureExtractor riskFeatureExtractor;
+
+    @Autowired
+    private RiskEventBus riskEventBus;
 
     /**
      * Realiza análise de risco de um usuário
      */
     public RiskAssessmentResponseDto performRiskAnalysis(RiskAnalysisRequestDto analysisRequest) {
+        // Verifica se já existe uma avaliação recente válida (entradas do cache nunca estão vencidas)
+        if (!analysisRequest.getForceReanalysis()) {
+            Optional<RiskAssessmentResponseDto> existingAssessment = findLatestByUser(analysisRequest.getUserId());
+            if (existingAssessment.isPresent() && !isExpired(existingAssessment.get())) {
+                return existingAssessment.get();
+            }
+        }
+
         return userRepository.findById(analysisRequest.getUserId())
                 .map(user -> {
-                    // Verifica se já existe uma avaliação recente válida
-                    if (!analysisRequest.getForceReanalysis()) {
-                        Optional<RiskAssessment> existingAssessment = riskAssessmentRepository.findLatestByUser(user);
-                        if (existingAssessment.isPresent() && !existingAssessment.get().isExpired()) {
-                            return mapToResponseDto(existingAssessment.get());
-                        }
-                    }
-
                     // Realiza nova análise
                     RiskAssessment assessment = createRiskAssessment(user, analysisRequest);
                     RiskAssessment savedAssessment = riskAssessmentRepository.save(assessment);
                     
-                    // Atualiza nível de risco do usuário
-                    user.setCurrentRiskLevel(assessment.getRiskLevel());
-                    userRepository.save(user);
+                    // Atualiza nível de risco do usuário; a mudança de nível segue pelo outbox para as intervenções automáticas
+                    RiskLevel previousLevel = user.getCurrentRiskLevel();
+                    userRepository.updateCurrentRiskLevel(user.getId(), assessment.getRiskLevel(), LocalDateTime.now());
+                    incrementalRiskScorer.onLevelAssigned(user.getId(), assessment.getRiskLevel());
+                    if (previousLevel != assessment.getRiskLevel()) {
+                        riskEventBus.publish(List.of(new RiskEvent(user.getId(), previousLevel,
+                                assessment.getRiskLevel(), RiskEventBus.SOURCE_ANALYSIS)));
+                    }
 
-                    return mapToResponseDto(savedAssessment);
+                    RiskAssessmentResponseDto response = mapToResponseDto(savedAssessment);
+                    latestAssessmentCache.put(user.getId(), response);
+                    return response;
                 })
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
     }
 
     /**
-     * Busca a avaliação mais recente de um usuário
+     * Busca a avaliação mais recente de um usuário, servida pelo cache quando ainda válida
      */
     @Transactional(readOnly = true)
     public Optional<RiskAssessmentResponseDto> findLatestByUser(Long userId) {
-        return userRepository.findById(userId)
-                .flatMap(user -> riskAssessmentRepository.findLatestByUser(user)
+        return latestAssessmentCache.get(userId, () ->
+                riskAssessmentRepository.findFirstByUserIdAndIsActiveTrueOrderByAssessmentDateDesc(userId)
                         .map(this::mapToResponseDto));
     }
 
+    /**
+     * Retorna os quantis dos valores apostados pelo usuário
+     */
+    @Transactional(readOnly = true)
+    public Optional<BetSizeProfileDto> findBetSizeProfile(Long userId) {
+        return betSizeProfileService.findProfile(userId);
+    }
+
+    /**
+     * Retorna as métricas do cache da avaliação mais recente
+     */
+    public AssessmentCacheMetricsDto getLatestAssessmentCacheMetrics() {
+        return latestAssessmentCache.getMetrics();
+    }
+
+    /**
+     * Retorna a pontuação de risco em tempo real do usuário, mantida pela pontuação incremental
+     */
+    @Transactional(readOnly = true)
+    public Optional<LiveRiskScoreDto> findLiveScore(Long userId) {
+        return incrementalRiskScorer.getLiveScore(userId);
+    }
+
+    /**
+     * Retorna as variáveis do usuário em todas as janelas móveis
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<UserFeaturesDto>> findUserFeatures(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(userFeatureStore.snapshots(userId));
+    }
+
     /**
      * Busca avaliações de um usuário
      */
@@ -140,6 +211,15 @@ public class RiskAssessmentService {
                 .map(this::mapToResponseDto);
     }
 
+    /**
+     * Busca avaliações ativas com saldo líquido abaixo do valor informado
+     */
+    @Transactional(readOnly = true)
+    public Page<RiskAssessmentResponseDto> findByNetBalanceBelow(Double netBalance, Pageable pageable) {
+        return riskAssessmentRepository.findActiveByNetBalanceBelow(netBalance, pageable)
+                .map(this::mapToResponseDto);
+    }
+
     /**
      * Calcula estatísticas de avaliações por período
      */
@@ -178,6 +258,7 @@ public class RiskAssessmentService {
                     
                     oldAssessments.forEach(RiskAssessment::deactivate);
                     riskAssessmentRepository.saveAll(oldAssessments);
+                    latestAssessmentCache.invalidate(userId);
                 });
     }
 
@@ -185,17 +266,25 @@ public class RiskAssessmentService {
      * Cria uma nova avaliação de risco
      */
     private RiskAssessment createRiskAssessment(User user, RiskAnalysisRequestDto analysisRequest) {
+        return buildAutomaticAssessment(user, analysisRequest.getAnalysisDate() != null ?
+                analysisRequest.getAnalysisDate() : LocalDateTime.now());
+    }
+
+    /**
+     * Monta uma avaliação automática do usuário sem gravá-la (usada também pela reavaliação em lote)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RiskAssessment buildAutomaticAssessment(User user, LocalDateTime assessmentDate) {
         RiskAssessment assessment = new RiskAssessment();
         assessment.setUser(user);
-        assessment.setAssessmentDate(analysisRequest.getAnalysisDate() != null ? 
-                analysisRequest.getAnalysisDate() : LocalDateTime.now());
+        assessment.setAssessmentDate(assessmentDate);
         assessment.setIsAutomatic(true);
         assessment.setAssessedBy("SISTEMA");
         assessment.setIsActive(true);
 
         // Calcula indicadores e nível de risco
         calculateRiskIndicators(assessment, user);
-        calculateRiskLevel(assessment);
+        calculateRiskLevel(assessment, user);
 
         // Define período de validade (30 dias)
         assessment.setValidityPeriod(30);
@@ -207,100 +296,71 @@ public class RiskAssessmentService {
      * Calcula indicadores de risco
      */
     private void calculateRiskIndicators(RiskAssessment assessment, User user) {
-        // Indicadores comportamentais
-        String behavioralIndicators = calculateBehavioralIndicators(user);
-        assessment.setBehavioralIndicators(behavioralIndicators);
-
-        // Indicadores financeiros
-        String financialIndicators = calculateFinancialIndicators(user);
-        assessment.setFinancialIndicators(financialIndicators);
-
-        // Indicadores temporais
-        String temporalIndicators = calculateTemporalIndicators(user);
-        assessment.setTemporalIndicators(temporalIndicators);
-
-        // Análise de sessões
-        String sessionAnalysis = analyzeUserSessions(user);
-        assessment.setSessionAnalysis(sessionAnalysis);
+        assessment.setBehavioralIndicators(calculateBehavioralIndicators(user));
+        assessment.setFinancialIndicators(calculateFinancialIndicators(user));
+        assessment.setTemporalIndicators(new TemporalIndicators(user.getCreatedAt(), user.getLastActivity()));
+        assessment.setSessionAnalysis(analyzeUserSessions(user));
     }
 
     /**
      * Calcula indicadores comportamentais
      */
-    private String calculateBehavioralIndicators(User user) {
-        return String.format("{\"sessionCount\":%d,\"lastActivity\":\"%s\",\"isActive\":%s}",
+    private BehavioralIndicators calculateBehavioralIndicators(User user) {
+        Long userId = user.getId();
+        return new BehavioralIndicators(
                 user.getSessionCount(),
-                user.getLastActivity(),
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.HOUR_1, UserFeature.BET_COUNT)),
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.SESSION_COUNT)),
+                userFeatureStore.countDistinctGameTypes(userId, FeatureWindow.DAYS_30),
                 user.getIsActive());
     }
 
     /**
      * Calcula indicadores financeiros
      */
-    private String calculateFinancialIndicators(User user) {
-        return String.format("{\"totalDeposits\":%.2f,\"totalWithdrawals\":%.2f,\"netBalance\":%.2f}",
+    private FinancialIndicators calculateFinancialIndicators(User user) {
+        Long userId = user.getId();
+        return new FinancialIndicators(
                 user.getTotalDeposits(),
                 user.getTotalWithdrawals(),
-                user.getNetBalance());
-    }
-
-    /**
-     * Calcula indicadores temporais
-     */
-    private String calculateTemporalIndicators(User user) {
-        return String.format("{\"createdAt\":\"%s\",\"lastActivity\":\"%s\"}",
-                user.getCreatedAt(),
-                user.getLastActivity());
+                user.getNetBalance(),
+                userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.DEPOSIT_SUM),
+                userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.DEPOSIT_SUM),
+                userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.NET_LOSS),
+                userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.NET_LOSS));
     }
 
     /**
-     * Analisa sessões do usuário
+     * Analisa sessões do usuário a partir das janelas móveis, sem consulta agregada ao banco
      */
-    private String analyzeUserSessions(User user) {
-        Object[] sessionStats = gamblingSessionRepository.calculateUserSessionStatistics(user.getId());
-        if (sessionStats != null && sessionStats.length > 0) {
-            return String.format("{\"totalSessions\":%d,\"avgDuration\":%.2f,\"totalBets\":%.2f}",
-                    sessionStats[0], sessionStats[1], sessionStats[2]);
-        }
-        return "{\"totalSessions\":0,\"avgDuration\":0,\"totalBets\":0}";
+    private SessionAnalysis analyzeUserSessions(User user) {
+        Long userId = user.getId();
+        return new SessionAnalysis(
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.DAYS_7, UserFeature.SESSION_COUNT)),
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.SESSION_COUNT)),
+                userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.BET_SUM),
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.BET_COUNT)),
+                (int) Math.round(userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.SIGNIFICANT_LOSS_SESSIONS)));
     }
 
     /**
-     * Calcula o nível de risco baseado nos indicadores
+     * Calcula o nível de risco pelas regras de escopo de usuário
      */
-    private void calculateRiskLevel(RiskAssessment assessment) {
-        double riskScore = 0.0;
-        String reason = "";
-
-        // Análise baseada nos indicadores
-        if (assessment.getBehavioralIndicators() != null) {
-            // Lógica simplificada para cálculo de risco
-            riskScore += 20; // Base score
-        }
-
-        if (assessment.getFinancialIndicators() != null) {
-            riskScore += 30; // Financial indicators
-        }
-
-        if (assessment.getSessionAnalysis() != null) {
-            riskScore += 25; // Session analysis
-        }
-
+    private void calculateRiskLevel(RiskAssessment assessment, User user) {
+        RiskRuleResult result = riskRuleEngine.evaluate(RiskRuleScope.USER, riskFeatureExtractor.forUser(user));
+        double riskScore = Math.min(100.0, result.getScore());
         assessment.setRiskScore(riskScore);
 
         // Define nível de risco baseado no score
-        if (riskScore >= 80) {
-            assessment.setRiskLevel(RiskLevel.CRITICAL);
-            reason = "Múltiplos indicadores de risco crítico detectados";
-        } else if (riskScore >= 60) {
-            assessment.setRiskLevel(RiskLevel.HIGH);
-            reason = "Indicadores de alto risco identificados";
-        } else if (riskScore >= 40) {
-            assessment.setRiskLevel(RiskLevel.MEDIUM);
-            reason = "Alguns indicadores de risco moderado";
-        } else {
-            assessment.setRiskLevel(RiskLevel.LOW);
-            reason = "Baixo risco identificado";
+        assessment.setRiskLevel(RiskLevel.fromScore(riskScore));
+        String reason = switch (assessment.getRiskLevel()) {
+            case CRITICAL -> "Múltiplos indicadores de risco crítico detectados";
+            case HIGH -> "Indicadores de alto risco identificados";
+            case MEDIUM -> "Alguns indicadores de risco moderado";
+            case LOW -> "Baixo risco identificado";
+        };
+        if (!result.getMatchedRules().isEmpty()) {
+            reason += " (regras: " + String.join(", ", result.getMatchedRules()) + ")";
         }
 
         assessment.setAssessmentReason(reason);
@@ -319,6 +379,10 @@ public class RiskAssessmentService {
         };
     }
 
+    private static boolean isExpired(RiskAssessmentResponseDto assessment) {
+        return assessment.getValidUntil() != null && LocalDateTime.now().isAfter(assessment.getValidUntil());
+    }
+
     /**
      * Mapeia entidade RiskAssessment para DTO de resposta
      */
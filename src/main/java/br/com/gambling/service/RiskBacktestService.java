@@ -0,0 +1,356 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.RiskBacktestDto;
+import br.com.gambling.dto.RiskBacktestRequestDto;
+import br.com.gambling.enums.AnalysisJobStatus;
+import br.com.gambling.enums.RiskFeature;
+import br.com.gambling.enums.RiskLevel;
+import br.com.gambling.enums.RiskRuleScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Backtest de regras de risco candidatas sobre o histórico de sessões, sem gravar avaliações.
+ *
+ * Uma thread coordenadora percorre {@code usuarios} com paginação por chave e entrega cada página ao
+ * {@link ParallelChunkRunner}; cada página lê em streaming as sessões dos seus usuários até a data de referência,
+ * reproduz as variáveis de usuário das regras (as mesmas janelas do {@link UserFeatureStore}) e classifica
+ * cada usuário pelas regras correntes e pelas candidatas. O resultado é a matriz de transição entre os
+ * níveis. A memória fica limitada às páginas em andamento (no máximo duas por thread), qualquer que seja
+ * o tamanho do histórico.
+ *
+ * Os depósitos não têm histórico por data: as variáveis de depósito em janela ficam zeradas e os totais
+ * de depósitos e saques são os atuais do usuário, iguais para os dois conjuntos de regras.
+ */
+@Service
+public class RiskBacktestService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskBacktestService.class);
+
+    private static final String SELECT_USERS = "SELECT id, total_depositos, total_saques FROM usuarios " +
+            "WHERE id > ? AND criado_em <= ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_SESSIONS = "SELECT id_usuario, inicio_sessao, fim_sessao, valor_total_apostas, " +
+            "valor_total_ganhos, contador_apostas, resultado_liquido, tipo_jogo FROM sessoes_apostas " +
+            "WHERE id_usuario BETWEEN ? AND ? AND inicio_sessao <= ?";
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final RiskLevel[] LEVELS = RiskLevel.values();
+
+    @Autowired
+    private RiskRuleEngine riskRuleEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${gambling.risk.backtest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${gambling.risk.backtest.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${gambling.risk.backtest.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicReference<Backtest> currentBacktest = new AtomicReference<>();
+    private volatile Backtest lastBacktest;
+
+    /**
+     * Compila as regras candidatas e inicia o backtest em segundo plano.
+     * Retorna vazio se já houver um backtest em andamento.
+     */
+    public Optional<RiskBacktestDto> start(RiskBacktestRequestDto request) {
+        RiskRuleEngine.RuleSet candidate = riskRuleEngine.compile(request.getRules());
+        LocalDateTime asOf = request.getAsOf() != null ? request.getAsOf() : LocalDateTime.now();
+        Backtest backtest = new Backtest(riskRuleEngine.current(), candidate, asOf);
+        if (!currentBacktest.compareAndSet(null, backtest)) {
+            return Optional.empty();
+        }
+        lastBacktest = backtest;
+        Thread coordinator = new Thread(() -> execute(backtest), "backtest-risco");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Backtest de regras de risco {} iniciado com data de referência {}", backtest.id, asOf);
+        return Optional.of(backtest.toDto());
+    }
+
+    /**
+     * Progresso e resultado do backtest corrente ou do último executado
+     */
+    public Optional<RiskBacktestDto> getStatus() {
+        return Optional.ofNullable(lastBacktest).map(Backtest::toDto);
+    }
+
+    /**
+     * Laço da thread coordenadora: lê a próxima página de usuários e a entrega ao {@link ParallelChunkRunner}
+     */
+    private void execute(Backtest backtest) {
+        Timestamp asOf = Timestamp.valueOf(backtest.asOf);
+        long[] afterId = {0L};
+        try {
+            ParallelChunkRunner.run(parallelism, () -> backtest.error != null, () -> {
+                List<UserReplay> users = jdbcTemplate.query(SELECT_USERS, (rs, rowNum) ->
+                        new UserReplay(rs.getLong(1), rs.getDouble(2), rs.getDouble(3)), afterId[0], asOf, chunkSize);
+                if (users.isEmpty()) {
+                    return null;
+                }
+                afterId[0] = users.get(users.size() - 1).userId;
+                return () -> {
+                    try {
+                        replayChunk(backtest, users);
+                    } catch (RuntimeException e) {
+                        log.error("Falha no backtest {} ao reproduzir {} usuários até o ID {}",
+                                backtest.id, users.size(), users.get(users.size() - 1).userId, e);
+                        backtest.fail(e);
+                    }
+                };
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            backtest.fail(new IllegalStateException("Backtest interrompido"));
+        } catch (RuntimeException e) {
+            log.error("Backtest de regras de risco {} encerrado por falha", backtest.id, e);
+            backtest.fail(e);
+        } finally {
+            backtest.completedNanos = System.nanoTime();
+            backtest.completedAt = LocalDateTime.now();
+            currentBacktest.set(null);
+            log.info("Backtest de regras de risco {} finalizado: {} usuários, {} sessões, {} mudanças de nível",
+                    backtest.id, backtest.processedUsers.get(), backtest.replayedSessions.get(), backtest.changedUsers());
+        }
+    }
+
+    /**
+     * Reproduz as sessões de uma página de usuários e soma as classificações à matriz de transição
+     */
+    private void replayChunk(Backtest backtest, List<UserReplay> users) {
+        Map<Long, UserReplay> byId = new HashMap<>(users.size() * 2);
+        users.forEach(user -> byId.put(user.userId, user));
+        long asOfMillis = Timestamp.valueOf(backtest.asOf).getTime();
+        long[] sessions = new long[1];
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SESSIONS);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, users.get(0).userId);
+            statement.setLong(2, users.get(users.size() - 1).userId);
+            statement.setTimestamp(3, Timestamp.valueOf(backtest.asOf));
+            return statement;
+        }, (ResultSet rs) -> {
+            UserReplay user = byId.get(rs.getLong(1));
+            if (user != null) {
+                user.add(rs, asOfMillis);
+                sessions[0]++;
+            }
+        });
+
+        for (UserReplay user : users) {
+            double[] features = user.toFeatures();
+            RiskLevel current = levelOf(backtest.current, features);
+            RiskLevel candidate = levelOf(backtest.candidate, features);
+            backtest.transitions.incrementAndGet(current.ordinal() * LEVELS.length + candidate.ordinal());
+        }
+        backtest.processedUsers.addAndGet(users.size());
+        backtest.replayedSessions.addAndGet(sessions[0]);
+    }
+
+    private static RiskLevel levelOf(RiskRuleEngine.RuleSet rules, double[] features) {
+        return RiskLevel.fromScore(Math.min(100.0, rules.evaluate(RiskRuleScope.USER, features).getScore()));
+    }
+
+    /**
+     * Variáveis de um usuário acumuladas a partir das suas sessões, com as mesmas janelas do {@link UserFeatureStore}:
+     * totais da sessão contam no início e perdas significativas no fim
+     */
+    private static final class UserReplay {
+
+        private final long userId;
+        private final double totalDeposits;
+        private final double totalWithdrawals;
+        private long lifetimeSessions;
+        private double betsLastHour;
+        private double betSum24h;
+        private double netLoss24h;
+        private double netLoss30d;
+        private int sessions24h;
+        private int sessions7d;
+        private int sessions30d;
+        private int significantLosses24h;
+        private int significantLosses30d;
+        private Set<String> gameTypes30d;
+
+        UserReplay(long userId, double totalDeposits, double totalWithdrawals) {
+            this.userId = userId;
+            this.totalDeposits = totalDeposits;
+            this.totalWithdrawals = totalWithdrawals;
+        }
+
+        void add(ResultSet rs, long asOfMillis) throws SQLException {
+            lifetimeSessions++;
+            long startAge = asOfMillis - rs.getTimestamp(2).getTime();
+            Timestamp end = rs.getTimestamp(3);
+            double totalBet = rs.getDouble(4);
+            double netLoss = totalBet - rs.getDouble(5);
+            int betCount = rs.getInt(6);
+            double netResult = rs.getDouble(7);
+
+            if (startAge < 30 * DAY_MILLIS) {
+                sessions30d++;
+                netLoss30d += netLoss;
+                String gameType = rs.getString(8);
+                if (gameType != null) {
+                    if (gameTypes30d == null) {
+                        gameTypes30d = new HashSet<>();
+                    }
+                    gameTypes30d.add(gameType);
+                }
+                if (startAge < 7 * DAY_MILLIS) {
+                    sessions7d++;
+                }
+                if (startAge < DAY_MILLIS) {
+                    sessions24h++;
+                    betSum24h += totalBet;
+                    netLoss24h += netLoss;
+                }
+                if (startAge < HOUR_MILLIS) {
+                    betsLastHour += betCount;
+                }
+            }
+            if (end != null && netResult < UserFeatureStore.SIGNIFICANT_LOSS) {
+                long endAge = asOfMillis - end.getTime();
+                if (endAge >= 0 && endAge < 30 * DAY_MILLIS) {
+                    significantLosses30d++;
+                    if (endAge < DAY_MILLIS) {
+                        significantLosses24h++;
+                    }
+                }
+            }
+        }
+
+        double[] toFeatures() {
+            double[] vector = new double[RiskFeatureExtractor.SIZE];
+            vector[RiskFeature.BETS_LAST_HOUR.ordinal()] = betsLastHour;
+            vector[RiskFeature.BET_SUM_24H.ordinal()] = betSum24h;
+            vector[RiskFeature.NET_LOSS_24H.ordinal()] = netLoss24h;
+            vector[RiskFeature.NET_LOSS_30D.ordinal()] = netLoss30d;
+            vector[RiskFeature.SESSIONS_24H.ordinal()] = sessions24h;
+            vector[RiskFeature.SESSIONS_7D.ordinal()] = sessions7d;
+            vector[RiskFeature.SESSIONS_30D.ordinal()] = sessions30d;
+            vector[RiskFeature.SIGNIFICANT_LOSSES_24H.ordinal()] = significantLosses24h;
+            vector[RiskFeature.SIGNIFICANT_LOSSES_30D.ordinal()] = significantLosses30d;
+            vector[RiskFeature.DISTINCT_GAME_TYPES_30D.ordinal()] = gameTypes30d != null ? gameTypes30d.size() : 0;
+            vector[RiskFeature.TOTAL_DEPOSITS.ordinal()] = totalDeposits;
+            vector[RiskFeature.NET_BALANCE.ordinal()] = totalDeposits - totalWithdrawals;
+            vector[RiskFeature.LIFETIME_SESSIONS.ordinal()] = lifetimeSessions;
+            return vector;
+        }
+    }
+
+    /**
+     * Estado de um backtest: as regras comparadas e a matriz de transição acumulada pelas páginas
+     */
+    private static final class Backtest {
+
+        private final String id = UUID.randomUUID().toString();
+        private final RiskRuleEngine.RuleSet current;
+        private final RiskRuleEngine.RuleSet candidate;
+        private final LocalDateTime asOf;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLongArray transitions = new AtomicLongArray(LEVELS.length * LEVELS.length);
+        private final AtomicLong processedUsers = new AtomicLong();
+        private final AtomicLong replayedSessions = new AtomicLong();
+        private volatile LocalDateTime completedAt;
+        private volatile long completedNanos;
+        private volatile String error;
+
+        Backtest(RiskRuleEngine.RuleSet current, RiskRuleEngine.RuleSet candidate, LocalDateTime asOf) {
+            this.current = current;
+            this.candidate = candidate;
+            this.asOf = asOf;
+        }
+
+        void fail(RuntimeException e) {
+            if (error == null) {
+                error = e.getMessage();
+            }
+        }
+
+        long changedUsers() {
+            long changed = 0;
+            for (int from = 0; from < LEVELS.length; from++) {
+                for (int to = 0; to < LEVELS.length; to++) {
+                    if (from != to) {
+                        changed += transitions.get(from * LEVELS.length + to);
+                    }
+                }
+            }
+            return changed;
+        }
+
+        RiskBacktestDto toDto() {
+            Map<RiskLevel, Map<RiskLevel, Long>> matrix = new EnumMap<>(RiskLevel.class);
+            long upgraded = 0;
+            long downgraded = 0;
+            for (RiskLevel from : LEVELS) {
+                Map<RiskLevel, Long> row = new EnumMap<>(RiskLevel.class);
+                for (RiskLevel to : LEVELS) {
+                    long count = transitions.get(from.ordinal() * LEVELS.length + to.ordinal());
+                    row.put(to, count);
+                    if (to.ordinal() > from.ordinal()) {
+                        upgraded += count;
+                    } else if (to.ordinal() < from.ordinal()) {
+                        downgraded += count;
+                    }
+                }
+                matrix.put(from, row);
+            }
+
+            LocalDateTime finishedAt = completedAt;
+            long endNanos = finishedAt != null ? completedNanos : System.nanoTime();
+            double seconds = (endNanos - startedNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            RiskBacktestDto dto = new RiskBacktestDto();
+            dto.setBacktestId(id);
+            dto.setStatus(finishedAt == null ? AnalysisJobStatus.RUNNING
+                    : error != null ? AnalysisJobStatus.FAILED : AnalysisJobStatus.COMPLETED);
+            dto.setAsOf(asOf);
+            dto.setCurrentUserRules(current.size(RiskRuleScope.USER));
+            dto.setCandidateUserRules(candidate.size(RiskRuleScope.USER));
+            dto.setProcessedUsers(processedUsers.get());
+            dto.setReplayedSessions(replayedSessions.get());
+            dto.setChangedUsers(upgraded + downgraded);
+            dto.setUpgradedUsers(upgraded);
+            dto.setDowngradedUsers(downgraded);
+            dto.setTransitions(matrix);
+            dto.setUsersPerSecond(seconds > 0 ? processedUsers.get() / seconds : 0.0);
+            dto.setSessionsPerSecond(seconds > 0 ? replayedSessions.get() / seconds : 0.0);
+            dto.setStartedAt(startedAt);
+            dto.setCompletedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.gambling.service;
+
+import br.com.gambling.entity.RiskEvent;
+import br.com.gambling.repository.RiskEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barramento em processo dos eventos de risco, com outbox transacional.
+ *
+ * Quem muda o nível de risco de um usuário publica o evento na mesma transação da mudança: o evento é
+ * gravado em {@code eventos_risco} e, após o commit, a thread de entrega é acordada. A thread lê os eventos
+ * pendentes em lotes, entrega cada lote aos {@link RiskEventListener} registrados e o marca como entregue
+ * na mesma transação, fora do caminho da requisição. Eventos de uma transação desfeita nunca são entregues;
+ * eventos pendentes após uma queda ou falha são retomados na verificação periódica.
+ *
+ * Se um assinante falha, o lote é desfeito e os eventos são entregues um a um, cada um em sua transação: os
+ * demais seguem e o que falhou tem as tentativas e o erro registrados. Ao atingir o máximo de tentativas o
+ * evento é estacionado (fica no outbox sem ser entregue) para análise.
+ */
+@Service
+public class RiskEventBus implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskEventBus.class);
+
+    public static final String SOURCE_ANALYSIS = "ANALISE";
+    public static final String SOURCE_RESCORING = "REAVALIACAO";
+    public static final String SOURCE_INCREMENTAL = "INCREMENTAL";
+
+    private static final String INSERT_EVENT = "INSERT INTO eventos_risco (id_usuario, nivel_anterior, nivel_novo, " +
+            "origem, criado_em, tentativas) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private static final String MARK_PROCESSED = "UPDATE eventos_risco SET processado_em = ? WHERE id = ?";
+
+    private static final String RECORD_FAILURE = "UPDATE eventos_risco SET tentativas = tentativas + 1, ultimo_erro = ? " +
+            "WHERE id = ?";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private RiskEventRepository riskEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.risk.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${gambling.risk.events.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${gambling.risk.events.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${gambling.risk.events.max-attempts:5}")
+    private int maxAttempts;
+
+    private final List<RiskEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running = true;
+    private Thread dispatcher;
+
+    public RiskEventBus(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inicia a entrega só depois que todos os assinantes se registraram
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        dispatcher = new Thread(this::dispatchLoop, "eventos-risco");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        wakeUp.release();
+        if (dispatcher != null) {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void addListener(RiskEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registra as mudanças de nível na transação corrente; a entrega começa após o commit
+     */
+    public void publish(List<RiskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setLong(1, event.getUserId());
+            statement.setString(2, event.getPreviousLevel() != null ? event.getPreviousLevel().name() : null);
+            statement.setString(3, event.getNewLevel().name());
+            statement.setString(4, event.getSource());
+            statement.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+        });
+        TransactionCallbacks.afterCommit(wakeUp::release);
+    }
+
+    /**
+     * Quantidade de eventos ainda não entregues
+     */
+    public long countPending() {
+        return riskEventRepository.countPending(maxAttempts);
+    }
+
+    /**
+     * Quantidade de eventos estacionados após falhas repetidas na entrega
+     */
+    public long countParked() {
+        return riskEventRepository.countParked(maxAttempts);
+    }
+
+    /**
+     * Remove os eventos entregues há mais tempo que a retenção configurada
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.events.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer removed = transactionTemplate.execute(status -> riskEventRepository.deleteProcessedBefore(before));
+        if (removed != null && removed > 0) {
+            log.info("{} eventos de risco entregues removidos do outbox", removed);
+        }
+    }
+
+    /**
+     * Laço da thread de entrega: aguarda um aviso de commit (ou o intervalo de verificação) e entrega
+     * lotes até não haver pendentes
+     */
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                while (running && dispatchBatch() == batchSize) {
+                    // Lote cheio: pode haver mais eventos pendentes
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha ao entregar eventos de risco; nova tentativa na próxima verificação", e);
+            }
+        }
+    }
+
+    /**
+     * Entrega um lote de pendentes, retornando o tamanho do lote quando todos foram entregues (0 se algum
+     * falhou, para a nova tentativa aguardar a próxima verificação)
+     */
+    private int dispatchBatch() {
+        List<RiskEvent> events = riskEventRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliver(events));
+            return events.size();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao entregar lote de {} eventos de risco; entregando um a um", events.size(), e);
+        }
+        int failed = 0;
+        for (RiskEvent event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> deliver(List.of(event)));
+            } catch (RuntimeException e) {
+                failed++;
+                recordFailure(event, e);
+            }
+        }
+        return failed == 0 ? events.size() : 0;
+    }
+
+    private void deliver(List<RiskEvent> events) {
+        listeners.forEach(listener -> listener.onRiskLevelChanges(events));
+        Timestamp processedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(MARK_PROCESSED, events, events.size(), (statement, event) -> {
+            statement.setTimestamp(1, processedAt);
+            statement.setLong(2, event.getId());
+        });
+    }
+
+    private void recordFailure(RiskEvent event, RuntimeException failure) {
+        String error = String.valueOf(failure);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RECORD_FAILURE,
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, event.getId()));
+        if (event.getAttempts() + 1 >= maxAttempts) {
+            log.error("Evento de risco {} do usuário {} estacionado após {} tentativas de entrega",
+                    event.getId(), event.getUserId(), maxAttempts, failure);
+        } else {
+            log.warn("Falha ao entregar o evento de risco {} do usuário {} (tentativa {} de {})",
+                    event.getId(), event.getUserId(), event.getAttempts() + 1, maxAttempts, failure);
+        }
+    }
+}
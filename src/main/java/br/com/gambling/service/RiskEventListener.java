@@ -0,0 +1,18 @@
+package br.com.gambling.service;
+
+import br.com.gambling.entity.RiskEvent;
+
+import java.util.List;
+
+/**
+ * Recebe em lote os eventos de risco entregues pelo {@link RiskEventBus}
+ */
+public interface RiskEventListener {
+
+    /**
+     * Mudanças de nível de risco, em ordem de registro. Chamado na transação que marca os eventos como
+     * entregues: uma exceção desfaz o lote, cujos eventos são então entregues um a um; um evento que
+     * falha repetidamente é estacionado sem bloquear os demais.
+     */
+    void onRiskLevelChanges(List<RiskEvent> events);
+}
@@ -0,0 +1,83 @@
+package br.com.gambling.service;
+
+import br.com.gambling.entity.GamblingSession;
+import br.com.gambling.entity.User;
+import br.com.gambling.enums.FeatureWindow;
+import br.com.gambling.enums.RiskFeature;
+import br.com.gambling.enums.UserFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Monta os vetores de variáveis avaliados pelas regras de risco, a partir das janelas móveis do
+ * {@link UserFeatureStore}, dos totais do usuário, dos totais da sessão e do perfil de valores apostados
+ */
+@Service
+public class RiskFeatureExtractor {
+
+    public static final int SIZE = RiskFeature.values().length;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private BetSizeProfileService betSizeProfileService;
+
+    @Autowired
+    private LossChasingDetector lossChasingDetector;
+
+    /**
+     * Vetor do escopo de usuário (variáveis de sessão zeradas)
+     */
+    public double[] forUser(User user) {
+        return forUser(user.getId(), valueOf(user.getTotalDeposits()), valueOf(user.getTotalWithdrawals()),
+                user.getSessionCount() != null ? user.getSessionCount() : 0);
+    }
+
+    /**
+     * Vetor do escopo de usuário a partir dos totais acumulados já conhecidos, sem a entidade (pontuação incremental)
+     */
+    public double[] forUser(Long userId, double totalDeposits, double totalWithdrawals, int sessionCount) {
+        double[] vector = new double[SIZE];
+        set(vector, RiskFeature.BETS_LAST_HOUR, userFeatureStore.get(userId, FeatureWindow.HOUR_1, UserFeature.BET_COUNT));
+        set(vector, RiskFeature.BET_SUM_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.BET_SUM));
+        set(vector, RiskFeature.NET_LOSS_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.NET_LOSS));
+        set(vector, RiskFeature.NET_LOSS_30D, userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.NET_LOSS));
+        set(vector, RiskFeature.SESSIONS_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.SESSION_COUNT));
+        set(vector, RiskFeature.SESSIONS_7D, userFeatureStore.get(userId, FeatureWindow.DAYS_7, UserFeature.SESSION_COUNT));
+        set(vector, RiskFeature.SESSIONS_30D, userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.SESSION_COUNT));
+        set(vector, RiskFeature.DEPOSITS_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.DEPOSIT_SUM));
+        set(vector, RiskFeature.DEPOSIT_COUNT_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.DEPOSIT_COUNT));
+        set(vector, RiskFeature.DEPOSITS_30D, userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.DEPOSIT_SUM));
+        set(vector, RiskFeature.SIGNIFICANT_LOSSES_24H, userFeatureStore.get(userId, FeatureWindow.HOURS_24, UserFeature.SIGNIFICANT_LOSS_SESSIONS));
+        set(vector, RiskFeature.SIGNIFICANT_LOSSES_30D, userFeatureStore.get(userId, FeatureWindow.DAYS_30, UserFeature.SIGNIFICANT_LOSS_SESSIONS));
+        set(vector, RiskFeature.DISTINCT_GAME_TYPES_30D, userFeatureStore.countDistinctGameTypes(userId, FeatureWindow.DAYS_30));
+        set(vector, RiskFeature.TOTAL_DEPOSITS, totalDeposits);
+        set(vector, RiskFeature.NET_BALANCE, totalDeposits - totalWithdrawals);
+        set(vector, RiskFeature.LIFETIME_SESSIONS, sessionCount);
+        return vector;
+    }
+
+    /**
+     * Vetor do escopo de sessão: variáveis do usuário mais os totais da sessão
+     */
+    public double[] forSession(GamblingSession session) {
+        double[] vector = forUser(session.getUser());
+        set(vector, RiskFeature.SESSION_NET_RESULT, valueOf(session.getNetResult()));
+        set(vector, RiskFeature.SESSION_MAX_BET, valueOf(session.getMaxBetAmount()));
+        set(vector, RiskFeature.SESSION_DURATION_MINUTES, session.getDurationMinutes() != null ? session.getDurationMinutes() : 0);
+        set(vector, RiskFeature.SESSION_BET_COUNT, session.getBetCount() != null ? session.getBetCount() : 0);
+        set(vector, RiskFeature.SESSION_ANOMALOUS_BETS, betSizeProfileService.countAnomalousBets(session.getId()));
+        set(vector, RiskFeature.SESSION_USER_PROFILE_READY, betSizeProfileService.isProfileReady(session.getUser().getId()) ? 1 : 0);
+        set(vector, RiskFeature.SESSION_LOSS_CHASING_EPISODES, lossChasingDetector.countEpisodes(session.getId()));
+        return vector;
+    }
+
+    private static void set(double[] vector, RiskFeature feature, double value) {
+        vector[feature.ordinal()] = value;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
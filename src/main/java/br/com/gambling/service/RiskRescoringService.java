@@ -0,0 +1,435 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.RescoringJobStatusDto;
+import br.com.gambling.entity.BehavioralIndicators;
+import br.com.gambling.entity.FinancialIndicators;
+import br.com.gambling.entity.RescoringCheckpoint;
+import br.com.gambling.entity.RiskAssessment;
+import br.com.gambling.entity.RiskEvent;
+import br.com.gambling.entity.SessionAnalysis;
+import br.com.gambling.entity.TemporalIndicators;
+import br.com.gambling.entity.User;
+import br.com.gambling.enums.RescoringJobStatus;
+import br.com.gambling.repository.RescoringCheckpointRepository;
+import br.com.gambling.repository.RiskAssessmentRepository;
+import br.com.gambling.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reavaliação de risco em lote dos usuários sem avaliação recente.
+ *
+ * Uma thread coordenadora percorre os usuários pendentes com paginação por chave ({@code id > último}) e
+ * entrega cada página ao {@link ParallelChunkRunner}; cada página é avaliada em paralelo às demais e gravada com
+ * um INSERT em lote JDBC das avaliações e um UPDATE em lote do nível dos usuários que mudaram de nível.
+ * O checkpoint guarda o maior ID até o qual todas as páginas terminaram com sucesso; uma página com falha
+ * segura o checkpoint antes dela e a execução termina como FAILED. Uma execução parada, interrompida ou com
+ * falha é retomada do checkpoint; como os usuários já reavaliados deixam de estar pendentes, reprocessar a
+ * partir dele só refaz as páginas com falha, sem duplicar avaliações.
+ */
+@Service
+public class RiskRescoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskRescoringService.class);
+
+    private static final String INSERT_ASSESSMENT = "INSERT INTO avaliacoes_risco (id_usuario, nivel_risco, pontuacao_risco, " +
+            "motivo_avaliacao, recomendacoes, automatica, avaliado_por, data_avaliacao, valida_ate, ativa, criado_em, " +
+            "ind_total_sessoes, ind_apostas_ultima_hora, ind_sessoes_24h, ind_tipos_jogo_30d, ind_usuario_ativo, " +
+            "ind_total_depositos, ind_total_saques, ind_saldo_liquido, ind_depositos_24h, ind_depositos_30d, " +
+            "ind_perda_liquida_24h, ind_perda_liquida_30d, ind_usuario_criado_em, ind_ultima_atividade, " +
+            "ind_sessoes_7d, ind_sessoes_30d, ind_total_apostado_30d, ind_apostas_30d, ind_perdas_significativas_30d) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_RISK_LEVEL = "UPDATE usuarios SET nivel_risco_atual = ?, atualizado_em = ?, " +
+            "versao = versao + 1 WHERE id = ?";
+
+    @Autowired
+    private RiskAssessmentRepository riskAssessmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RescoringCheckpointRepository rescoringCheckpointRepository;
+
+    @Autowired
+    private RiskAssessmentService riskAssessmentService;
+
+    @Autowired
+    private IncrementalRiskScorer incrementalRiskScorer;
+
+    @Autowired
+    private LatestAssessmentCache latestAssessmentCache;
+
+    @Autowired
+    private RiskEventBus riskEventBus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${gambling.risk.rescoring.stale-days:30}")
+    private int staleDays;
+
+    @Value("${gambling.risk.rescoring.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${gambling.risk.rescoring.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicReference<Run> currentRun = new AtomicReference<>();
+    private volatile Run lastRun;
+
+    public RiskRescoringService(PlatformTransactionManager transactionManager) {
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Execução agendada (por padrão todas as noites)
+     */
+    @Scheduled(cron = "${gambling.risk.rescoring.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (start().isEmpty()) {
+            log.warn("Reavaliação de risco agendada ignorada: já existe uma execução em andamento");
+        }
+    }
+
+    /**
+     * Inicia a reavaliação em segundo plano, retomando a última execução não concluída.
+     * Retorna vazio se já houver uma execução em andamento.
+     */
+    public synchronized Optional<RescoringJobStatusDto> start() {
+        if (currentRun.get() != null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RescoringCheckpoint checkpoint = rescoringCheckpointRepository.findTopByOrderByIdDesc()
+                .filter(latest -> latest.getStatus() != RescoringJobStatus.COMPLETED)
+                .orElseGet(() -> new RescoringCheckpoint(now.minusDays(staleDays), now));
+        boolean resumed = checkpoint.getId() != null;
+        checkpoint.setStatus(RescoringJobStatus.RUNNING);
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setFinishedAt(null);
+        checkpoint = rescoringCheckpointRepository.save(checkpoint);
+
+        Run run = new Run(checkpoint);
+        currentRun.set(run);
+        lastRun = run;
+        Thread coordinator = new Thread(() -> execute(run), "reavaliacao-risco");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Reavaliação de risco {} {} a partir do usuário {} (avaliações anteriores a {})",
+                checkpoint.getId(), resumed ? "retomada" : "iniciada", checkpoint.getLastUserId(), checkpoint.getCutoffDate());
+        return Optional.of(run.toDto());
+    }
+
+    /**
+     * Pede a parada da execução em andamento; as páginas já entregues terminam e o checkpoint é gravado
+     */
+    public Optional<RescoringJobStatusDto> stop() {
+        Run run = currentRun.get();
+        if (run == null) {
+            return Optional.empty();
+        }
+        run.stopped = true;
+        return Optional.of(run.toDto());
+    }
+
+    /**
+     * Retorna o progresso da execução corrente ou da última execução registrada
+     */
+    public Optional<RescoringJobStatusDto> getStatus() {
+        Run run = lastRun;
+        if (run != null) {
+            return Optional.of(run.toDto());
+        }
+        return rescoringCheckpointRepository.findTopByOrderByIdDesc().map(RiskRescoringService::toDto);
+    }
+
+    /**
+     * Laço da thread coordenadora: lê a próxima página de pendentes e a entrega ao {@link ParallelChunkRunner}
+     */
+    private void execute(Run run) {
+        RescoringJobStatus finalStatus = RescoringJobStatus.COMPLETED;
+        long[] afterId = {run.checkpoint.getLastUserId()};
+        try {
+            ParallelChunkRunner.run(parallelism, () -> run.stopped, () -> {
+                long cursor = afterId[0];
+                List<Long> userIds = readTransaction.execute(status -> riskAssessmentRepository
+                        .findUserIdsNeedingNewAssessmentAfter(cursor, run.checkpoint.getCutoffDate(), PageRequest.of(0, chunkSize)));
+                if (userIds == null || userIds.isEmpty()) {
+                    return null;
+                }
+                afterId[0] = userIds.get(userIds.size() - 1);
+                Chunk chunk = run.register(afterId[0]);
+                return () -> {
+                    boolean succeeded = false;
+                    try {
+                        processChunk(run, userIds);
+                        succeeded = true;
+                    } catch (RuntimeException e) {
+                        log.error("Falha ao reavaliar {} usuários até o ID {}", userIds.size(), chunk.lastUserId, e);
+                        run.failedUsers.addAndGet(userIds.size());
+                    } finally {
+                        complete(run, chunk, succeeded);
+                    }
+                };
+            });
+            if (run.stopped) {
+                finalStatus = RescoringJobStatus.STOPPED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finalStatus = RescoringJobStatus.STOPPED;
+        } catch (RuntimeException e) {
+            log.error("Reavaliação de risco {} encerrada por falha", run.checkpoint.getId(), e);
+            finalStatus = RescoringJobStatus.FAILED;
+        } finally {
+            if (finalStatus == RescoringJobStatus.COMPLETED && run.hasFailedChunks()) {
+                finalStatus = RescoringJobStatus.FAILED;
+            }
+            finish(run, finalStatus);
+        }
+    }
+
+    /**
+     * Avalia uma página de usuários e grava as avaliações e os novos níveis em lotes JDBC numa única transação
+     */
+    private void processChunk(Run run, List<Long> userIds) {
+        long startedAt = System.nanoTime();
+        List<User> users = readTransaction.execute(status -> userRepository.findAllById(userIds));
+        LocalDateTime now = LocalDateTime.now();
+        List<RiskAssessment> assessments = new ArrayList<>(users.size());
+        List<RiskAssessment> levelChanges = new ArrayList<>();
+        for (User user : users) {
+            RiskAssessment assessment = riskAssessmentService.buildAutomaticAssessment(user, now);
+            assessments.add(assessment);
+            if (assessment.getRiskLevel() != user.getCurrentRiskLevel()) {
+                levelChanges.add(assessment);
+            }
+        }
+
+        writeTransaction.executeWithoutResult(status -> {
+            insertAssessments(assessments, now);
+            updateRiskLevels(levelChanges, now);
+            riskEventBus.publish(levelChanges.stream()
+                    .map(assessment -> new RiskEvent(assessment.getUser().getId(), assessment.getUser().getCurrentRiskLevel(),
+                            assessment.getRiskLevel(), RiskEventBus.SOURCE_RESCORING))
+                    .toList());
+        });
+        assessments.forEach(assessment -> latestAssessmentCache.invalidate(assessment.getUser().getId()));
+        levelChanges.forEach(assessment ->
+                incrementalRiskScorer.onLevelAssigned(assessment.getUser().getId(), assessment.getRiskLevel()));
+
+        run.processedUsers.addAndGet(assessments.size());
+        run.levelChanges.addAndGet(levelChanges.size());
+        run.chunks.incrementAndGet();
+        run.chunkNanos.addAndGet(System.nanoTime() - startedAt);
+    }
+
+    private void insertAssessments(List<RiskAssessment> assessments, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_ASSESSMENT, assessments, assessments.size(), (statement, assessment) -> {
+            statement.setLong(1, assessment.getUser().getId());
+            statement.setString(2, assessment.getRiskLevel().name());
+            statement.setDouble(3, assessment.getRiskScore());
+            statement.setString(4, assessment.getAssessmentReason());
+            statement.setString(5, assessment.getRecommendations());
+            statement.setBoolean(6, assessment.getIsAutomatic());
+            statement.setString(7, assessment.getAssessedBy());
+            statement.setTimestamp(8, Timestamp.valueOf(assessment.getAssessmentDate()));
+            statement.setTimestamp(9, Timestamp.valueOf(assessment.getValidUntil()));
+            statement.setBoolean(10, assessment.getIsActive());
+            statement.setTimestamp(11, createdAt);
+
+            BehavioralIndicators behavioral = assessment.getBehavioralIndicators();
+            statement.setObject(12, behavioral.getSessionCount());
+            statement.setObject(13, behavioral.getBetsLastHour());
+            statement.setObject(14, behavioral.getSessionsLast24h());
+            statement.setObject(15, behavioral.getDistinctGameTypes30d());
+            statement.setObject(16, behavioral.getUserActive());
+
+            FinancialIndicators financial = assessment.getFinancialIndicators();
+            statement.setObject(17, financial.getTotalDeposits());
+            statement.setObject(18, financial.getTotalWithdrawals());
+            statement.setObject(19, financial.getNetBalance());
+            statement.setObject(20, financial.getDeposits24h());
+            statement.setObject(21, financial.getDeposits30d());
+            statement.setObject(22, financial.getNetLoss24h());
+            statement.setObject(23, financial.getNetLoss30d());
+
+            TemporalIndicators temporal = assessment.getTemporalIndicators();
+            statement.setObject(24, temporal.getUserCreatedAt());
+            statement.setObject(25, temporal.getLastActivity());
+
+            SessionAnalysis sessions = assessment.getSessionAnalysis();
+            statement.setObject(26, sessions.getSessions7d());
+            statement.setObject(27, sessions.getSessions30d());
+            statement.setObject(28, sessions.getTotalBets30d());
+            statement.setObject(29, sessions.getBetCount30d());
+            statement.setObject(30, sessions.getSignificantLosses30d());
+        });
+    }
+
+    private void updateRiskLevels(List<RiskAssessment> levelChanges, LocalDateTime now) {
+        if (levelChanges.isEmpty()) {
+            return;
+        }
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_RISK_LEVEL, levelChanges, levelChanges.size(), (statement, assessment) -> {
+            statement.setString(1, assessment.getRiskLevel().name());
+            statement.setTimestamp(2, updatedAt);
+            statement.setLong(3, assessment.getUser().getId());
+        });
+    }
+
+    /**
+     * Marca a página como concluída e avança o checkpoint até a última página concluída com sucesso sem
+     * lacunas; uma página com falha fica na frente e impede o avanço até o fim da execução
+     */
+    private void complete(Run run, Chunk chunk, boolean succeeded) {
+        synchronized (run) {
+            chunk.done = true;
+            chunk.failed = !succeeded;
+            long watermark = -1L;
+            while (!run.pending.isEmpty() && run.pending.peekFirst().done && !run.pending.peekFirst().failed) {
+                watermark = run.pending.pollFirst().lastUserId;
+            }
+            if (watermark >= 0) {
+                run.checkpoint.setLastUserId(watermark);
+                saveCheckpoint(run, RescoringJobStatus.RUNNING, null);
+            }
+        }
+    }
+
+    private void finish(Run run, RescoringJobStatus status) {
+        synchronized (run) {
+            saveCheckpoint(run, status, LocalDateTime.now());
+        }
+        currentRun.set(null);
+        log.info("Reavaliação de risco {} finalizada como {}: {} usuários ({} mudanças de nível, {} falhas) a {} usuários/s",
+                run.checkpoint.getId(), status, run.processedUsers.get(), run.levelChanges.get(), run.failedUsers.get(),
+                String.format("%.1f", run.usersPerSecond()));
+    }
+
+    private void saveCheckpoint(Run run, RescoringJobStatus status, LocalDateTime finishedAt) {
+        RescoringCheckpoint checkpoint = run.checkpoint;
+        checkpoint.setStatus(status);
+        checkpoint.setProcessedUsers(run.baseProcessedUsers + run.processedUsers.get());
+        checkpoint.setFailedUsers(run.baseFailedUsers + run.failedUsers.get());
+        checkpoint.setLevelChanges(run.baseLevelChanges + run.levelChanges.get());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpoint.setFinishedAt(finishedAt);
+        try {
+            run.checkpoint = rescoringCheckpointRepository.save(checkpoint);
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar o checkpoint da reavaliação de risco {}", checkpoint.getId(), e);
+        }
+    }
+
+    private static RescoringJobStatusDto toDto(RescoringCheckpoint checkpoint) {
+        RescoringJobStatusDto dto = new RescoringJobStatusDto();
+        dto.setJobId(checkpoint.getId());
+        dto.setStatus(checkpoint.getStatus());
+        dto.setCutoffDate(checkpoint.getCutoffDate());
+        dto.setLastUserId(checkpoint.getLastUserId());
+        dto.setProcessedUsers(checkpoint.getProcessedUsers());
+        dto.setFailedUsers(checkpoint.getFailedUsers());
+        dto.setLevelChanges(checkpoint.getLevelChanges());
+        dto.setStartedAt(checkpoint.getStartedAt());
+        dto.setUpdatedAt(checkpoint.getUpdatedAt());
+        dto.setFinishedAt(checkpoint.getFinishedAt());
+        return dto;
+    }
+
+    /**
+     * Estado de uma execução: o checkpoint (alterado só sob o monitor da execução), as páginas entregues
+     * em ordem de ID e os contadores desta execução, somados aos de execuções anteriores do mesmo checkpoint
+     */
+    private static final class Run {
+
+        private volatile RescoringCheckpoint checkpoint;
+        private final Deque<Chunk> pending = new ArrayDeque<>();
+        private final long baseProcessedUsers;
+        private final long baseFailedUsers;
+        private final long baseLevelChanges;
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong processedUsers = new AtomicLong();
+        private final AtomicLong failedUsers = new AtomicLong();
+        private final AtomicLong levelChanges = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong chunkNanos = new AtomicLong();
+        private volatile boolean stopped;
+
+        Run(RescoringCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            this.baseProcessedUsers = checkpoint.getProcessedUsers();
+            this.baseFailedUsers = checkpoint.getFailedUsers();
+            this.baseLevelChanges = checkpoint.getLevelChanges();
+        }
+
+        synchronized Chunk register(long lastUserId) {
+            Chunk chunk = new Chunk(lastUserId);
+            pending.addLast(chunk);
+            return chunk;
+        }
+
+        synchronized boolean hasFailedChunks() {
+            return !pending.isEmpty() && pending.peekFirst().failed;
+        }
+
+        double usersPerSecond() {
+            double seconds = (System.nanoTime() - startedNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            return seconds > 0 ? processedUsers.get() / seconds : 0.0;
+        }
+
+        RescoringJobStatusDto toDto() {
+            RescoringJobStatusDto dto = RiskRescoringService.toDto(checkpoint);
+            dto.setProcessedUsers(baseProcessedUsers + processedUsers.get());
+            dto.setFailedUsers(baseFailedUsers + failedUsers.get());
+            dto.setLevelChanges(baseLevelChanges + levelChanges.get());
+            dto.setChunks(chunks.get());
+            dto.setUsersPerSecond(usersPerSecond());
+            long completedChunks = chunks.get();
+            dto.setAverageChunkMillis(completedChunks > 0 ? chunkNanos.get() / 1_000_000.0 / completedChunks : 0.0);
+            return dto;
+        }
+    }
+
+    /**
+     * Página entregue ao pool, identificada pelo último ID de usuário que contém
+     */
+    private static final class Chunk {
+
+        private final long lastUserId;
+        private boolean done;
+        private boolean failed;
+
+        Chunk(long lastUserId) {
+            this.lastUserId = lastUserId;
+        }
+    }
+}
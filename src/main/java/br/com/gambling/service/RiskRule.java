@@ -0,0 +1,42 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.RiskFlag;
+import br.com.gambling.enums.RiskRuleScope;
+
+/**
+ * Regra de risco implementada em código. Beans que implementam esta interface são avaliados pelo
+ * {@link RiskRuleEngine} depois das regras declarativas do mesmo escopo.
+ *
+ * O vetor de variáveis é indexado por {@code RiskFeature.ordinal()}.
+ */
+public interface RiskRule {
+
+    /**
+     * Nome único da regra
+     */
+    String getName();
+
+    /**
+     * Escopo em que a regra é avaliada
+     */
+    RiskRuleScope getScope();
+
+    /**
+     * Retorna true se a regra se aplica ao vetor de variáveis
+     */
+    boolean matches(double[] features);
+
+    /**
+     * Pontos somados à pontuação quando a regra se aplica
+     */
+    default double getPoints() {
+        return 0.0;
+    }
+
+    /**
+     * Indicador marcado quando a regra se aplica, ou null
+     */
+    default RiskFlag getFlag() {
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.RiskRuleDto;
+import br.com.gambling.enums.RiskRuleScope;
+import br.com.gambling.exception.RiskRuleSyntaxException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de regras de risco: compila o arquivo de regras declarativas e os beans {@link RiskRule} em um
+ * plano por escopo e avalia vetores de variáveis montados pelo {@link RiskFeatureExtractor}.
+ *
+ * O plano corrente é trocado atomicamente a cada recarga; avaliações em andamento terminam com o plano
+ * anterior. Arquivos fora do classpath são verificados periodicamente e recarregados quando alterados;
+ * uma recarga com erro mantém o plano anterior.
+ */
+@Service
+public class RiskRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskRuleEngine.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired(required = false)
+    private List<RiskRule> customRules = List.of();
+
+    @Value("${gambling.risk.rules.location:classpath:risk-rules.txt}")
+    private String location;
+
+    private volatile RuleSet ruleSet;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Recompila as regras do arquivo configurado, retornando as regras carregadas
+     */
+    public synchronized List<RiskRuleDto> reload() {
+        Resource resource = resourceLoader.getResource(location);
+        String source;
+        long lastModified;
+        try (InputStream input = resource.getInputStream()) {
+            source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            lastModified = resource.isFile() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            throw new RiskRuleSyntaxException("Não foi possível ler as regras de risco em " + location, e);
+        }
+        RuleSet compiled = compile(source, lastModified);
+        ruleSet = compiled;
+        log.info("Regras de risco carregadas de {}: {} de sessão e {} de usuário",
+                location, compiled.sessionPlan.size(), compiled.userPlan.size());
+        return compiled.rules;
+    }
+
+    /**
+     * Recarrega as regras quando o arquivo (fora do classpath empacotado) foi alterado
+     */
+    @Scheduled(fixedDelayString = "${gambling.risk.rules.reload-interval-ms:5000}")
+    public void reloadIfModified() {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            if (resource.isFile() && resource.lastModified() != ruleSet.lastModified) {
+                reload();
+            }
+        } catch (IOException | RiskRuleSyntaxException e) {
+            log.error("Falha ao recarregar as regras de risco; mantendo as regras anteriores", e);
+        }
+    }
+
+    /**
+     * Avalia as regras do escopo sobre o vetor de variáveis
+     */
+    public RiskRuleResult evaluate(RiskRuleScope scope, double[] features) {
+        return ruleSet.evaluate(scope, features);
+    }
+
+    /**
+     * Compila um texto de regras candidato, com as regras em código, sem substituir as regras correntes
+     */
+    RuleSet compile(String source) {
+        return compile(source, 0L);
+    }
+
+    /**
+     * Regras correntes
+     */
+    RuleSet current() {
+        return ruleSet;
+    }
+
+    /**
+     * Regras carregadas, declarativas e em código
+     */
+    public List<RiskRuleDto> getRules() {
+        return ruleSet.rules;
+    }
+
+    private RuleSet compile(String source, long lastModified) {
+        List<RiskRulePlan.Definition> definitions = RiskRulePlan.parse(source);
+        return new RuleSet(
+                RiskRulePlan.compile(RiskRuleScope.SESSION, definitions, customRules),
+                RiskRulePlan.compile(RiskRuleScope.USER, definitions, customRules),
+                describe(definitions), lastModified);
+    }
+
+    private List<RiskRuleDto> describe(List<RiskRulePlan.Definition> definitions) {
+        List<RiskRuleDto> rules = new ArrayList<>();
+        definitions.forEach(definition -> rules.add(definition.toDto()));
+        for (RiskRule rule : customRules) {
+            String action = rule.getFlag() != null ? "flag " + rule.getFlag() : "score " + rule.getPoints();
+            rules.add(new RiskRuleDto(rule.getName(), rule.getScope(), rule.getClass().getSimpleName(), action, "código"));
+        }
+        return List.copyOf(rules);
+    }
+
+    /**
+     * Planos compilados e descrição das regras de uma carga
+     */
+    static final class RuleSet {
+
+        private final RiskRulePlan sessionPlan;
+        private final RiskRulePlan userPlan;
+        private final List<RiskRuleDto> rules;
+        private final long lastModified;
+
+        RuleSet(RiskRulePlan sessionPlan, RiskRulePlan userPlan, List<RiskRuleDto> rules, long lastModified) {
+            this.sessionPlan = sessionPlan;
+            this.userPlan = userPlan;
+            this.rules = rules;
+            this.lastModified = lastModified;
+        }
+
+        RiskRuleResult evaluate(RiskRuleScope scope, double[] features) {
+            RiskRuleResult result = new RiskRuleResult();
+            (scope == RiskRuleScope.SESSION ? sessionPlan : userPlan).evaluate(features, result);
+            return result;
+        }
+
+        int size(RiskRuleScope scope) {
+            return (scope == RiskRuleScope.SESSION ? sessionPlan : userPlan).size();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.RiskRuleDto;
+import br.com.gambling.enums.RiskFeature;
+import br.com.gambling.enums.RiskFlag;
+import br.com.gambling.enums.RiskRuleScope;
+import br.com.gambling.exception.RiskRuleSyntaxException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Plano de avaliação compilado das regras de um escopo.
+ *
+ * As regras declarativas viram arrays paralelos: para cada regra, um intervalo de condições
+ * (índice da variável, operador, limite) e a ação (pontos e máscara de indicadores). A avaliação
+ * percorre os arrays comparando valores do vetor, sem objetos por regra nem interpretação de texto;
+ * as regras em código ({@link RiskRule}) vêm depois, por chamada direta.
+ *
+ * Formato do arquivo, uma regra por linha ({@code #} inicia comentário):
+ * <pre>
+ * &lt;session|user&gt; &lt;nome&gt;: [VARIAVEL &lt;op&gt; numero [and VARIAVEL &lt;op&gt; numero]...] =&gt; &lt;score N | flag INDICADOR&gt;
+ * </pre>
+ * com {@code op} entre {@code > >= < <= == !=}; sem condições a regra sempre se aplica.
+ */
+final class RiskRulePlan {
+
+    private static final byte GT = 0;
+    private static final byte GE = 1;
+    private static final byte LT = 2;
+    private static final byte LE = 3;
+    private static final byte EQ = 4;
+    private static final byte NE = 5;
+    private static final String[] OPERATORS = {">", ">=", "<", "<=", "==", "!="};
+
+    private final String[] names;
+    private final int[] conditionStart;
+    private final int[] features;
+    private final byte[] operators;
+    private final double[] thresholds;
+    private final double[] points;
+    private final int[] flagMasks;
+    private final RiskRule[] customRules;
+
+    private RiskRulePlan(List<Definition> definitions, List<RiskRule> customRules) {
+        int conditionCount = definitions.stream().mapToInt(definition -> definition.features.size()).sum();
+        this.names = new String[definitions.size()];
+        this.conditionStart = new int[definitions.size() + 1];
+        this.features = new int[conditionCount];
+        this.operators = new byte[conditionCount];
+        this.thresholds = new double[conditionCount];
+        this.points = new double[definitions.size()];
+        this.flagMasks = new int[definitions.size()];
+        int condition = 0;
+        for (int rule = 0; rule < definitions.size(); rule++) {
+            Definition definition = definitions.get(rule);
+            names[rule] = definition.name;
+            conditionStart[rule] = condition;
+            for (int index = 0; index < definition.features.size(); index++) {
+                features[condition] = definition.features.get(index).ordinal();
+                operators[condition] = definition.operators.get(index);
+                thresholds[condition] = definition.thresholds.get(index);
+                condition++;
+            }
+            points[rule] = definition.points;
+            flagMasks[rule] = definition.flag != null ? definition.flag.mask() : 0;
+        }
+        conditionStart[definitions.size()] = condition;
+        this.customRules = customRules.toArray(new RiskRule[0]);
+    }
+
+    /**
+     * Compila as regras declarativas e em código de um escopo
+     */
+    static RiskRulePlan compile(RiskRuleScope scope, List<Definition> definitions, List<RiskRule> customRules) {
+        return new RiskRulePlan(definitions.stream().filter(definition -> definition.scope == scope).toList(),
+                customRules.stream().filter(rule -> rule.getScope() == scope).toList());
+    }
+
+    /**
+     * Número de regras do plano
+     */
+    int size() {
+        return names.length + customRules.length;
+    }
+
+    /**
+     * Avalia todas as regras sobre o vetor de variáveis, acumulando no resultado
+     */
+    void evaluate(double[] vector, RiskRuleResult result) {
+        for (int rule = 0; rule < names.length; rule++) {
+            boolean matches = true;
+            for (int condition = conditionStart[rule], end = conditionStart[rule + 1]; matches && condition < end; condition++) {
+                double value = vector[features[condition]];
+                double threshold = thresholds[condition];
+                matches = switch (operators[condition]) {
+                    case GT -> value > threshold;
+                    case GE -> value >= threshold;
+                    case LT -> value < threshold;
+                    case LE -> value <= threshold;
+                    case EQ -> value == threshold;
+                    default -> value != threshold;
+                };
+            }
+            if (matches) {
+                result.apply(names[rule], points[rule], flagMasks[rule]);
+            }
+        }
+        for (RiskRule rule : customRules) {
+            if (rule.matches(vector)) {
+                RiskFlag flag = rule.getFlag();
+                result.apply(rule.getName(), rule.getPoints(), flag != null ? flag.mask() : 0);
+            }
+        }
+    }
+
+    /**
+     * Lê o arquivo de regras, validando nomes, variáveis, operadores e ações
+     */
+    static List<Definition> parse(String source) {
+        List<Definition> definitions = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        String[] lines = source.split("\r?\n");
+        for (int lineNumber = 1; lineNumber <= lines.length; lineNumber++) {
+            String line = lines[lineNumber - 1];
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Definition definition = parseLine(line, lineNumber);
+            if (!names.add(definition.name)) {
+                throw new RiskRuleSyntaxException(lineNumber, "regra " + definition.name + " repetida");
+            }
+            definitions.add(definition);
+        }
+        return definitions;
+    }
+
+    private static Definition parseLine(String line, int lineNumber) {
+        int colon = line.indexOf(':');
+        int arrow = line.indexOf("=>");
+        if (colon < 0 || arrow < colon) {
+            throw new RiskRuleSyntaxException(lineNumber, "esperado '<escopo> <nome>: <condições> => <ação>'");
+        }
+        String[] header = line.substring(0, colon).trim().split("\\s+");
+        if (header.length != 2) {
+            throw new RiskRuleSyntaxException(lineNumber, "esperado escopo e nome antes de ':'");
+        }
+        Definition definition = new Definition();
+        definition.scope = parseEnum(RiskRuleScope.class, header[0], lineNumber, "escopo");
+        definition.name = header[1];
+
+        String conditions = line.substring(colon + 1, arrow).trim();
+        definition.condition = conditions;
+        if (!conditions.isEmpty()) {
+            for (String condition : conditions.split("\\s+(?i:and)\\s+")) {
+                String[] parts = condition.trim().split("\\s+");
+                if (parts.length != 3) {
+                    throw new RiskRuleSyntaxException(lineNumber, "condição '" + condition.trim() + "' deve ser 'VARIAVEL op numero'");
+                }
+                definition.features.add(parseEnum(RiskFeature.class, parts[0], lineNumber, "variável"));
+                definition.operators.add(parseOperator(parts[1], lineNumber));
+                definition.thresholds.add(parseNumber(parts[2], lineNumber));
+            }
+        }
+
+        String[] action = line.substring(arrow + 2).trim().split("\\s+");
+        definition.action = String.join(" ", action);
+        if (action.length != 2) {
+            throw new RiskRuleSyntaxException(lineNumber, "ação deve ser 'score N' ou 'flag INDICADOR'");
+        }
+        switch (action[0].toLowerCase(Locale.ROOT)) {
+            case "score" -> definition.points = parseNumber(action[1], lineNumber);
+            case "flag" -> definition.flag = parseEnum(RiskFlag.class, action[1], lineNumber, "indicador");
+            default -> throw new RiskRuleSyntaxException(lineNumber, "ação desconhecida '" + action[0] + "'");
+        }
+        return definition;
+    }
+
+    private static byte parseOperator(String token, int lineNumber) {
+        for (byte operator = 0; operator < OPERATORS.length; operator++) {
+            if (OPERATORS[operator].equals(token)) {
+                return operator;
+            }
+        }
+        throw new RiskRuleSyntaxException(lineNumber, "operador desconhecido '" + token + "'");
+    }
+
+    private static double parseNumber(String token, int lineNumber) {
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new RiskRuleSyntaxException(lineNumber, "número inválido '" + token + "'");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String token, int lineNumber, String kind) {
+        try {
+            return Enum.valueOf(type, token.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RiskRuleSyntaxException(lineNumber, kind + " desconhecido(a) '" + token + "'");
+        }
+    }
+
+    /**
+     * Regra declarativa lida do arquivo
+     */
+    static final class Definition {
+
+        private RiskRuleScope scope;
+        private String name;
+        private String condition;
+        private String action;
+        private final List<RiskFeature> features = new ArrayList<>();
+        private final List<Byte> operators = new ArrayList<>();
+        private final List<Double> thresholds = new ArrayList<>();
+        private double points;
+        private RiskFlag flag;
+
+        RiskRuleDto toDto() {
+            return new RiskRuleDto(name, scope, condition, action, "arquivo");
+        }
+    }
+}
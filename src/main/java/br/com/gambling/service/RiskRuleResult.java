@@ -0,0 +1,41 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.RiskFlag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado da avaliação das regras de um escopo: pontuação somada, indicadores marcados e regras aplicadas
+ */
+public final class RiskRuleResult {
+
+    private double score;
+    private int flags;
+    private List<String> matchedRules = List.of();
+
+    void apply(String rule, double points, int flagMask) {
+        score += points;
+        flags |= flagMask;
+        if (matchedRules.isEmpty()) {
+            matchedRules = new ArrayList<>();
+        }
+        matchedRules.add(rule);
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public boolean hasFlag(RiskFlag flag) {
+        return (flags & flag.mask()) != 0;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public List<String> getMatchedRules() {
+        return matchedRules;
+    }
+}
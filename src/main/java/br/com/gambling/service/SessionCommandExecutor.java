@@ -0,0 +1,137 @@
+package br.com.gambling.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executor de comandos por sessão com um único escritor por sessão.
+ *
+ * Cada sessão é mapeada para uma faixa (stripe) fixa, atendida por uma única thread. Os comandos
+ * de uma mesma sessão são executados na ordem de chegada, sem locks, enquanto sessões em faixas
+ * diferentes são processadas em paralelo. Quem chama aguarda o resultado, de modo que o contrato
+ * síncrono dos endpoints não muda.
+ */
+@Component
+public class SessionCommandExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.sessions.single-writer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.sessions.single-writer.stripes:0}")
+    private int configuredStripes;
+
+    private ExecutorService[] stripes;
+    private Thread[] stripeThreads;
+
+    public SessionCommandExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int count = configuredStripes > 0 ? configuredStripes : Runtime.getRuntime().availableProcessors();
+        stripes = new ExecutorService[count];
+        stripeThreads = new Thread[count];
+        for (int index = 0; index < count; index++) {
+            int stripe = index;
+            stripes[index] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sessao-escritor-" + stripe);
+                thread.setDaemon(true);
+                stripeThreads[stripe] = thread;
+                return thread;
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Executa o comando na faixa da sessão e aguarda o resultado
+     */
+    public <T> T execute(Long sessionId, Supplier<T> command) {
+        if (!enabled || sessionId == null) {
+            return command.get();
+        }
+        int stripe = stripeOf(sessionId);
+        if (Thread.currentThread() == stripeThreads[stripe]) {
+            // Comando disparado pela própria faixa: executa direto para não aguardar a si mesmo
+            return command.get();
+        }
+        return join(submit(sessionId, command));
+    }
+
+    /**
+     * Executa o comando na faixa da sessão, dentro de uma transação própria, e aguarda o resultado
+     */
+    public <T> T executeInTransaction(Long sessionId, Supplier<T> command) {
+        return execute(sessionId, () -> transactionTemplate.execute(status -> command.get()));
+    }
+
+    /**
+     * Enfileira o comando na faixa da sessão, dentro de uma transação própria, sem aguardar
+     */
+    public <T> CompletableFuture<T> submitInTransaction(Long sessionId, Supplier<T> command) {
+        Supplier<T> transactional = () -> transactionTemplate.execute(status -> command.get());
+        if (!enabled) {
+            return CompletableFuture.completedFuture(transactional.get());
+        }
+        return submit(sessionId, transactional);
+    }
+
+    /**
+     * Aguarda o resultado de um comando enfileirado, repassando a exceção original
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (stripes == null) {
+            return;
+        }
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        for (ExecutorService stripe : stripes) {
+            stripe.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Long sessionId, Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, stripes[stripeOf(sessionId)]);
+    }
+
+    private int stripeOf(Long sessionId) {
+        long mixed = sessionId * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed >>> 33) % stripes.length);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.enums.SessionEventType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binário compacto de eventos de sessão ({@value #MEDIA_TYPE}), alternativo ao JSON nos endpoints de ingestão.
+ *
+ * O corpo é uma sequência de registros de {@value #RECORD_SIZE} bytes em little-endian, sem cabeçalho:
+ * <pre>
+ * offset  tamanho  campo
+ *      0        8  sessionId (int64)
+ *      8        1  tipo (0 = BET, 1 = WIN)
+ *      9        7  reservado (zeros)
+ *     16        8  amount (float64 IEEE 754)
+ *     24        8  timestamp em milissegundos desde 1970-01-01T00:00, sem fuso (int64; {@value #NO_TIMESTAMP} = ausente)
+ * </pre>
+ * Os registros são lidos direto do buffer para tipos primitivos, sem árvore intermediária de objetos; o timestamp
+ * segue como epoch millis até onde um {@link LocalDateTime} é de fato necessário.
+ */
+public final class SessionEventBinaryFormat {
+
+    public static final String MEDIA_TYPE = "application/vnd.gambling.session-events";
+    public static final int RECORD_SIZE = 32;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int BUFFER_RECORDS = 2048;
+    private static final SessionEventType[] TYPES = {SessionEventType.BET, SessionEventType.WIN};
+
+    private SessionEventBinaryFormat() {}
+
+    /**
+     * Recebe os campos de cada registro lido; o tipo é null quando o código do registro é desconhecido e o
+     * timestamp é {@value #NO_TIMESTAMP} quando ausente
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long sessionId, SessionEventType type, double amount, long timestampMillis);
+    }
+
+    /**
+     * Lê todos os registros do fluxo, retornando o número de bytes finais descartados por não formarem um registro completo
+     */
+    public static int read(InputStream body, RecordHandler handler) throws IOException {
+        byte[] bytes = new byte[BUFFER_RECORDS * RECORD_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int filled = 0;
+        int read;
+        while ((read = body.read(bytes, filled, bytes.length - filled)) != -1) {
+            filled += read;
+            buffer.limit(filled).position(0);
+            int partial = read(buffer, handler);
+            // Mantém no início do buffer o registro parcial, completado na próxima leitura
+            System.arraycopy(bytes, filled - partial, bytes, 0, partial);
+            filled = partial;
+        }
+        return filled;
+    }
+
+    /**
+     * Lê os registros entre a posição e o limite do buffer, retornando o número de bytes finais que não formam um registro
+     */
+    public static int read(ByteBuffer records, RecordHandler handler) {
+        ByteBuffer buffer = records.order() == ByteOrder.LITTLE_ENDIAN ? records : records.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int end = buffer.limit() - buffer.remaining() % RECORD_SIZE;
+        for (int offset = buffer.position(); offset < end; offset += RECORD_SIZE) {
+            handler.accept(buffer.getLong(offset),
+                    typeOf(buffer.get(offset + 8)),
+                    buffer.getDouble(offset + 16),
+                    buffer.getLong(offset + 24));
+        }
+        return buffer.limit() - end;
+    }
+
+    /**
+     * Lê no máximo {@code maxEvents} registros como DTOs, para os endpoints que processam lotes pequenos.
+     * Retorna null se o fluxo tiver mais registros que o limite ou terminar com um registro incompleto.
+     */
+    public static List<SessionEventDto> readEvents(InputStream body, int maxEvents) throws IOException {
+        List<SessionEventDto> events = new ArrayList<>();
+        int trailing = read(body, (sessionId, type, amount, timestampMillis) -> {
+            if (events.size() <= maxEvents) {
+                events.add(new SessionEventDto(sessionId, type, amount, toLocalDateTime(timestampMillis)));
+            }
+        });
+        return trailing == 0 && events.size() <= maxEvents ? events : null;
+    }
+
+    /**
+     * Escreve um registro na posição corrente do buffer (que deve estar em little-endian)
+     */
+    public static void write(ByteBuffer buffer, long sessionId, SessionEventType type, double amount, LocalDateTime timestamp) {
+        buffer.putLong(sessionId);
+        buffer.put((byte) type.ordinal());
+        buffer.put((byte) 0).putShort((short) 0).putInt(0);
+        buffer.putDouble(amount);
+        buffer.putLong(toEpochMillis(timestamp));
+    }
+
+    /**
+     * Instante sem fuso em milissegundos desde 1970-01-01T00:00, ou {@value #NO_TIMESTAMP} se for null
+     */
+    public static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIMESTAMP;
+    }
+
+    private static SessionEventType typeOf(byte code) {
+        return code >= 0 && code < TYPES.length ? TYPES[code] : null;
+    }
+
+    /**
+     * Inverso de {@link #toEpochMillis(LocalDateTime)}
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        if (epochMillis == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,308 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.SessionChannelEventDto;
+import br.com.gambling.dto.SessionChannelMessageDto;
+import br.com.gambling.dto.SessionEventBatchResponseDto;
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.dto.SessionEventResultDto;
+import br.com.gambling.enums.SessionChannelAction;
+import br.com.gambling.enums.SessionEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Serviço do canal WebSocket de eventos de sessões, em que cada plataforma mantém uma conexão
+ * e envia apostas, ganhos e finalizações de várias sessões.
+ *
+ * Os eventos recebem uma sequência por conexão, na ordem de chegada. Cada conexão começa com
+ * {@code initial-credits} créditos (eventos que pode enviar sem confirmação); os eventos pendentes são
+ * aplicados em lotes e confirmados por uma única mensagem ACK, que devolve os créditos. Se o banco
+ * ficar lento as confirmações atrasam e a plataforma para de enviar, sem buffer ilimitado no servidor.
+ */
+@Service
+public class SessionEventChannelService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionEventChannelService.class);
+
+    @Autowired
+    private SessionEventPipeline sessionEventPipeline;
+
+    @Autowired
+    private GamblingSessionService gamblingSessionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gambling.sessions.channel.initial-credits:4096}")
+    private int initialCredits;
+
+    @Value("${gambling.sessions.channel.workers:4}")
+    private int workers;
+
+    private ObjectReader eventReader;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        eventReader = objectMapper.readerFor(SessionChannelEventDto.class);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "canal-sessoes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Abre o estado de uma nova conexão e envia os créditos iniciais
+     */
+    public Connection open(Consumer<SessionChannelMessageDto> sender) {
+        Connection connection = new Connection(sender);
+        sender.accept(SessionChannelMessageDto.credit(initialCredits));
+        return connection;
+    }
+
+    /**
+     * Estado de uma conexão do canal. Os métodos de recebimento são chamados em sequência pela
+     * thread da conexão; a aplicação dos eventos roda no pool do serviço, um lote por vez por conexão.
+     * Cada tarefa aplica um único lote e se reenfileira se houver mais pendentes, para que uma conexão
+     * movimentada não ocupe uma thread do pool indefinidamente.
+     */
+    public final class Connection {
+
+        private final Consumer<SessionChannelMessageDto> sender;
+        private final Queue<ChannelEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private long nextSequence = 1L;
+
+        private Connection(Consumer<SessionChannelMessageDto> sender) {
+            this.sender = sender;
+        }
+
+        /**
+         * Recebe um frame de texto com um ou mais eventos JSON, um por linha.
+         * Retorna false se a plataforma enviou mais eventos do que os créditos disponíveis.
+         */
+        public boolean receiveText(String payload) {
+            List<ChannelEvent> events = new ArrayList<>();
+            for (String line : payload.split("\n")) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    SessionChannelEventDto event = eventReader.readValue(line);
+                    events.add(new ChannelEvent(event.getAction(), event.getSessionId(),
+                            event.getAmount() != null ? event.getAmount() : Double.NaN,
+                            SessionEventBinaryFormat.toEpochMillis(event.getTimestamp())));
+                } catch (JsonProcessingException e) {
+                    events.add(ChannelEvent.invalid());
+                }
+            }
+            return enqueue(events);
+        }
+
+        /**
+         * Recebe um frame binário com registros no formato {@link SessionEventBinaryFormat}.
+         * Retorna false se a plataforma enviou mais eventos do que os créditos disponíveis.
+         */
+        public boolean receiveBinary(ByteBuffer payload) {
+            List<ChannelEvent> events = new ArrayList<>(payload.remaining() / SessionEventBinaryFormat.RECORD_SIZE + 1);
+            int trailing = SessionEventBinaryFormat.read(payload, (sessionId, type, amount, timestampMillis) ->
+                    events.add(type == null ? ChannelEvent.invalid()
+                            : new ChannelEvent(type == SessionEventType.BET ? SessionChannelAction.BET : SessionChannelAction.WIN,
+                                    sessionId, amount, timestampMillis)));
+            if (trailing > 0) {
+                events.add(ChannelEvent.invalid());
+            }
+            return enqueue(events);
+        }
+
+        public void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        private boolean enqueue(List<ChannelEvent> events) {
+            if (events.isEmpty()) {
+                return true;
+            }
+            if (outstanding.addAndGet(events.size()) > initialCredits) {
+                return false;
+            }
+            for (ChannelEvent event : events) {
+                event.sequence = nextSequence++;
+                pending.add(event);
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+            return true;
+        }
+
+        /**
+         * Aplica o que estiver pendente e confirma com um único ACK; se chegaram mais eventos, volta ao fim da
+         * fila do pool em vez de continuar na mesma thread
+         */
+        private void drain() {
+            List<ChannelEvent> batch = new ArrayList<>();
+            ChannelEvent next;
+            while ((next = pending.poll()) != null) {
+                batch.add(next);
+            }
+            if (!batch.isEmpty() && !closed) {
+                List<Long> rejected = apply(batch);
+                outstanding.addAndGet(-batch.size());
+                try {
+                    sender.accept(SessionChannelMessageDto.ack(batch.get(batch.size() - 1).sequence, rejected, batch.size()));
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao enviar confirmação no canal de eventos", e);
+                }
+            }
+            draining.set(false);
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+    /**
+     * Aplica os eventos na ordem da conexão: apostas e ganhos consecutivos vão juntos ao pipeline,
+     * e cada finalização só é executada depois dos eventos anteriores. Retorna as sequências rejeitadas.
+     */
+    private List<Long> apply(List<ChannelEvent> batch) {
+        List<Long> rejected = new ArrayList<>();
+        List<ChannelEvent> run = new ArrayList<>();
+        for (ChannelEvent event : batch) {
+            if (event.action == null || event.sessionId == null) {
+                rejected.add(event.sequence);
+            } else if (event.action == SessionChannelAction.END) {
+                applyRun(run, rejected);
+                run.clear();
+                if (!endSession(event.sessionId)) {
+                    rejected.add(event.sequence);
+                }
+            } else {
+                run.add(event);
+            }
+        }
+        applyRun(run, rejected);
+        Collections.sort(rejected);
+        return rejected;
+    }
+
+    private void applyRun(List<ChannelEvent> run, List<Long> rejected) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (sessionEventPipeline.isEnabled()) {
+            SessionEventPipeline.Ticket ticket = sessionEventPipeline.newTrackingTicket();
+            for (ChannelEvent event : run) {
+                sessionEventPipeline.publish(event.sessionId, event.eventType(), event.amount, event.timestampMillis, ticket);
+            }
+            sessionEventPipeline.await(ticket);
+            for (int index : ticket.getRejectedIndexes()) {
+                rejected.add(run.get(index).sequence);
+            }
+            return;
+        }
+
+        // Sem o pipeline: um lote por sessão, com o resultado de cada evento
+        Map<Long, List<ChannelEvent>> eventsBySession = new LinkedHashMap<>();
+        for (ChannelEvent event : run) {
+            eventsBySession.computeIfAbsent(event.sessionId, sessionId -> new ArrayList<>()).add(event);
+        }
+        eventsBySession.forEach((sessionId, events) -> {
+            List<SessionEventDto> dtos = events.stream()
+                    .map(event -> new SessionEventDto(sessionId, event.eventType(), event.amount,
+                            SessionEventBinaryFormat.toLocalDateTime(event.timestampMillis)))
+                    .toList();
+            Optional<SessionEventBatchResponseDto> response;
+            try {
+                response = gamblingSessionService.applyEventBatch(sessionId, dtos);
+            } catch (RuntimeException e) {
+                log.error("Falha ao aplicar eventos da sessão {} recebidos pelo canal", sessionId, e);
+                response = Optional.empty();
+            }
+            if (response.isEmpty()) {
+                events.forEach(event -> rejected.add(event.sequence));
+                return;
+            }
+            for (SessionEventResultDto result : response.get().getResults()) {
+                if (!Boolean.TRUE.equals(result.getAccepted())) {
+                    rejected.add(events.get(result.getIndex()).sequence);
+                }
+            }
+        });
+    }
+
+    private boolean endSession(Long sessionId) {
+        try {
+            return gamblingSessionService.endSession(sessionId).isPresent();
+        } catch (RuntimeException e) {
+            log.error("Falha ao finalizar a sessão {} pelo canal", sessionId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Evento recebido pelo canal, com a sequência atribuída na chegada
+     */
+    private static final class ChannelEvent {
+
+        private final SessionChannelAction action;
+        private final Long sessionId;
+        private final double amount;
+        private final long timestampMillis;
+        private long sequence;
+
+        ChannelEvent(SessionChannelAction action, Long sessionId, double amount, long timestampMillis) {
+            this.action = action;
+            this.sessionId = sessionId;
+            this.amount = amount;
+            this.timestampMillis = timestampMillis;
+        }
+
+        /**
+         * Evento ilegível ou incompleto; ocupa uma sequência e é rejeitado
+         */
+        static ChannelEvent invalid() {
+            return new ChannelEvent(null, null, Double.NaN, SessionEventBinaryFormat.NO_TIMESTAMP);
+        }
+
+        SessionEventType eventType() {
+            return action == SessionChannelAction.BET ? SessionEventType.BET : SessionEventType.WIN;
+        }
+    }
+}
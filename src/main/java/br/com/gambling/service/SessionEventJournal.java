@@ -0,0 +1,306 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.SessionEventType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário (write-ahead log) das apostas e ganhos acumulados em memória e ainda não gravados no banco.
+ *
+ * Os registros são anexados em segmentos mapeados em memória, com tamanho fixo e ordem little-endian.
+ * A confirmação em disco (fsync) é feita em grupo: quem chega primeiro força o segmento para todos
+ * os registros anexados até aquele momento. Os segmentos são rotacionados a cada gravação em lote
+ * do acumulador e removidos quando todo o seu conteúdo já está no banco.
+ */
+@Component
+public class SessionEventJournal {
+
+    /**
+     * Layout do registro: tipo (1) + reservado (3) + CRC32C (4) + sequência (8) + sessão (8) + valor (8) + instante (8)
+     */
+    static final int RECORD_SIZE = 40;
+
+    private static final int PAYLOAD_OFFSET = 8;
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - PAYLOAD_OFFSET;
+    private static final String SEGMENT_PREFIX = "diario-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object syncMonitor = new Object();
+    private final ByteBuffer scratch = ByteBuffer.allocate(PAYLOAD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    @Value("${gambling.sessions.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gambling.sessions.journal.directory:./data/diario}")
+    private String directory;
+
+    @Value("${gambling.sessions.journal.segment-size-bytes:4194304}")
+    private int segmentSize;
+
+    private Path journalDirectory;
+    private long segmentIndex;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private boolean started;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Percorre todos os registros válidos dos segmentos existentes, em ordem de gravação
+     */
+    public void replay(JournalRecordHandler handler) {
+        if (!enabled) {
+            return;
+        }
+        for (Path segmentPath : listSegments()) {
+            try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                while (buffer.remaining() >= RECORD_SIZE && readRecord(buffer, handler)) {
+                    // continua até o primeiro registro vazio ou corrompido
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler segmento do diário " + segmentPath, e);
+            }
+        }
+    }
+
+    /**
+     * Descarta os segmentos já recuperados e abre um novo segmento a partir da sequência informada
+     */
+    public void start(long lastAppliedSequence) {
+        if (!enabled) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            journalDirectory = Paths.get(directory);
+            Files.createDirectories(journalDirectory);
+            for (Path segmentPath : listSegments()) {
+                Files.deleteIfExists(segmentPath);
+            }
+            nextSequence = lastAppliedSequence + 1;
+            writtenSequence = lastAppliedSequence;
+            durableSequence = lastAppliedSequence;
+            segmentIndex = 0;
+            openSegment();
+            started = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao iniciar o diário de sessões em " + directory, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Anexa um evento ao diário e retorna sua sequência (0 quando o diário está desabilitado)
+     */
+    public long append(SessionEventType type, long sessionId, double amount) {
+        if (!enabled) {
+            return 0L;
+        }
+        appendLock.lock();
+        try {
+            if (!started) {
+                throw new IllegalStateException("Diário de sessões ainda não foi iniciado");
+            }
+            if (segment.remaining() < RECORD_SIZE) {
+                rotateSegment();
+            }
+            long sequence = nextSequence++;
+            scratch.clear();
+            scratch.putLong(sequence).putLong(sessionId).putDouble(amount).putLong(System.currentTimeMillis());
+            scratch.flip();
+            crc.reset();
+            crc.update(scratch);
+            scratch.rewind();
+
+            segment.put((byte) (type.ordinal() + 1));
+            segment.put((byte) 0).put((byte) 0).put((byte) 0);
+            segment.putInt((int) crc.getValue());
+            segment.put(scratch);
+            writtenSequence = sequence;
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que o registro informado esteja em disco, forçando o segmento em grupo
+     */
+    public void awaitDurable(long sequence) {
+        if (!enabled || sequence <= durableSequence) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            if (sequence <= durableSequence) {
+                return;
+            }
+            long target;
+            MappedByteBuffer current;
+            appendLock.lock();
+            try {
+                target = writtenSequence;
+                current = segment;
+            } finally {
+                appendLock.unlock();
+            }
+            current.force();
+            if (target > durableSequence) {
+                durableSequence = target;
+            }
+        }
+    }
+
+    /**
+     * Inicia um novo segmento e retorna seu índice; tudo que foi anexado antes fica nos segmentos anteriores
+     */
+    public long checkpoint() {
+        if (!enabled) {
+            return 0L;
+        }
+        appendLock.lock();
+        try {
+            if (segment.position() > 0) {
+                rotateSegment();
+            }
+            return segmentIndex;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Remove os segmentos anteriores ao checkpoint, cujo conteúdo já foi gravado no banco
+     */
+    public void truncateBefore(long checkpointSegment) {
+        if (!enabled) {
+            return;
+        }
+        for (Path segmentPath : listSegments()) {
+            if (segmentIndexOf(segmentPath) < checkpointSegment) {
+                try {
+                    Files.deleteIfExists(segmentPath);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao remover segmento do diário " + segmentPath, e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+                segmentChannel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Lê um registro do buffer; retorna false ao encontrar o fim dos dados válidos
+     */
+    private boolean readRecord(ByteBuffer buffer, JournalRecordHandler handler) {
+        int start = buffer.position();
+        byte typeCode = buffer.get(start);
+        if (typeCode < 1 || typeCode > SessionEventType.values().length) {
+            return false;
+        }
+        int checksum = buffer.getInt(start + 4);
+        ByteBuffer payload = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        payload.position(start + PAYLOAD_OFFSET).limit(start + RECORD_SIZE);
+        CRC32C recordCrc = new CRC32C();
+        recordCrc.update(payload);
+        if ((int) recordCrc.getValue() != checksum) {
+            return false;
+        }
+        long sequence = buffer.getLong(start + PAYLOAD_OFFSET);
+        long sessionId = buffer.getLong(start + PAYLOAD_OFFSET + 8);
+        double amount = buffer.getDouble(start + PAYLOAD_OFFSET + 16);
+        long timestampMillis = buffer.getLong(start + PAYLOAD_OFFSET + 24);
+        handler.onRecord(sequence, SessionEventType.values()[typeCode - 1], sessionId, amount, timestampMillis);
+        buffer.position(start + RECORD_SIZE);
+        return true;
+    }
+
+    private void rotateSegment() {
+        segment.force();
+        durableSequence = writtenSequence;
+        try {
+            segmentChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar segmento do diário", e);
+        }
+        segmentIndex++;
+        openSegment();
+    }
+
+    private void openSegment() {
+        Path segmentPath = journalDirectory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        try {
+            segmentChannel = FileChannel.open(segmentPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir segmento do diário " + segmentPath, e);
+        }
+    }
+
+    private List<Path> listSegments() {
+        List<Path> segments = new ArrayList<>();
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar segmentos do diário em " + directory, e);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private long segmentIndexOf(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Callback para cada registro válido lido do diário
+     */
+    @FunctionalInterface
+    public interface JournalRecordHandler {
+        void onRecord(long sequence, SessionEventType type, long sessionId, double amount, long timestampMillis);
+    }
+}
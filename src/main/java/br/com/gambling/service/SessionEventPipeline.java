@@ -0,0 +1,664 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.PipelineStageMetricsDto;
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.dto.SessionPipelineMetricsDto;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.exception.LimitExceededException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline de ingestão de eventos de sessões sobre um ring buffer pré-alocado (no estilo Disruptor).
+ *
+ * Os produtores reservam uma posição do anel, preenchem o slot reutilizável e o publicam. Cada
+ * estágio (decodificar, validar, aplicar, sinais de risco, persistir) roda em uma thread própria,
+ * segue a sequência do estágio anterior e processa em lote tudo o que já estiver disponível.
+ * Com o anel cheio, os produtores aguardam o último estágio, o que limita a memória em rajadas.
+ *
+ * A aplicação usa o {@link ActiveSessionAccumulator}; a persistência confirma o lote no diário de
+ * uma só vez e a gravação no banco fica com a gravação em lote do acumulador. Um evento só é rejeitado
+ * antes de ser aplicado: falhas nos estágios seguintes (sinais de risco, diário) são registradas sem
+ * alterar o resultado, para que o cliente não reenvie valores já contabilizados.
+ */
+@Component
+public class SessionEventPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionEventPipeline.class);
+
+    private static final String[] STAGE_NAMES = {"decodificar", "validar", "aplicar", "risco", "persistir"};
+
+    @Autowired
+    private ActiveSessionAccumulator activeSessionAccumulator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private BettingBlockService bettingBlockService;
+
+    @Autowired
+    private UserLimitService userLimitService;
+
+    @Autowired
+    private BetSizeProfileService betSizeProfileService;
+
+    @Value("${gambling.sessions.pipeline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gambling.sessions.pipeline.ring-size:8192}")
+    private int ringSize;
+
+    @Value("${gambling.sessions.pipeline.max-batch-size:1024}")
+    private int maxBatchSize;
+
+    private final AtomicLong claimSequence = new AtomicLong(-1L);
+    private Slot[] ring;
+    private int mask;
+    private int indexShift;
+    private AtomicIntegerArray publishedRounds;
+    private Stage[] stages;
+    private Thread[] threads;
+    private ObjectReader eventReader;
+    private volatile boolean running;
+
+    private volatile long highBetSignals;
+    private volatile long endToEndNanos;
+    private volatile long maxEndToEndNanos;
+    private volatile long completedEvents;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !activeSessionAccumulator.isEnabled()) {
+            enabled = false;
+            return;
+        }
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalStateException("gambling.sessions.pipeline.ring-size deve ser potência de 2: " + ringSize);
+        }
+        ring = new Slot[ringSize];
+        for (int index = 0; index < ringSize; index++) {
+            ring[index] = new Slot();
+        }
+        mask = ringSize - 1;
+        indexShift = Integer.numberOfTrailingZeros(ringSize);
+        publishedRounds = new AtomicIntegerArray(ringSize);
+        for (int index = 0; index < ringSize; index++) {
+            publishedRounds.set(index, -1);
+        }
+        eventReader = objectMapper.readerFor(SessionEventDto.class);
+
+        DecodeStage decode = new DecodeStage();
+        ValidateStage validate = new ValidateStage(decode);
+        ApplyStage apply = new ApplyStage(validate);
+        RiskStage risk = new RiskStage(apply);
+        stages = new Stage[] {decode, validate, apply, risk, new PersistStage(risk)};
+        threads = new Thread[stages.length];
+        running = true;
+        for (int index = 0; index < stages.length; index++) {
+            threads[index] = new Thread(stages[index], "pipeline-sessoes-" + STAGE_NAMES[index]);
+            threads[index].setDaemon(true);
+            threads[index].start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cria o controle de uma requisição de ingestão, usado para contabilizar e aguardar seus eventos
+     */
+    public Ticket newTicket() {
+        return new Ticket(false);
+    }
+
+    /**
+     * Cria o controle de uma requisição que também registra a posição (ordem de publicação) de cada evento rejeitado
+     */
+    public Ticket newTrackingTicket() {
+        return new Ticket(true);
+    }
+
+    /**
+     * Publica uma linha NDJSON ainda não decodificada, aguardando espaço no anel se necessário
+     */
+    public void publish(String rawEvent, Ticket ticket) {
+        long sequence = claim();
+        Slot slot = ring[(int) (sequence & mask)];
+        slot.raw = rawEvent;
+        commit(sequence, slot, ticket);
+    }
+
+    /**
+     * Publica um evento já decodificado (formato binário); o estágio de decodificação não o processa
+     */
+    public void publish(long sessionId, SessionEventType type, double amount, long timestampMillis, Ticket ticket) {
+        long sequence = claim();
+        Slot slot = ring[(int) (sequence & mask)];
+        slot.sessionId = sessionId;
+        slot.type = type;
+        slot.amount = amount;
+        slot.timestampMillis = timestampMillis;
+        commit(sequence, slot, ticket);
+    }
+
+    /**
+     * Reserva a próxima posição do anel, aguardando que o último estágio a libere, e limpa o slot
+     */
+    private long claim() {
+        long sequence = claimSequence.incrementAndGet();
+        long wrapPoint = sequence - ringSize;
+        int idleCount = 0;
+        while (wrapPoint > persistStage().sequence.get()) {
+            idleCount = idle(idleCount);
+        }
+        ring[(int) (sequence & mask)].reset();
+        return sequence;
+    }
+
+    private void commit(long sequence, Slot slot, Ticket ticket) {
+        slot.ticket = ticket;
+        slot.ticketIndex = ticket.publishedCount++;
+        slot.publishedNanos = System.nanoTime();
+        ticket.lastSequence = sequence;
+        publishedRounds.lazySet((int) (sequence & mask), (int) (sequence >>> indexShift));
+    }
+
+    /**
+     * Aguarda até que todos os eventos publicados com o controle tenham passado pelo último estágio
+     */
+    public void await(Ticket ticket) {
+        int idleCount = 0;
+        while (persistStage().sequence.get() < ticket.lastSequence) {
+            idleCount = idle(idleCount);
+        }
+    }
+
+    /**
+     * Retorna profundidade da fila e latência de cada estágio
+     */
+    public SessionPipelineMetricsDto getMetrics() {
+        SessionPipelineMetricsDto metrics = new SessionPipelineMetricsDto();
+        metrics.setEnabled(enabled);
+        if (!enabled) {
+            return metrics;
+        }
+        long published = claimSequence.get();
+        metrics.setRingSize(ringSize);
+        metrics.setPublishedSequence(published);
+        metrics.setQueueDepth(Math.max(0L, published - persistStage().sequence.get()));
+        metrics.setHighBetSignals(highBetSignals);
+        long completed = completedEvents;
+        metrics.setAverageEndToEndMicros(completed > 0 ? endToEndNanos / 1000.0 / completed : 0.0);
+        metrics.setMaxEndToEndMicros(maxEndToEndNanos / 1000.0);
+
+        long upstream = published;
+        for (int index = 0; index < stages.length; index++) {
+            Stage stage = stages[index];
+            long sequence = stage.sequence.get();
+            long processed = stage.processedEvents;
+            metrics.addStage(new PipelineStageMetricsDto(STAGE_NAMES[index], sequence,
+                    Math.max(0L, upstream - sequence), processed, stage.batchCount,
+                    processed > 0 ? stage.busyNanos / 1000.0 / processed : 0.0,
+                    stage.maxBatchNanos / 1000.0));
+            upstream = sequence;
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+    }
+
+    private Stage persistStage() {
+        return stages[stages.length - 1];
+    }
+
+    /**
+     * Espera progressiva: gira, cede a CPU e só então estaciona a thread por intervalos curtos
+     */
+    private static int idle(int idleCount) {
+        if (idleCount < 100) {
+            Thread.onSpinWait();
+        } else if (idleCount < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(idleCount < 1_000 ? 50_000L : 1_000_000L);
+        }
+        return idleCount + 1;
+    }
+
+    /**
+     * Controle de uma requisição de ingestão; os contadores são escritos só pelo estágio de persistência
+     */
+    public static final class Ticket {
+
+        private volatile long lastSequence = -1L;
+        private int publishedCount;
+        private long acceptedCount;
+        private long rejectedCount;
+        private int batchCount;
+        private long lastBatch = -1L;
+        private final List<Integer> rejectedIndexes;
+
+        private Ticket(boolean trackRejected) {
+            this.rejectedIndexes = trackRejected ? new ArrayList<>() : null;
+        }
+
+        public long getAcceptedCount() {
+            return acceptedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public int getBatchCount() {
+            return batchCount;
+        }
+
+        /**
+         * Posições, na ordem de publicação, dos eventos rejeitados (vazio se o controle não as registra)
+         */
+        public List<Integer> getRejectedIndexes() {
+            return rejectedIndexes != null ? rejectedIndexes : List.of();
+        }
+    }
+
+    /**
+     * Posição reutilizável do anel; nenhum objeto é criado por evento além do resultado da decodificação
+     */
+    private static final class Slot {
+
+        private String raw;
+        private Ticket ticket;
+        private int ticketIndex;
+        private long publishedNanos;
+        private long sessionId;
+        private SessionEventType type;
+        private double amount;
+        private long timestampMillis;
+        private long journalSequence;
+        private boolean rejected;
+        private boolean applied;
+        private boolean highBet;
+        private Long limitUserId; // Usuário com a aposta reservada na perda do dia, liberada no estágio de risco
+
+        void reset() {
+            raw = null;
+            ticket = null;
+            sessionId = 0L;
+            type = null;
+            amount = 0.0;
+            timestampMillis = SessionEventBinaryFormat.NO_TIMESTAMP;
+            journalSequence = -1L;
+            rejected = false;
+            applied = false;
+            highBet = false;
+            limitUserId = null;
+        }
+    }
+
+    /**
+     * Estágio do pipeline: acompanha a sequência do estágio anterior e processa lotes de slots disponíveis
+     */
+    private abstract class Stage implements Runnable {
+
+        final AtomicLong sequence = new AtomicLong(-1L);
+        private volatile long processedEvents;
+        private volatile long batchCount;
+        private volatile long busyNanos;
+        private volatile long maxBatchNanos;
+        private volatile boolean finished;
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idleCount = 0;
+            while (true) {
+                long available = availableFrom(next);
+                if (available < next) {
+                    if (!running && upstreamDrained(next)) {
+                        finished = true;
+                        return;
+                    }
+                    idleCount = idle(idleCount);
+                    continue;
+                }
+                long last = Math.min(available, next + maxBatchSize - 1);
+                long startNanos = System.nanoTime();
+                try {
+                    process(next, last);
+                } catch (RuntimeException e) {
+                    // Só eventos ainda não aplicados podem ser rejeitados
+                    log.error("Falha no estágio {} do pipeline de sessões; eventos não aplicados do lote rejeitados",
+                            getClass().getSimpleName(), e);
+                    for (long current = next; current <= last; current++) {
+                        Slot slot = slot(current);
+                        if (!slot.applied) {
+                            slot.rejected = true;
+                        }
+                    }
+                }
+                long elapsed = System.nanoTime() - startNanos;
+                processedEvents += last - next + 1;
+                batchCount++;
+                busyNanos += elapsed;
+                if (elapsed > maxBatchNanos) {
+                    maxBatchNanos = elapsed;
+                }
+                sequence.set(last);
+                next = last + 1;
+                idleCount = 0;
+            }
+        }
+
+        /**
+         * Maior sequência que o estágio anterior já liberou (menor que next se não houver nada)
+         */
+        abstract long availableFrom(long next);
+
+        abstract void process(long first, long last);
+
+        boolean upstreamDrained(long next) {
+            return availableFrom(next) < next;
+        }
+
+        Slot slot(long sequence) {
+            return ring[(int) (sequence & mask)];
+        }
+    }
+
+    /**
+     * Estágio que segue outro estágio do pipeline
+     */
+    private abstract class DependentStage extends Stage {
+
+        private final Stage upstream;
+
+        DependentStage(Stage upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        long availableFrom(long next) {
+            return upstream.sequence.get();
+        }
+
+        @Override
+        boolean upstreamDrained(long next) {
+            return upstream.finished && availableFrom(next) < next;
+        }
+    }
+
+    /**
+     * 1. Decodifica a linha NDJSON nos campos do slot (eventos binários chegam já decodificados)
+     */
+    private final class DecodeStage extends Stage {
+
+        @Override
+        long availableFrom(long next) {
+            long limit = next + maxBatchSize - 1;
+            long available = next - 1;
+            for (long current = next; current <= limit; current++) {
+                if (publishedRounds.get((int) (current & mask)) != (int) (current >>> indexShift)) {
+                    break;
+                }
+                available = current;
+            }
+            return available;
+        }
+
+        @Override
+        boolean upstreamDrained(long next) {
+            return claimSequence.get() < next;
+        }
+
+        @Override
+        void process(long first, long last) {
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                if (slot.raw == null) {
+                    // Publicado já decodificado
+                    continue;
+                }
+                try {
+                    SessionEventDto event = eventReader.readValue(slot.raw);
+                    if (event.getSessionId() == null) {
+                        slot.rejected = true;
+                    } else {
+                        slot.sessionId = event.getSessionId();
+                        slot.type = event.getType();
+                        slot.amount = event.getAmount() != null ? event.getAmount() : Double.NaN;
+                        slot.timestampMillis = SessionEventBinaryFormat.toEpochMillis(event.getTimestamp());
+                    }
+                } catch (JsonProcessingException e) {
+                    slot.rejected = true;
+                }
+                slot.raw = null;
+            }
+        }
+    }
+
+    /**
+     * 2. Valida os campos do evento e rejeita apostas de usuários bloqueados ou acima dos limites diários
+     */
+    private final class ValidateStage extends DependentStage {
+
+        ValidateStage(Stage upstream) {
+            super(upstream);
+        }
+
+        @Override
+        void process(long first, long last) {
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                if (!slot.rejected && (slot.type == null || !Double.isFinite(slot.amount) || slot.amount <= 0)) {
+                    slot.rejected = true;
+                } else if (!slot.rejected && slot.type == SessionEventType.BET) {
+                    if (bettingBlockService.isSessionBlocked(slot.sessionId)) {
+                        slot.rejected = true;
+                        continue;
+                    }
+                    // Reserva como nas apostas avulsas, para apostas concorrentes do usuário não passarem juntas
+                    try {
+                        slot.limitUserId = userLimitService.reserveBet(slot.sessionId, slot.amount);
+                    } catch (LimitExceededException e) {
+                        slot.rejected = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 3. Aplica o evento ao estado em memória da sessão (e ao diário); uma falha rejeita só o evento em que ocorreu
+     */
+    private final class ApplyStage extends DependentStage {
+
+        ApplyStage(Stage upstream) {
+            super(upstream);
+        }
+
+        /**
+         * Sessões inexistentes ou finalizadas vistas no lote atual, para não consultá-las no banco a cada evento
+         */
+        private final Set<Long> inactiveSessions = new HashSet<>();
+
+        @Override
+        void process(long first, long last) {
+            inactiveSessions.clear();
+            int failures = 0;
+            RuntimeException lastFailure = null;
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                if (slot.rejected) {
+                    continue;
+                }
+                if (inactiveSessions.contains(slot.sessionId)) {
+                    slot.rejected = true;
+                    continue;
+                }
+                try {
+                    if (!activeSessionAccumulator.acceptsTimestamp(slot.sessionId, slot.timestampMillis)) {
+                        slot.rejected = true;
+                        continue;
+                    }
+                    slot.journalSequence = activeSessionAccumulator.append(slot.sessionId, slot.type, slot.amount);
+                } catch (RuntimeException e) {
+                    slot.rejected = true;
+                    failures++;
+                    lastFailure = e;
+                    continue;
+                }
+                if (slot.journalSequence < 0) {
+                    slot.rejected = true;
+                    inactiveSessions.add(slot.sessionId);
+                } else {
+                    slot.applied = true;
+                }
+            }
+            if (failures > 0) {
+                log.error("Falha ao aplicar {} eventos do pipeline de sessões; eventos rejeitados", failures, lastFailure);
+            }
+        }
+    }
+
+    /**
+     * 4. Deriva sinais de risco do evento e o registra nas janelas móveis do usuário (que atualizam a pontuação
+     * incremental); falhas dos assinantes não alteram o resultado do evento, já aplicado. Libera aqui a reserva
+     * da aposta nos limites diários, já somada à perda do dia ou rejeitada
+     */
+    private final class RiskStage extends DependentStage {
+
+        RiskStage(Stage upstream) {
+            super(upstream);
+        }
+
+        @Override
+        void process(long first, long last) {
+            long signals = 0;
+            int failures = 0;
+            RuntimeException lastFailure = null;
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                if (slot.rejected) {
+                    releaseBet(slot);
+                    continue;
+                }
+                try {
+                    // Aposta anômala para o perfil de valores do usuário, avaliada antes de entrar no perfil
+                    slot.highBet = slot.type == SessionEventType.BET
+                            && betSizeProfileService.isAnomalous(userFeatureStore.findUserId(slot.sessionId), slot.amount);
+                    if (slot.highBet) {
+                        signals++;
+                    }
+                    userFeatureStore.recordEvent(slot.sessionId, slot.type, slot.amount);
+                } catch (RuntimeException e) {
+                    failures++;
+                    lastFailure = e;
+                }
+                releaseBet(slot);
+            }
+            if (signals > 0) {
+                highBetSignals += signals;
+            }
+            if (failures > 0) {
+                log.error("Falha ao registrar sinais de risco de {} eventos já aplicados", failures, lastFailure);
+            }
+        }
+
+        private void releaseBet(Slot slot) {
+            if (slot.limitUserId != null) {
+                userLimitService.releaseBet(slot.limitUserId, slot.amount);
+                slot.limitUserId = null;
+            }
+        }
+    }
+
+    /**
+     * 5. Confirma o lote no diário com uma única espera e contabiliza o resultado de cada requisição
+     */
+    private final class PersistStage extends DependentStage {
+
+        private long batchNumber;
+
+        PersistStage(Stage upstream) {
+            super(upstream);
+        }
+
+        @Override
+        void process(long first, long last) {
+            long maxJournalSequence = -1L;
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                if (!slot.rejected && slot.journalSequence > maxJournalSequence) {
+                    maxJournalSequence = slot.journalSequence;
+                }
+            }
+            if (maxJournalSequence > 0) {
+                try {
+                    activeSessionAccumulator.awaitDurable(maxJournalSequence);
+                } catch (RuntimeException e) {
+                    // Os eventos já estão nos contadores em memória e serão gravados no banco pela gravação em lote
+                    log.error("Falha ao confirmar o diário até a sequência {}; eventos mantidos como aplicados", maxJournalSequence, e);
+                }
+            }
+
+            batchNumber++;
+            long now = System.nanoTime();
+            long batchEndToEnd = 0;
+            for (long current = first; current <= last; current++) {
+                Slot slot = slot(current);
+                Ticket ticket = slot.ticket;
+                if (slot.rejected) {
+                    ticket.rejectedCount++;
+                    if (ticket.rejectedIndexes != null) {
+                        ticket.rejectedIndexes.add(slot.ticketIndex);
+                    }
+                } else {
+                    ticket.acceptedCount++;
+                }
+                if (ticket.lastBatch != batchNumber) {
+                    ticket.lastBatch = batchNumber;
+                    ticket.batchCount++;
+                }
+                long elapsed = now - slot.publishedNanos;
+                batchEndToEnd += elapsed;
+                if (elapsed > maxEndToEndNanos) {
+                    maxEndToEndNanos = elapsed;
+                }
+                slot.ticket = null;
+            }
+            endToEndNanos += batchEndToEnd;
+            completedEvents += last - first + 1;
+        }
+    }
+}
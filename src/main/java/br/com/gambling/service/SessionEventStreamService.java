@@ -0,0 +1,144 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.dto.SessionEventStreamResultDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serviço para ingestão contínua de eventos de sessões em formato NDJSON ou binário ({@link SessionEventBinaryFormat}).
+ *
+ * O corpo da requisição é lido linha a linha (ou registro a registro), sem ser carregado inteiro em memória,
+ * e os eventos são enviados ao {@link SessionEventPipeline} ou, com o pipeline desabilitado, aplicados
+ * em micro-lotes, agrupados por sessão, cada grupo em sua própria transação.
+ */
+@Service
+public class SessionEventStreamService {
+
+    @Autowired
+    private GamblingSessionService gamblingSessionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionEventPipeline sessionEventPipeline;
+
+    @Value("${gambling.sessions.stream.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Consome um fluxo NDJSON de eventos e retorna o total de eventos aceitos e rejeitados
+     */
+    public SessionEventStreamResultDto ingest(InputStream body) throws IOException {
+        if (sessionEventPipeline.isEnabled()) {
+            return ingestThroughPipeline(body);
+        }
+        ObjectReader eventReader = objectMapper.readerFor(SessionEventDto.class);
+        SessionEventStreamResultDto result = new SessionEventStreamResultDto();
+        List<SessionEventDto> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(eventReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    result.addRejected(1);
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            }
+        }
+        flush(batch, result);
+        return result;
+    }
+
+    /**
+     * Consome um fluxo de registros binários de eventos e retorna o total de eventos aceitos e rejeitados
+     */
+    public SessionEventStreamResultDto ingestBinary(InputStream body) throws IOException {
+        SessionEventStreamResultDto result = new SessionEventStreamResultDto();
+        int trailing;
+        if (sessionEventPipeline.isEnabled()) {
+            SessionEventPipeline.Ticket ticket = sessionEventPipeline.newTicket();
+            try {
+                trailing = SessionEventBinaryFormat.read(body, (sessionId, type, amount, timestampMillis) ->
+                        sessionEventPipeline.publish(sessionId, type, amount, timestampMillis, ticket));
+            } finally {
+                sessionEventPipeline.await(ticket);
+            }
+            result.addAccepted(ticket.getAcceptedCount());
+            result.addRejected(ticket.getRejectedCount());
+            result.setBatchCount(ticket.getBatchCount());
+        } else {
+            List<SessionEventDto> batch = new ArrayList<>(batchSize);
+            trailing = SessionEventBinaryFormat.read(body, (sessionId, type, amount, timestampMillis) -> {
+                batch.add(new SessionEventDto(sessionId, type, amount, SessionEventBinaryFormat.toLocalDateTime(timestampMillis)));
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            });
+            flush(batch, result);
+        }
+        if (trailing > 0) {
+            // Registro final incompleto
+            result.addRejected(1);
+        }
+        return result;
+    }
+
+    /**
+     * Publica cada linha no pipeline de eventos, que decodifica, valida e aplica os eventos em lotes
+     */
+    private SessionEventStreamResultDto ingestThroughPipeline(InputStream body) throws IOException {
+        SessionEventPipeline.Ticket ticket = sessionEventPipeline.newTicket();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    sessionEventPipeline.publish(line, ticket);
+                }
+            }
+        } finally {
+            sessionEventPipeline.await(ticket);
+        }
+
+        SessionEventStreamResultDto result = new SessionEventStreamResultDto();
+        result.addAccepted(ticket.getAcceptedCount());
+        result.addRejected(ticket.getRejectedCount());
+        result.setBatchCount(ticket.getBatchCount());
+        return result;
+    }
+
+    /**
+     * Aplica o micro-lote acumulado e contabiliza o resultado
+     */
+    private void flush(List<SessionEventDto> batch, SessionEventStreamResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int accepted = gamblingSessionService.applyEventMicroBatch(batch);
+        result.addAccepted(accepted);
+        result.addRejected(batch.size() - accepted);
+        result.incrementBatchCount();
+        batch.clear();
+    }
+}
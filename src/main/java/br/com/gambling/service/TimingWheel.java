@@ -0,0 +1,112 @@
+package br.com.gambling.service;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roda de tempo hierárquica para disparar itens agendados sem percorrer todos os pendentes a cada passo.
+ *
+ * O nível mais baixo tem {@code wheelSize} baldes de {@code tickMillis}; um item com prazo além da volta
+ * corrente vai para um nível acima, com baldes do tamanho da volta inteira do nível abaixo, criado sob
+ * demanda. Ao avançar o relógio, cada balde do nível mais baixo cujo intervalo terminou tem todos os seus
+ * itens vencidos, e cada balde de um nível acima que começa é redistribuído para os níveis abaixo. Inserir
+ * e cancelar custam O(1); avançar custa O(1) por passo mais os itens movidos. Não é seguro para acesso
+ * concorrente; o chamador sincroniza.
+ */
+final class TimingWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final ArrayDeque<Entry>[] buckets;
+    private long currentTime;
+    private TimingWheel overflow;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int bucket = 0; bucket < wheelSize; bucket++) {
+            buckets[bucket] = new ArrayDeque<>();
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * Insere o item no balde do seu prazo; retorna {@code false} se o prazo já passou (o chamador o dispara)
+     */
+    boolean add(Entry entry) {
+        if (entry.deadline < currentTime) {
+            return false;
+        }
+        if (entry.deadline < currentTime + interval) {
+            buckets[(int) Math.floorMod(entry.deadline / tickMillis, (long) wheelSize)].addLast(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel(interval, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    /**
+     * Avança o relógio até {@code now}, adicionando a {@code expired} os itens não cancelados com prazo vencido
+     */
+    void advance(long now, List<Entry> expired) {
+        while (currentTime + tickMillis <= now) {
+            drain(buckets[slot(currentTime)], expired::add);
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.cascade(currentTime, this, expired);
+            }
+        }
+    }
+
+    /**
+     * Nível acima: ao começar o intervalo de um balde, devolve seus itens à roda de baixo
+     */
+    private void cascade(long time, TimingWheel root, List<Entry> expired) {
+        while (currentTime + tickMillis <= time) {
+            currentTime += tickMillis;
+            drain(buckets[slot(currentTime)], entry -> {
+                if (!root.add(entry)) {
+                    expired.add(entry);
+                }
+            });
+            if (overflow != null) {
+                overflow.cascade(currentTime, root, expired);
+            }
+        }
+    }
+
+    private int slot(long time) {
+        return (int) Math.floorMod(time / tickMillis, (long) wheelSize);
+    }
+
+    private static void drain(ArrayDeque<Entry> bucket, Consumer<Entry> action) {
+        Entry entry;
+        while ((entry = bucket.pollFirst()) != null) {
+            if (!entry.cancelled) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Item agendado; o cancelamento é preguiçoso e o item é descartado quando seu balde é percorrido
+     */
+    static final class Entry {
+
+        final long id;
+        final long deadline;
+        boolean cancelled;
+
+        Entry(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+}
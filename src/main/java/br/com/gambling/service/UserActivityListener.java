@@ -0,0 +1,31 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.SessionEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recebe a atividade de cada usuário depois de registrada no {@link UserFeatureStore}
+ */
+public interface UserActivityListener {
+
+    /**
+     * Sessão iniciada pelo usuário, com o início informado na abertura
+     */
+    default void onSessionStart(Long sessionId, Long userId, LocalDateTime sessionStart) {}
+
+    /**
+     * Aposta ou ganho aceito em uma sessão do usuário
+     */
+    default void onEvent(Long sessionId, Long userId, SessionEventType type, double amount) {}
+
+    /**
+     * Sessão do usuário finalizada com o resultado líquido
+     */
+    default void onSessionEnd(Long sessionId, Long userId, double netResult) {}
+
+    /**
+     * Depósito do usuário
+     */
+    default void onDeposit(Long userId, double amount) {}
+}
@@ -0,0 +1,484 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.UserFeaturesDto;
+import br.com.gambling.enums.FeatureWindow;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.enums.UserFeature;
+import br.com.gambling.repository.GamblingSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Variáveis por usuário em janelas móveis de 1 hora, 24 horas, 7 dias e 30 dias (valor e quantidade de
+ * apostas, perda líquida, sessões, depósitos, sessões com perda significativa e tipos de jogo distintos).
+ *
+ * Cada usuário tem três anéis de baldes em arrays primitivos: 60 baldes de 1 minuto, 24 de 1 hora e 30 de 1 dia.
+ * Cada evento soma no balde corrente dos três anéis, e cada janela mantém a soma dos seus baldes, descontando
+ * os que saem quando o tempo avança; a leitura de uma variável é O(1). A janela cobre as últimas N unidades
+ * com resolução de um balde. Os tipos de jogo são bits por balde, unidos na leitura (no máximo 30 baldes).
+ *
+ * As janelas são reconstruídas de {@code sessoes_apostas} na inicialização, atribuindo os totais de cada sessão
+ * ao seu início; os depósitos não têm histórico por evento no banco e recomeçam vazios.
+ */
+@Service
+public class UserFeatureStore {
+
+    private static final Logger log = LoggerFactory.getLogger(UserFeatureStore.class);
+
+    /**
+     * Resultado líquido abaixo do qual uma sessão conta como perda significativa
+     */
+    public static final double SIGNIFICANT_LOSS = -100.0;
+
+    private static final int FIELDS = UserFeature.values().length;
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final int MAX_GAME_TYPES = Long.SIZE;
+    private static final double EPSILON = 1e-6;
+
+    @Autowired
+    private GamblingSessionRepository gamblingSessionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.features.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private final Map<Long, UserFeatures> features = new ConcurrentHashMap<>();
+    private final Map<Long, Long> sessionUsers = new ConcurrentHashMap<>(); // Só sessões ativas
+    private final Map<Long, Integer> activeSessions = new ConcurrentHashMap<>(); // Sessões ativas por usuário
+    private final Map<String, Long> gameTypeBits = new ConcurrentHashMap<>();
+    private final AtomicInteger gameTypeCount = new AtomicInteger();
+    private final List<UserActivityListener> listeners = new CopyOnWriteArrayList<>();
+
+    public UserFeatureStore(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Registra um ouvinte notificado depois de cada atividade registrada
+     */
+    public void addListener(UserActivityListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registra o início de uma sessão do usuário
+     */
+    public void recordSessionStart(Long sessionId, Long userId, LocalDateTime sessionStart, String gameType) {
+        trackSession(sessionId, userId);
+        long now = System.currentTimeMillis();
+        long gameTypeBit = gameTypeBit(gameType);
+        update(userId, userFeatures -> {
+            userFeatures.add(now, UserFeature.SESSION_COUNT, 1);
+            userFeatures.addGameType(now, gameTypeBit);
+        });
+        listeners.forEach(listener -> listener.onSessionStart(sessionId, userId, sessionStart));
+    }
+
+    /**
+     * Registra uma aposta ou um ganho aceito na sessão
+     */
+    public void recordEvent(Long sessionId, SessionEventType type, double amount) {
+        Long userId = resolveUser(sessionId);
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        update(userId, userFeatures -> {
+            if (type == SessionEventType.BET) {
+                userFeatures.add(now, UserFeature.BET_SUM, amount);
+                userFeatures.add(now, UserFeature.BET_COUNT, 1);
+                userFeatures.add(now, UserFeature.NET_LOSS, amount);
+            } else {
+                userFeatures.add(now, UserFeature.NET_LOSS, -amount);
+            }
+        });
+        listeners.forEach(listener -> listener.onEvent(sessionId, userId, type, amount));
+    }
+
+    /**
+     * Registra a finalização de uma sessão com o seu resultado líquido
+     */
+    public void recordSessionEnd(Long sessionId, Long userId, double netResult) {
+        untrackSession(sessionId);
+        if (netResult < SIGNIFICANT_LOSS) {
+            long now = System.currentTimeMillis();
+            update(userId, userFeatures -> userFeatures.add(now, UserFeature.SIGNIFICANT_LOSS_SESSIONS, 1));
+        }
+        listeners.forEach(listener -> listener.onSessionEnd(sessionId, userId, netResult));
+    }
+
+    /**
+     * Registra um depósito do usuário
+     */
+    public void recordDeposit(Long userId, double amount) {
+        long now = System.currentTimeMillis();
+        update(userId, userFeatures -> {
+            userFeatures.add(now, UserFeature.DEPOSIT_SUM, amount);
+            userFeatures.add(now, UserFeature.DEPOSIT_COUNT, 1);
+        });
+        listeners.forEach(listener -> listener.onDeposit(userId, amount));
+    }
+
+    /**
+     * Retorna o valor de uma variável do usuário na janela (zero se não houver atividade)
+     */
+    public double get(Long userId, FeatureWindow window, UserFeature feature) {
+        UserFeatures userFeatures = features.get(userId);
+        if (userFeatures == null) {
+            return 0.0;
+        }
+        synchronized (userFeatures) {
+            return userFeatures.get(System.currentTimeMillis(), window, feature);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de tipos de jogo distintos do usuário na janela
+     */
+    public int countDistinctGameTypes(Long userId, FeatureWindow window) {
+        UserFeatures userFeatures = features.get(userId);
+        if (userFeatures == null) {
+            return 0;
+        }
+        synchronized (userFeatures) {
+            return Long.bitCount(userFeatures.gameTypes(System.currentTimeMillis(), window));
+        }
+    }
+
+    /**
+     * Retorna todas as variáveis do usuário em uma janela
+     */
+    public UserFeaturesDto snapshot(Long userId, FeatureWindow window) {
+        UserFeaturesDto dto = new UserFeaturesDto();
+        dto.setUserId(userId);
+        dto.setWindow(window);
+        dto.setBetSum(get(userId, window, UserFeature.BET_SUM));
+        dto.setBetCount(Math.round(get(userId, window, UserFeature.BET_COUNT)));
+        dto.setNetLoss(get(userId, window, UserFeature.NET_LOSS));
+        dto.setSessionCount(Math.round(get(userId, window, UserFeature.SESSION_COUNT)));
+        dto.setDepositSum(get(userId, window, UserFeature.DEPOSIT_SUM));
+        dto.setDepositCount(Math.round(get(userId, window, UserFeature.DEPOSIT_COUNT)));
+        dto.setSignificantLossSessions(Math.round(get(userId, window, UserFeature.SIGNIFICANT_LOSS_SESSIONS)));
+        dto.setDistinctGameTypes(countDistinctGameTypes(userId, window));
+        return dto;
+    }
+
+    /**
+     * Retorna as variáveis do usuário em todas as janelas
+     */
+    public List<UserFeaturesDto> snapshots(Long userId) {
+        List<UserFeaturesDto> snapshots = new ArrayList<>(FeatureWindow.values().length);
+        for (FeatureWindow window : FeatureWindow.values()) {
+            snapshots.add(snapshot(userId, window));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Reconstrói as janelas a partir das sessões dos últimos 30 dias e registra as sessões ativas
+     */
+    public void rebuild() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(30);
+        long loaded = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = gamblingSessionRepository.streamFeatureSourcesSince(since)) {
+                return rows.peek(row -> loadSession(row, since)).count();
+            }
+        });
+        log.info("Janelas móveis de {} usuários reconstruídas a partir de {} sessões em {} ms",
+                features.size(), loaded, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Descarta os usuários sem atividade nos últimos 30 dias e sem sessões ativas
+     */
+    @Scheduled(fixedDelayString = "${gambling.features.eviction-interval-ms:600000}")
+    public void evictIdleUsers() {
+        long now = System.currentTimeMillis();
+        features.forEach((userId, userFeatures) -> {
+            synchronized (userFeatures) {
+                if (userFeatures.isEmpty(now) && !activeSessions.containsKey(userId)) {
+                    userFeatures.evicted = true;
+                    features.remove(userId, userFeatures);
+                }
+            }
+        });
+    }
+
+    private void loadSession(Object[] row, LocalDateTime since) {
+        Long sessionId = (Long) row[0];
+        Long userId = (Long) row[1];
+        LocalDateTime sessionStart = (LocalDateTime) row[2];
+        LocalDateTime sessionEnd = (LocalDateTime) row[3];
+        double totalBet = row[4] != null ? (Double) row[4] : 0.0;
+        double totalWin = row[5] != null ? (Double) row[5] : 0.0;
+        int betCount = row[6] != null ? (Integer) row[6] : 0;
+        double netResult = row[7] != null ? (Double) row[7] : 0.0;
+
+        if (sessionEnd == null) {
+            trackSession(sessionId, userId);
+        }
+        update(userId, userFeatures -> {
+            if (sessionStart != null && !sessionStart.isBefore(since)) {
+                long startMillis = toEpochMillis(sessionStart);
+                userFeatures.add(startMillis, UserFeature.SESSION_COUNT, 1);
+                userFeatures.add(startMillis, UserFeature.BET_SUM, totalBet);
+                userFeatures.add(startMillis, UserFeature.BET_COUNT, betCount);
+                userFeatures.add(startMillis, UserFeature.NET_LOSS, totalBet - totalWin);
+                userFeatures.addGameType(startMillis, gameTypeBit((String) row[8]));
+            }
+            if (sessionEnd != null && netResult < SIGNIFICANT_LOSS) {
+                userFeatures.add(toEpochMillis(sessionEnd), UserFeature.SIGNIFICANT_LOSS_SESSIONS, 1);
+            }
+        });
+    }
+
+    /**
+     * Usuário dono da sessão, em memória para sessões ativas (consulta o banco só na primeira vez); sessões
+     * finalizadas são consultadas no banco e não ficam em memória
+     */
+    public Long findUserId(Long sessionId) {
+        return resolveUser(sessionId);
+    }
+
+    private Long resolveUser(Long sessionId) {
+        Long userId = sessionUsers.get(sessionId);
+        if (userId != null) {
+            return userId;
+        }
+        List<Object[]> owner = gamblingSessionRepository.findOwnerById(sessionId);
+        if (owner.isEmpty()) {
+            return null;
+        }
+        userId = (Long) owner.get(0)[0];
+        if (owner.get(0)[1] == null) {
+            trackSession(sessionId, userId);
+        }
+        return userId;
+    }
+
+    private void trackSession(Long sessionId, Long userId) {
+        if (sessionUsers.putIfAbsent(sessionId, userId) == null) {
+            activeSessions.merge(userId, 1, Integer::sum);
+        }
+    }
+
+    private void untrackSession(Long sessionId) {
+        Long userId = sessionUsers.remove(sessionId);
+        if (userId != null) {
+            activeSessions.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Aplica a alteração sob o monitor dos anéis do usuário, repetindo se eles acabaram de ser descartados
+     */
+    private void update(Long userId, Consumer<UserFeatures> update) {
+        while (true) {
+            UserFeatures userFeatures = features.computeIfAbsent(userId, id -> new UserFeatures());
+            synchronized (userFeatures) {
+                if (!userFeatures.evicted) {
+                    update.accept(userFeatures);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bit do tipo de jogo; a partir do 64º tipo distinto todos compartilham o último bit
+     */
+    private long gameTypeBit(String gameType) {
+        if (gameType == null) {
+            return 0L;
+        }
+        return gameTypeBits.computeIfAbsent(gameType,
+                type -> 1L << Math.min(gameTypeCount.getAndIncrement(), MAX_GAME_TYPES - 1));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Anéis de um usuário; acessados sob o monitor do próprio objeto
+     */
+    private static final class UserFeatures {
+
+        private final FeatureRing minutes = new FeatureRing(MINUTE_MILLIS, 60, 60);
+        private final FeatureRing hours = new FeatureRing(HOUR_MILLIS, 24, 24);
+        private final FeatureRing days = new FeatureRing(DAY_MILLIS, 30, 7, 30);
+        private boolean evicted;
+
+        void add(long timeMillis, UserFeature feature, double delta) {
+            minutes.add(timeMillis, feature.ordinal(), delta);
+            hours.add(timeMillis, feature.ordinal(), delta);
+            days.add(timeMillis, feature.ordinal(), delta);
+        }
+
+        void addGameType(long timeMillis, long bit) {
+            if (bit != 0L) {
+                minutes.addGameType(timeMillis, bit);
+                hours.addGameType(timeMillis, bit);
+                days.addGameType(timeMillis, bit);
+            }
+        }
+
+        double get(long nowMillis, FeatureWindow window, UserFeature feature) {
+            return switch (window) {
+                case HOUR_1 -> minutes.sum(nowMillis, 0, feature.ordinal());
+                case HOURS_24 -> hours.sum(nowMillis, 0, feature.ordinal());
+                case DAYS_7 -> days.sum(nowMillis, 0, feature.ordinal());
+                case DAYS_30 -> days.sum(nowMillis, 1, feature.ordinal());
+            };
+        }
+
+        long gameTypes(long nowMillis, FeatureWindow window) {
+            return switch (window) {
+                case HOUR_1 -> minutes.gameTypes(nowMillis, 0);
+                case HOURS_24 -> hours.gameTypes(nowMillis, 0);
+                case DAYS_7 -> days.gameTypes(nowMillis, 0);
+                case DAYS_30 -> days.gameTypes(nowMillis, 1);
+            };
+        }
+
+        boolean isEmpty(long nowMillis) {
+            return days.isEmpty(nowMillis, 1);
+        }
+    }
+
+    /**
+     * Anel de baldes de largura fixa com as somas correntes de uma ou mais janelas (em número de baldes,
+     * até o tamanho do anel). Os valores ficam num único array, {@code FIELDS} posições por balde.
+     */
+    private static final class FeatureRing {
+
+        private final long bucketMillis;
+        private final int size;
+        private final int[] windows;
+        private final double[] values;
+        private final long[] gameTypes;
+        private final double[] sums;
+        private long head = Long.MIN_VALUE;
+
+        FeatureRing(long bucketMillis, int size, int... windows) {
+            this.bucketMillis = bucketMillis;
+            this.size = size;
+            this.windows = windows;
+            this.values = new double[size * FIELDS];
+            this.gameTypes = new long[size];
+            this.sums = new double[windows.length * FIELDS];
+        }
+
+        void add(long timeMillis, int field, double delta) {
+            long bucket = Math.floorDiv(timeMillis, bucketMillis);
+            advanceTo(bucket);
+            if (bucket <= head - size) {
+                return;
+            }
+            values[slot(bucket) * FIELDS + field] += delta;
+            for (int window = 0; window < windows.length; window++) {
+                if (bucket > head - windows[window]) {
+                    sums[window * FIELDS + field] += delta;
+                }
+            }
+        }
+
+        void addGameType(long timeMillis, long bit) {
+            long bucket = Math.floorDiv(timeMillis, bucketMillis);
+            advanceTo(bucket);
+            if (bucket > head - size) {
+                gameTypes[slot(bucket)] |= bit;
+            }
+        }
+
+        double sum(long nowMillis, int window, int field) {
+            advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+            double sum = sums[window * FIELDS + field];
+            // Descarta o resíduo de ponto flutuante das somas e subtrações sucessivas
+            return Math.abs(sum) < EPSILON ? 0.0 : sum;
+        }
+
+        long gameTypes(long nowMillis, int window) {
+            advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+            long union = 0L;
+            for (long bucket = head - windows[window] + 1; bucket <= head; bucket++) {
+                union |= gameTypes[slot(bucket)];
+            }
+            return union;
+        }
+
+        boolean isEmpty(long nowMillis, int window) {
+            advanceTo(Math.floorDiv(nowMillis, bucketMillis));
+            for (int field = 0; field < FIELDS; field++) {
+                if (Math.abs(sums[window * FIELDS + field]) >= EPSILON) {
+                    return false;
+                }
+            }
+            return gameTypes(nowMillis, window) == 0L;
+        }
+
+        /**
+         * Avança o balde corrente: cada balde que sai de uma janela é descontado da sua soma e o balde
+         * reaproveitado é zerado. Um salto maior que o anel apenas zera tudo.
+         */
+        private void advanceTo(long bucket) {
+            if (head == Long.MIN_VALUE) {
+                head = bucket;
+                return;
+            }
+            if (bucket <= head) {
+                return;
+            }
+            if (bucket - head >= size) {
+                Arrays.fill(values, 0.0);
+                Arrays.fill(gameTypes, 0L);
+                Arrays.fill(sums, 0.0);
+                head = bucket;
+                return;
+            }
+            for (long next = head + 1; next <= bucket; next++) {
+                for (int window = 0; window < windows.length; window++) {
+                    int leaving = slot(next - windows[window]) * FIELDS;
+                    int sumOffset = window * FIELDS;
+                    for (int field = 0; field < FIELDS; field++) {
+                        sums[sumOffset + field] -= values[leaving + field];
+                    }
+                }
+                int entering = slot(next);
+                Arrays.fill(values, entering * FIELDS, entering * FIELDS + FIELDS, 0.0);
+                gameTypes[entering] = 0L;
+            }
+            head = bucket;
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) size);
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.UserLimitsResponseDto;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.enums.UserLimitType;
+import br.com.gambling.exception.LimitExceededException;
+import br.com.gambling.repository.GamblingSessionRepository;
+import br.com.gambling.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limites diários de jogo responsável (depósitos, perdas e tempo em sessão), verificados antes de gravar
+ * depósitos, abrir sessões e aceitar apostas.
+ *
+ * Só os usuários com algum limite configurado têm contadores em memória: totais do dia em campos primitivos,
+ * zerados de forma preguiçosa na primeira operação após a virada do dia, de modo que cada verificação é uma
+ * consulta ao mapa e algumas comparações. Os contadores acompanham toda a atividade pelo {@link UserFeatureStore};
+ * depósitos e apostas avulsas reservam o valor durante a operação para que requisições simultâneas do mesmo
+ * usuário não ultrapassem o limite juntas. Na inicialização e ao alterar os limites de um usuário, os
+ * contadores são recuperados do banco: depósitos do dia em {@code usuarios}, perdas gravadas no dia em cada
+ * sessão ({@code perda_dia}, inclusive de sessões iniciadas em dias anteriores) e tempo das sessões a partir
+ * do início do dia.
+ */
+@Service
+public class UserLimitService implements UserActivityListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLimitService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GamblingSessionRepository gamblingSessionRepository;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private ActiveSessionAccumulator activeSessionAccumulator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gambling.limits.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, LimitCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Início (epoch millis) das sessões ativas dos usuários com limites
+     */
+    private final Map<Long, Long> sessionStarts = new ConcurrentHashMap<>();
+
+    public UserLimitService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Também chamado após o commit de outra transação: lê sempre em uma transação própria
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void register() {
+        userFeatureStore.addListener(this);
+    }
+
+    /**
+     * Recupera os contadores do dia de todos os usuários com limites
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, LimitCounters> loaded = new HashMap<>();
+            userRepository.findLimitSources().forEach(row -> loaded.put((Long) row[0], newCounters(row, today, now)));
+            if (!loaded.isEmpty()) {
+                gamblingSessionRepository.findLimitSourcesSince(startOf(today))
+                        .forEach(row -> loadSession(loaded.get((Long) row[1]), row, today));
+            }
+            counters.putAll(loaded);
+        });
+        log.info("Contadores de limites diários recuperados para {} usuários", counters.size());
+    }
+
+    /**
+     * Recupera os contadores do usuário após o commit da alteração dos seus limites (descarta-os se não há limites)
+     */
+    public void reload(Long userId) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> {
+                // Grava antes as apostas ainda acumuladas em memória, para que as sessões ativas reflitam o dia
+                activeSessionAccumulator.flush();
+                transactionTemplate.executeWithoutResult(status -> loadUser(userId));
+            });
+        }
+    }
+
+    private void loadUser(Long userId) {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = userRepository.findLimitSourcesById(userId);
+        LimitCounters userCounters = rows.isEmpty() ? null : newCounters(rows.get(0), today, now);
+        if (userCounters == null || !userCounters.hasLimits()) {
+            counters.remove(userId);
+            return;
+        }
+        gamblingSessionRepository.findLimitSourcesByUserSince(userId, startOf(today))
+                .forEach(row -> loadSession(userCounters, row, today));
+        counters.put(userId, userCounters);
+    }
+
+    /**
+     * Reserva o depósito no total do dia, rejeitando-o se ultrapassaria o limite; o chamador libera a reserva
+     * ao terminar ({@link #releaseDeposit}), quando o depósito já foi contabilizado
+     */
+    public void reserveDeposit(Long userId, double amount) {
+        LimitCounters userCounters = counters.get(userId);
+        if (userCounters == null) {
+            return;
+        }
+        synchronized (userCounters) {
+            userCounters.rollover(System.currentTimeMillis());
+            double used = userCounters.deposits + userCounters.reservedDeposits;
+            if (used + amount > userCounters.depositLimit) {
+                throw new LimitExceededException(userId, UserLimitType.DAILY_DEPOSIT, userCounters.depositLimit, used);
+            }
+            userCounters.reservedDeposits += amount;
+        }
+    }
+
+    public void releaseDeposit(Long userId, double amount) {
+        LimitCounters userCounters = counters.get(userId);
+        if (userCounters != null) {
+            synchronized (userCounters) {
+                userCounters.reservedDeposits = Math.max(userCounters.reservedDeposits - amount, 0.0);
+            }
+        }
+    }
+
+    /**
+     * Rejeita a abertura de sessão se o tempo em sessões do dia já atingiu o limite
+     */
+    public void checkSessionStart(Long userId) {
+        LimitCounters userCounters = userId != null ? counters.get(userId) : null;
+        if (userCounters == null) {
+            return;
+        }
+        LimitExceededException violation;
+        synchronized (userCounters) {
+            long now = System.currentTimeMillis();
+            userCounters.rollover(now);
+            violation = sessionTimeViolation(userId, userCounters, now);
+        }
+        if (violation != null) {
+            throw violation;
+        }
+    }
+
+    /**
+     * Reserva a aposta na perda do dia, rejeitando-a se ultrapassaria o limite de perdas ou se o tempo em sessões
+     * do dia já se esgotou; retorna o usuário reservado (para {@link #releaseBet}) ou {@code null} sem limites
+     */
+    public Long reserveBet(Long sessionId, double amount) {
+        if (counters.isEmpty()) {
+            return null;
+        }
+        Long userId = userFeatureStore.findUserId(sessionId);
+        LimitCounters userCounters = userId != null ? counters.get(userId) : null;
+        if (userCounters == null) {
+            return null;
+        }
+        LimitExceededException violation;
+        synchronized (userCounters) {
+            long now = System.currentTimeMillis();
+            userCounters.rollover(now);
+            violation = betViolation(userId, userCounters, amount, now);
+            if (violation == null) {
+                userCounters.reservedLoss += amount;
+            }
+        }
+        if (violation != null) {
+            throw violation;
+        }
+        return userId;
+    }
+
+    public void releaseBet(Long userId, double amount) {
+        LimitCounters userCounters = userId != null ? counters.get(userId) : null;
+        if (userCounters != null) {
+            synchronized (userCounters) {
+                userCounters.reservedLoss = Math.max(userCounters.reservedLoss - amount, 0.0);
+            }
+        }
+    }
+
+    /**
+     * Reserva a aposta de um lote na perda do dia como {@link #reserveBet}, sem lançar: retorna o motivo da
+     * rejeição ou {@code null} se ela foi reservada (liberar com {@link #releaseBet}) ou o usuário não tem limites
+     */
+    public String tryReserveBet(Long userId, double amount) {
+        LimitCounters userCounters = userId != null && !counters.isEmpty() ? counters.get(userId) : null;
+        if (userCounters == null) {
+            return null;
+        }
+        LimitExceededException violation;
+        synchronized (userCounters) {
+            long now = System.currentTimeMillis();
+            userCounters.rollover(now);
+            violation = betViolation(userId, userCounters, amount, now);
+            if (violation == null) {
+                userCounters.reservedLoss += amount;
+            }
+        }
+        return violation != null ? violation.getMessage() : null;
+    }
+
+    /**
+     * Preenche o quanto o usuário utilizou hoje dos seus limites (campos nulos se ele não tem limites)
+     */
+    public void fillUsage(UserLimitsResponseDto dto) {
+        LimitCounters userCounters = counters.get(dto.getUserId());
+        if (userCounters == null) {
+            return;
+        }
+        synchronized (userCounters) {
+            long now = System.currentTimeMillis();
+            userCounters.rollover(now);
+            dto.setDepositsToday(userCounters.deposits);
+            dto.setLossToday(userCounters.loss);
+            dto.setSessionMinutesToday(TimeUnit.MILLISECONDS.toMinutes(userCounters.sessionMillis(now)));
+        }
+    }
+
+    @Override
+    public void onSessionStart(Long sessionId, Long userId, LocalDateTime sessionStart) {
+        LimitCounters userCounters = counters.get(userId);
+        if (userCounters != null) {
+            long now = System.currentTimeMillis();
+            // O tempo conta do início informado da sessão (nunca no futuro), como na recuperação do banco
+            long startMillis = sessionStart != null ? Math.min(toEpochMillis(sessionStart), now) : now;
+            synchronized (userCounters) {
+                userCounters.rollover(now);
+                userCounters.startSession(startMillis);
+            }
+            sessionStarts.put(sessionId, startMillis);
+        }
+    }
+
+    @Override
+    public void onEvent(Long sessionId, Long userId, SessionEventType type, double amount) {
+        LimitCounters userCounters = counters.get(userId);
+        if (userCounters != null) {
+            synchronized (userCounters) {
+                userCounters.rollover(System.currentTimeMillis());
+                userCounters.loss += type == SessionEventType.BET ? amount : -amount;
+            }
+        }
+    }
+
+    @Override
+    public void onSessionEnd(Long sessionId, Long userId, double netResult) {
+        Long startMillis = sessionStarts.remove(sessionId);
+        LimitCounters userCounters = counters.get(userId);
+        if (startMillis != null && userCounters != null) {
+            long now = System.currentTimeMillis();
+            synchronized (userCounters) {
+                userCounters.rollover(now);
+                userCounters.endSession(startMillis, now);
+            }
+        }
+    }
+
+    @Override
+    public void onDeposit(Long userId, double amount) {
+        LimitCounters userCounters = counters.get(userId);
+        if (userCounters != null) {
+            synchronized (userCounters) {
+                userCounters.rollover(System.currentTimeMillis());
+                userCounters.deposits += amount;
+            }
+        }
+    }
+
+    /**
+     * Limite que a aposta ultrapassaria (tempo em sessões ou perdas do dia), ou {@code null} se ela cabe nos limites
+     */
+    private static LimitExceededException betViolation(Long userId, LimitCounters userCounters, double amount, long now) {
+        LimitExceededException violation = sessionTimeViolation(userId, userCounters, now);
+        if (violation != null) {
+            return violation;
+        }
+        double used = userCounters.loss + userCounters.reservedLoss;
+        if (used + amount > userCounters.lossLimit) {
+            return new LimitExceededException(userId, UserLimitType.DAILY_LOSS, userCounters.lossLimit, used);
+        }
+        return null;
+    }
+
+    private static LimitExceededException sessionTimeViolation(Long userId, LimitCounters userCounters, long now) {
+        long usedMillis = userCounters.sessionMillis(now);
+        if (usedMillis >= userCounters.sessionLimitMillis) {
+            return new LimitExceededException(userId, UserLimitType.DAILY_SESSION_TIME,
+                    TimeUnit.MILLISECONDS.toMinutes(userCounters.sessionLimitMillis), TimeUnit.MILLISECONDS.toMinutes(usedMillis));
+        }
+        return null;
+    }
+
+    /**
+     * Contadores a partir da linha (id, limite de depósitos, limite de perdas, limite de minutos, depósitos do dia, dia)
+     */
+    private LimitCounters newCounters(Object[] row, LocalDate today, long now) {
+        LimitCounters userCounters = new LimitCounters(
+                row[1] != null ? (Double) row[1] : Double.POSITIVE_INFINITY,
+                row[2] != null ? (Double) row[2] : Double.POSITIVE_INFINITY,
+                row[3] != null ? TimeUnit.MINUTES.toMillis((Integer) row[3]) : Long.MAX_VALUE);
+        userCounters.rollover(now);
+        if (today.equals(row[5]) && row[4] != null) {
+            userCounters.deposits = (Double) row[4];
+        }
+        return userCounters;
+    }
+
+    /**
+     * Soma a sessão (id, usuário, início, fim, perda do dia, dia da perda) aos contadores do dia; perdas contam
+     * pelos eventos gravados hoje, qualquer que seja o início da sessão, e tempo pela parte da sessão a partir do
+     * início do dia
+     */
+    private void loadSession(LimitCounters userCounters, Object[] row, LocalDate today) {
+        if (userCounters == null || row[2] == null) {
+            return;
+        }
+        long startMillis = toEpochMillis((LocalDateTime) row[2]);
+        if (today.equals(row[5]) && row[4] != null) {
+            userCounters.loss += (Double) row[4];
+        }
+        if (row[3] == null) {
+            userCounters.startSession(startMillis);
+            sessionStarts.put((Long) row[0], startMillis);
+        } else {
+            userCounters.sessionMillis += Math.max(toEpochMillis((LocalDateTime) row[3]) - Math.max(startMillis, userCounters.dayStart), 0L);
+        }
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day.atStartOfDay();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Limites e totais do dia de um usuário; acessado sob o monitor do próprio objeto
+     */
+    private static final class LimitCounters {
+
+        final double depositLimit;
+        final double lossLimit;
+        final long sessionLimitMillis;
+
+        long dayStart;
+        long nextDayStart;
+        double deposits;
+        double reservedDeposits;
+        double loss;
+        double reservedLoss;
+        long sessionMillis;
+        int activeSessions;
+        long activeStartSum;
+
+        LimitCounters(double depositLimit, double lossLimit, long sessionLimitMillis) {
+            this.depositLimit = depositLimit;
+            this.lossLimit = lossLimit;
+            this.sessionLimitMillis = sessionLimitMillis;
+        }
+
+        boolean hasLimits() {
+            return depositLimit != Double.POSITIVE_INFINITY || lossLimit != Double.POSITIVE_INFINITY
+                    || sessionLimitMillis != Long.MAX_VALUE;
+        }
+
+        /**
+         * Zera os totais na primeira operação após a virada do dia; sessões ativas passam a contar do início do dia
+         */
+        void rollover(long now) {
+            if (now < nextDayStart) {
+                return;
+            }
+            LocalDate today = LocalDate.now();
+            dayStart = toEpochMillis(today.atStartOfDay());
+            nextDayStart = toEpochMillis(today.plusDays(1).atStartOfDay());
+            deposits = 0.0;
+            loss = 0.0;
+            sessionMillis = 0L;
+            activeStartSum = activeSessions * dayStart;
+        }
+
+        void startSession(long startMillis) {
+            activeSessions++;
+            activeStartSum += Math.max(startMillis, dayStart);
+        }
+
+        void endSession(long startMillis, long now) {
+            long countedFrom = Math.max(startMillis, dayStart);
+            activeSessions--;
+            activeStartSum -= countedFrom;
+            sessionMillis += Math.max(now - countedFrom, 0L);
+        }
+
+        /**
+         * Tempo em sessões no dia: sessões finalizadas mais o decorrido das ativas
+         */
+        long sessionMillis(long now) {
+            return sessionMillis + activeSessions * now - activeStartSum;
+        }
+    }
+}
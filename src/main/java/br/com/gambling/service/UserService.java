@@ -1,14 +1,18 @@
 package br.com.gambling.service;
 
+import br.com.gambling.dto.UserLimitsRequestDto;
+import br.com.gambling.dto.UserLimitsResponseDto;
 import br.com.gambling.dto.UserRequestDto;
 import br.com.gambling.dto.UserResponseDto;
 import br.com.gambling.entity.User;
+import br.com.gambling.enums.IdempotencyScope;
 import br.com.gambling.enums.RiskLevel;
 import br.com.gambling.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -25,6 +29,21 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IncrementalRiskScorer incrementalRiskScorer;
+
+    @Autowired
+    private UserFeatureStore userFeatureStore;
+
+    @Autowired
+    private UserLimitService userLimitService;
+
     /**
      * Cria um novo usuário
      */
@@ -63,8 +82,9 @@ public class UserService {
     /**
      * Atualiza um usuário existente
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<UserResponseDto> updateUser(Long id, UserRequestDto userRequestDto) {
-        return userRepository.findById(id)
+        return optimisticRetryExecutor.execute(() -> userRepository.findById(id)
                 .map(user -> {
                     user.setName(userRequestDto.getName());
                     user.setEmail(userRequestDto.getEmail());
@@ -72,89 +92,132 @@ public class UserService {
                     user.setDateOfBirth(userRequestDto.getDateOfBirth());
                     user.setLastActivity(LocalDateTime.now());
 
-                    User savedUser = userRepository.save(user);
+                    User savedUser = userRepository.saveAndFlush(user);
                     return mapToResponseDto(savedUser);
-                });
+                }));
     }
 
     /**
      * Desativa um usuário
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean deactivateUser(Long id) {
-        return userRepository.findById(id)
+        return optimisticRetryExecutor.execute(() -> userRepository.findById(id)
                 .map(user -> {
                     user.setIsActive(false);
-                    userRepository.save(user);
+                    userRepository.saveAndFlush(user);
                     return true;
                 })
-                .orElse(false);
+                .orElse(false));
     }
 
     /**
      * Ativa um usuário
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean activateUser(Long id) {
-        return userRepository.findById(id)
+        return optimisticRetryExecutor.execute(() -> userRepository.findById(id)
                 .map(user -> {
                     user.setIsActive(true);
                     user.setLastActivity(LocalDateTime.now());
-                    userRepository.save(user);
+                    userRepository.saveAndFlush(user);
                     return true;
                 })
-                .orElse(false);
+                .orElse(false));
     }
 
     /**
      * Atualiza o nível de risco de um usuário
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean updateRiskLevel(Long id, RiskLevel riskLevel) {
-        return userRepository.findById(id)
+        boolean updated = optimisticRetryExecutor.execute(() -> userRepository.findById(id)
                 .map(user -> {
                     user.setCurrentRiskLevel(riskLevel);
                     user.setLastActivity(LocalDateTime.now());
-                    userRepository.save(user);
+                    userRepository.saveAndFlush(user);
                     return true;
                 })
-                .orElse(false);
+                .orElse(false));
+        if (updated) {
+            incrementalRiskScorer.onLevelAssigned(id, riskLevel);
+        }
+        return updated;
     }
 
     /**
-     * Adiciona um depósito ao usuário
+     * Adiciona um depósito ao usuário (rejeitado se ultrapassaria o limite diário de depósitos)
      */
     public boolean addDeposit(Long id, Double amount) {
+        userLimitService.reserveDeposit(id, amount);
+        try {
+            boolean added = userRepository.incrementDeposits(id, amount, LocalDateTime.now()) > 0;
+            if (added) {
+                userFeatureStore.recordDeposit(id, amount);
+            }
+            return added;
+        } finally {
+            userLimitService.releaseDeposit(id, amount);
+        }
+    }
+
+    /**
+     * Adiciona um depósito ao usuário uma única vez por chave de idempotência
+     */
+    public boolean addDeposit(Long id, Double amount, String idempotencyKey) {
+        return idempotencyService.execute(IdempotencyScope.DEPOSIT, idempotencyKey,
+                () -> addDeposit(id, amount) ? Optional.of(id) : Optional.<Long>empty(), userId -> userId,
+                userId -> IdempotencyService.replayTarget(id, userId, idempotencyKey))
+                .isPresent();
+    }
+
+    /**
+     * Configura os limites diários de jogo responsável do usuário
+     */
+    public Optional<UserLimitsResponseDto> updateLimits(Long id, UserLimitsRequestDto limitsRequestDto) {
+        int updated = userRepository.updateLimits(id, limitsRequestDto.getDailyDepositLimit(), limitsRequestDto.getDailyLossLimit(),
+                limitsRequestDto.getDailySessionMinutesLimit(), LocalDateTime.now());
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        userLimitService.reload(id);
+        UserLimitsResponseDto dto = new UserLimitsResponseDto();
+        dto.setUserId(id);
+        dto.setDailyDepositLimit(limitsRequestDto.getDailyDepositLimit());
+        dto.setDailyLossLimit(limitsRequestDto.getDailyLossLimit());
+        dto.setDailySessionMinutesLimit(limitsRequestDto.getDailySessionMinutesLimit());
+        return Optional.of(dto);
+    }
+
+    /**
+     * Busca os limites diários do usuário e o quanto já foi utilizado hoje
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserLimitsResponseDto> findLimits(Long id) {
         return userRepository.findById(id)
                 .map(user -> {
-                    user.addDeposit(amount);
-                    userRepository.save(user);
-                    return true;
-                })
-                .orElse(false);
+                    UserLimitsResponseDto dto = new UserLimitsResponseDto();
+                    dto.setUserId(user.getId());
+                    dto.setDailyDepositLimit(user.getDailyDepositLimit());
+                    dto.setDailyLossLimit(user.getDailyLossLimit());
+                    dto.setDailySessionMinutesLimit(user.getDailySessionMinutesLimit());
+                    userLimitService.fillUsage(dto);
+                    return dto;
+                });
     }
 
     /**
      * Adiciona um saque ao usuário
      */
     public boolean addWithdrawal(Long id, Double amount) {
-        return userRepository.findById(id)
-                .map(user -> {
-                    user.addWithdrawal(amount);
-                    userRepository.save(user);
-                    return true;
-                })
-                .orElse(false);
+        return userRepository.incrementWithdrawals(id, amount, LocalDateTime.now()) > 0;
     }
 
     /**
      * Incrementa o contador de sessões do usuário
      */
     public boolean incrementSessionCount(Long id) {
-        return userRepository.findById(id)
-                .map(user -> {
-                    user.incrementSessionCount();
-                    userRepository.save(user);
-                    return true;
-                })
-                .orElse(false);
+        return userRepository.incrementSessionCount(id, LocalDateTime.now()) > 0;
     }
 
     /**
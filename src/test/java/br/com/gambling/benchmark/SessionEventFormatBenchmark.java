@@ -0,0 +1,149 @@
+package br.com.gambling.benchmark;
+
+import br.com.gambling.dto.SessionEventBatchRequestDto;
+import br.com.gambling.dto.SessionEventDto;
+import br.com.gambling.enums.SessionEventType;
+import br.com.gambling.service.SessionEventBinaryFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparação JMH do custo por evento da decodificação JSON e do formato binário ({@link SessionEventBinaryFormat})
+ * nos dois caminhos de ingestão: o lote de uma sessão ({@code events:batch}, com Bean Validation do corpo JSON) e o
+ * fluxo de várias sessões ({@code events/stream}, uma linha NDJSON por evento). Os resultados são por evento.
+ *
+ * Execução:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) br.com.gambling.benchmark.SessionEventFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionEventFormatBenchmark {
+
+    private static final int EVENTS = SessionEventBatchRequestDto.MAX_EVENTS;
+
+    private ObjectReader batchReader;
+    private ObjectReader eventReader;
+    private Validator validator;
+
+    private byte[] jsonBatch;
+    private byte[] ndjsonStream;
+    private byte[] binaryRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        batchReader = objectMapper.readerFor(SessionEventBatchRequestDto.class);
+        eventReader = objectMapper.readerFor(SessionEventDto.class);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 20, 0);
+        List<SessionEventDto> events = new ArrayList<>(EVENTS);
+        ByteBuffer buffer = ByteBuffer.allocate(EVENTS * SessionEventBinaryFormat.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        StringBuilder ndjson = new StringBuilder();
+        for (int index = 0; index < EVENTS; index++) {
+            long sessionId = 1 + index % 64;
+            SessionEventType type = index % 3 == 0 ? SessionEventType.WIN : SessionEventType.BET;
+            double amount = 5.0 + index % 100;
+            LocalDateTime timestamp = start.plusSeconds(index);
+            events.add(new SessionEventDto(sessionId, type, amount, timestamp));
+            SessionEventBinaryFormat.write(buffer, sessionId, type, amount, timestamp);
+            ndjson.append(objectMapper.writeValueAsString(events.get(index))).append('\n');
+        }
+        jsonBatch = objectMapper.writeValueAsBytes(new SessionEventBatchRequestDto(events));
+        ndjsonStream = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        binaryRecords = buffer.array();
+    }
+
+    /**
+     * Lote JSON: corpo inteiro decodificado em DTOs e validado, como no endpoint {@code events:batch}
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batchJson(Blackhole blackhole) throws IOException {
+        SessionEventBatchRequestDto batch = batchReader.readValue(jsonBatch);
+        blackhole.consume(validator.validate(batch));
+        blackhole.consume(batch.getEvents());
+    }
+
+    /**
+     * Lote binário: registros lidos em DTOs, como no endpoint {@code events:batch} com o formato binário
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batchBinary(Blackhole blackhole) throws IOException {
+        blackhole.consume(SessionEventBinaryFormat.readEvents(new ByteArrayInputStream(binaryRecords), EVENTS));
+    }
+
+    /**
+     * Fluxo NDJSON: uma linha decodificada por evento, como no estágio de decodificação do pipeline
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void streamNdjson(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(ndjsonStream), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                SessionEventDto event = eventReader.readValue(line);
+                blackhole.consume(event.getSessionId());
+                blackhole.consume(event.getAmount());
+                blackhole.consume(event.getTimestamp());
+            }
+        }
+    }
+
+    /**
+     * Fluxo binário: campos primitivos entregues direto ao consumidor, como na publicação no pipeline
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void streamBinary(Blackhole blackhole) throws IOException {
+        SessionEventBinaryFormat.read(new ByteArrayInputStream(binaryRecords), (sessionId, type, amount, timestampMillis) -> {
+            blackhole.consume(sessionId);
+            blackhole.consume(type);
+            blackhole.consume(amount);
+            blackhole.consume(timestampMillis);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SessionEventFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
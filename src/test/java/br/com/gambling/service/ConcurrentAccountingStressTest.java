@@ -0,0 +1,172 @@
+package br.com.gambling.service;
+
+import br.com.gambling.dto.GamblingSessionRequestDto;
+import br.com.gambling.dto.UserRequestDto;
+import br.com.gambling.entity.GamblingSession;
+import br.com.gambling.entity.User;
+import br.com.gambling.repository.GamblingSessionRepository;
+import br.com.gambling.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga das atualizações concorrentes de contadores: apostas e ganhos em uma mesma sessão e depósitos
+ * em um mesmo usuário, disputando com atualizações completas versionadas, não podem perder incrementos.
+ *
+ * O acumulador em memória e as faixas por sessão ficam desligados para que todas as threads gravem direto no
+ * banco pelos incrementos atômicos. O contexto sobe com o servidor embarcado porque o canal WebSocket exige o
+ * contêiner.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gambling.sessions.write-behind.enabled=false",
+        "gambling.sessions.single-writer.enabled=false",
+        "gambling.concurrency.optimistic-retry.max-attempts=10",
+        "gambling.risk.rescoring.cron=-",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+class ConcurrentAccountingStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentAccountingStressTest.class);
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final int PROFILE_UPDATERS = 2;
+    private static final int PROFILE_UPDATES_PER_THREAD = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GamblingSessionService gamblingSessionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GamblingSessionRepository gamblingSessionRepository;
+
+    @Test
+    void concurrentBetsAndWinsOnOneSessionAreAllCounted() throws Exception {
+        Long userId = userService.createUser(new UserRequestDto("Carga Apostas", "carga.apostas@teste.com")).getId();
+        Long sessionId = gamblingSessionService.createSession(new GamblingSessionRequestDto(userId, LocalDateTime.now()))
+                .orElseThrow().getId();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            tasks.add(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    // Valores inteiros para a soma em double ser exata
+                    assertTrue(gamblingSessionService.addBet(sessionId, (double) (1 + (offset + i) % 4)));
+                    assertTrue(gamblingSessionService.addWin(sessionId, 1.0));
+                }
+                return null;
+            });
+        }
+        tasks.add(() -> {
+            assertTrue(gamblingSessionService.addBet(sessionId, 500.0));
+            return null;
+        });
+
+        long elapsedNanos = runConcurrently(tasks);
+
+        int bets = THREADS * OPERATIONS_PER_THREAD + 1;
+        double expectedBetAmount = 500.0;
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                expectedBetAmount += 1 + (thread + i) % 4;
+            }
+        }
+        GamblingSession session = gamblingSessionRepository.findById(sessionId).orElseThrow();
+        assertEquals(bets, session.getBetCount());
+        assertEquals(expectedBetAmount, session.getTotalBetAmount());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD * 1.0, session.getTotalWinAmount());
+        assertEquals(500.0, session.getMaxBetAmount());
+
+        log.info("Sessão quente: {} apostas e {} ganhos em {} ms ({} operações/s)", bets, THREADS * OPERATIONS_PER_THREAD,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput(bets + THREADS * OPERATIONS_PER_THREAD, elapsedNanos));
+    }
+
+    @Test
+    void concurrentDepositsSurviveVersionedProfileUpdates() throws Exception {
+        Long userId = userService.createUser(new UserRequestDto("Carga Depositos", "carga.depositos@teste.com")).getId();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    assertTrue(userService.addDeposit(userId, 5.0));
+                }
+                return null;
+            });
+        }
+        // Atualizações completas concorrentes disputam a versão do usuário e passam pela repetição otimista
+        for (int thread = 0; thread < PROFILE_UPDATERS; thread++) {
+            int index = thread;
+            tasks.add(() -> {
+                for (int i = 0; i < PROFILE_UPDATES_PER_THREAD; i++) {
+                    UserRequestDto update = new UserRequestDto("Carga Depositos " + index + "-" + i, "carga.depositos@teste.com");
+                    assertTrue(userService.updateUser(userId, update).isPresent());
+                }
+                return null;
+            });
+        }
+
+        long elapsedNanos = runConcurrently(tasks);
+
+        int deposits = THREADS * OPERATIONS_PER_THREAD;
+        User user = userRepository.findById(userId).orElseThrow();
+        assertEquals(deposits * 5.0, user.getTotalDeposits());
+        assertTrue(user.getName().startsWith("Carga Depositos "));
+
+        log.info("Usuário quente: {} depósitos e {} atualizações de perfil em {} ms ({} depósitos/s)", deposits,
+                PROFILE_UPDATERS * PROFILE_UPDATES_PER_THREAD, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                throughput(deposits, elapsedNanos));
+    }
+
+    /**
+     * Libera todas as tarefas ao mesmo tempo e propaga a primeira falha; retorna o tempo total em nanossegundos
+     */
+    private static long runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long throughput(int operations, long elapsedNanos) {
+        return operations * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+    }
+}
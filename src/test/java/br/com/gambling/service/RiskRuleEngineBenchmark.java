@@ -0,0 +1,128 @@
+package br.com.gambling.service;
+
+import br.com.gambling.enums.RiskFeature;
+import br.com.gambling.enums.RiskRuleScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão JMH dos planos compilados do {@link RiskRuleEngine} sobre o arquivo de regras padrão
+ * ({@code risk-rules.txt}), avaliando vetores sintéticos com distribuições realistas. Os resultados são por vetor.
+ *
+ * Fica no pacote do motor porque {@link RiskRulePlan} é interno a ele.
+ *
+ * Execução:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) br.com.gambling.service.RiskRuleEngineBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskRuleEngineBenchmark {
+
+    private static final int VECTORS = 1024;
+
+    private RiskRulePlan sessionPlan;
+    private RiskRulePlan userPlan;
+    private double[][] vectors;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String source;
+        try (InputStream input = RiskRuleEngineBenchmark.class.getResourceAsStream("/risk-rules.txt")) {
+            source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<RiskRulePlan.Definition> definitions = RiskRulePlan.parse(source);
+        sessionPlan = RiskRulePlan.compile(RiskRuleScope.SESSION, definitions, List.of());
+        userPlan = RiskRulePlan.compile(RiskRuleScope.USER, definitions, List.of());
+        vectors = syntheticVectors();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public void sessionRules(Blackhole blackhole) {
+        evaluate(sessionPlan, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public void userRules(Blackhole blackhole) {
+        evaluate(userPlan, blackhole);
+    }
+
+    private void evaluate(RiskRulePlan plan, Blackhole blackhole) {
+        for (double[] vector : vectors) {
+            RiskRuleResult result = new RiskRuleResult();
+            plan.evaluate(vector, result);
+            blackhole.consume(result.getScore());
+        }
+    }
+
+    private static double[][] syntheticVectors() {
+        Random random = new Random(42);
+        double[][] vectors = new double[VECTORS][];
+        for (int index = 0; index < VECTORS; index++) {
+            double[] vector = new double[RiskFeatureExtractor.SIZE];
+            double betSum = random.nextDouble() * 2000;
+            set(vector, RiskFeature.BETS_LAST_HOUR, random.nextInt(400));
+            set(vector, RiskFeature.BET_SUM_24H, betSum);
+            set(vector, RiskFeature.NET_LOSS_24H, betSum * (random.nextDouble() * 1.4 - 0.4));
+            set(vector, RiskFeature.NET_LOSS_30D, betSum * 10 * (random.nextDouble() * 1.4 - 0.4));
+            set(vector, RiskFeature.SESSIONS_24H, random.nextInt(8));
+            set(vector, RiskFeature.SESSIONS_7D, random.nextInt(40));
+            set(vector, RiskFeature.SESSIONS_30D, random.nextInt(120));
+            set(vector, RiskFeature.DEPOSITS_24H, random.nextDouble() * 1500);
+            set(vector, RiskFeature.DEPOSIT_COUNT_24H, random.nextInt(6));
+            set(vector, RiskFeature.DEPOSITS_30D, random.nextDouble() * 15000);
+            set(vector, RiskFeature.SIGNIFICANT_LOSSES_24H, random.nextInt(3));
+            set(vector, RiskFeature.SIGNIFICANT_LOSSES_30D, random.nextInt(10));
+            set(vector, RiskFeature.DISTINCT_GAME_TYPES_30D, 1 + random.nextInt(6));
+            set(vector, RiskFeature.TOTAL_DEPOSITS, random.nextDouble() * 50000);
+            set(vector, RiskFeature.NET_BALANCE, random.nextDouble() * 20000 - 5000);
+            set(vector, RiskFeature.LIFETIME_SESSIONS, random.nextInt(2000));
+            set(vector, RiskFeature.SESSION_NET_RESULT, random.nextDouble() * 800 - 600);
+            set(vector, RiskFeature.SESSION_MAX_BET, random.nextDouble() * 1500);
+            set(vector, RiskFeature.SESSION_DURATION_MINUTES, random.nextInt(360));
+            set(vector, RiskFeature.SESSION_BET_COUNT, random.nextInt(500));
+            set(vector, RiskFeature.SESSION_ANOMALOUS_BETS, random.nextInt(20) == 0 ? 1 + random.nextInt(3) : 0);
+            set(vector, RiskFeature.SESSION_USER_PROFILE_READY, random.nextInt(10) == 0 ? 0 : 1);
+            set(vector, RiskFeature.SESSION_LOSS_CHASING_EPISODES, random.nextInt(10) == 0 ? 1 : 0);
+            vectors[index] = vector;
+        }
+        return vectors;
+    }
+
+    private static void set(double[] vector, RiskFeature feature, double value) {
+        vector[feature.ordinal()] = value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RiskRuleEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}